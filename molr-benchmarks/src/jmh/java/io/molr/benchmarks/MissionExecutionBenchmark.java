@@ -0,0 +1,98 @@
+package io.molr.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.Mission;
+import io.molr.commons.domain.MissionHandle;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.RunnableLeafsMole;
+import io.molr.mole.core.tree.StrandScheduler;
+import io.molr.mole.core.tree.StrandSchedulers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many leaves per second a {@link RunnableLeafsMole} executes, from resuming a freshly instantiated
+ * mission until all of its leaves are executed. The leaves themselves do nothing, so this is the overhead of the tree
+ * execution (strands, trackers, state publishing). The {@code leaves} counter in the results is the number of executed
+ * leaves per second.
+ * <p>
+ * The instantiation is not measured: the mission has to be paused on its first block before it accepts the resume
+ * command, which is only known from the (periodically published) states.
+ * <p>
+ * The strands run either on the shared scheduler (bounded pools) or on a work-stealing fork-join scheduler, both sized as
+ * the number of available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class MissionExecutionBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    @Param({"FLAT", "BALANCED", "DEEP", "PARALLEL"})
+    private TreeShape shape;
+
+    @Param({"10", "100", "1000"})
+    private int leafCount;
+
+    @Param({"shared", "forkJoin"})
+    private String scheduler;
+
+    private Mission mission;
+    private RunnableLeafsMission runnableMission;
+    private StrandScheduler strandScheduler;
+    private RunnableLeafsMole mole;
+    private volatile CountDownLatch remainingLeaves;
+    private MissionHandle handle;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ExecutedLeaves {
+        public long leaves;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            leaves = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createMission() {
+        runnableMission = shape.mission("benchmark", leafCount, (in, out) -> remainingLeaves.countDown());
+        mission = new Mission(runnableMission.name());
+        strandScheduler = "forkJoin".equals(scheduler) ? StrandSchedulers.forkJoin(Runtime.getRuntime().availableProcessors()) : StrandSchedulers.shared();
+    }
+
+    /**
+     * A new mole per iteration, as the moles keep all their instances
+     */
+    @Setup(Level.Iteration)
+    public void createMole() {
+        mole = new RunnableLeafsMole(ImmutableSet.of(runnableMission), strandScheduler);
+    }
+
+    @Setup(Level.Invocation)
+    public void instantiateMission() {
+        remainingLeaves = new CountDownLatch(leafCount);
+        handle = mole.instantiate(mission, Collections.emptyMap()).block(TIMEOUT);
+        mole.statesFor(handle)
+                .filter(state -> state.allowedCommandsFor(state.rootStrand()).contains(StrandCommand.RESUME))
+                .blockFirst(TIMEOUT);
+    }
+
+    @Benchmark
+    public void executeMission(ExecutedLeaves executed) throws InterruptedException {
+        mole.instructRoot(handle, StrandCommand.RESUME);
+        if (!remainingLeaves.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Mission " + handle + " did not execute all its leaves within " + TIMEOUT);
+        }
+        executed.leaves += leafCount;
+    }
+}
@@ -0,0 +1,84 @@
+package io.molr.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.*;
+import io.molr.commons.domain.dto.MissionStateDeltaDto;
+import io.molr.commons.domain.dto.MissionStateDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of mission states from and to their transport representation, as done for each state sent
+ * over the REST API. The states contain a result and a run state for every block of a balanced tree, and the given
+ * number of strands. For comparison, the same for a delta changing one strand and the blocks of one leaf.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MissionStateDtoBenchmark {
+
+    private static final Set<StrandCommand> ALLOWED_COMMANDS = ImmutableSet.of(StrandCommand.PAUSE, StrandCommand.SKIP);
+
+    @Param({"100", "1000", "10000"})
+    private int leafCount;
+
+    @Param({"1", "100"})
+    private int strandCount;
+
+    private MissionState state;
+    private MissionStateDto dto;
+    private MissionStateDelta delta;
+    private MissionStateDeltaDto deltaDto;
+
+    @Setup(Level.Trial)
+    public void createState() {
+        MissionRepresentation representation = TreeShape.BALANCED.mission("benchmark", leafCount, (in, out) -> {
+        }).treeStructure().missionRepresentation();
+        Block[] blocks = representation.allBlocks().toArray(new Block[0]);
+
+        MissionState.Builder builder = MissionState.builder(Result.UNDEFINED);
+        Strand root = Strand.ofId("0");
+        builder.add(root, RunState.RUNNING, blocks[0], ALLOWED_COMMANDS);
+        for (int i = 1; i < strandCount; i++) {
+            builder.add(Strand.ofId("" + i), RunState.RUNNING, blocks[i % blocks.length], root, ALLOWED_COMMANDS);
+        }
+        for (Block block : blocks) {
+            builder.blockResult(block, Result.SUCCESS);
+            builder.blockRunState(block, RunState.FINISHED);
+        }
+        state = builder.build();
+        dto = MissionStateDto.from(state);
+
+        Block leaf = blocks[blocks.length - 1];
+        delta = MissionStateDelta.builder(Result.UNDEFINED)
+                .strand(root, RunState.PAUSED, leaf.id(), null, ImmutableSet.of(StrandCommand.RESUME))
+                .blockResult(leaf.id(), Result.FAILED)
+                .blockRunState(leaf.id(), RunState.FINISHED)
+                .build();
+        deltaDto = MissionStateDeltaDto.from(delta);
+    }
+
+    @Benchmark
+    public MissionStateDto stateToDto() {
+        return MissionStateDto.from(state);
+    }
+
+    @Benchmark
+    public MissionState dtoToState() {
+        return dto.toMissionState();
+    }
+
+    @Benchmark
+    public MissionStateDeltaDto deltaToDto() {
+        return MissionStateDeltaDto.from(delta);
+    }
+
+    @Benchmark
+    public MissionState applyDeltaDto() {
+        return deltaDto.toMissionStateDelta().applyTo(state);
+    }
+}
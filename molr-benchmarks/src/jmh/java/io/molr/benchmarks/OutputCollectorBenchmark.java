@@ -0,0 +1,65 @@
+package io.molr.benchmarks;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.MissionOutput;
+import io.molr.mole.core.tree.ConcurrentMissionOutputCollector;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.Disposable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many values per second a leaf can emit into the {@link ConcurrentMissionOutputCollector}, either while
+ * nobody or while one client follows the outputs. The values are spread over the given number of distinct names, so
+ * that {@code 1} overwrites the same value in a loop (like a measurement) and larger numbers grow the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OutputCollectorBenchmark {
+
+    private static final Block BLOCK = Block.idAndText("0", "leaf");
+
+    @Param({"1", "1000"})
+    private int distinctNames;
+
+    @Param({"false", "true"})
+    private boolean subscribed;
+
+    private String[] names;
+    private ConcurrentMissionOutputCollector collector;
+    private Disposable subscription;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createNames() {
+        names = new String[distinctNames];
+        for (int i = 0; i < distinctNames; i++) {
+            names[i] = "value " + i;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createCollector() {
+        collector = new ConcurrentMissionOutputCollector();
+        if (subscribed) {
+            subscription = collector.asStream().map(MissionOutput::content).subscribe();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void disposeSubscription() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    @Benchmark
+    public void put() {
+        next = (next + 1) % distinctNames;
+        collector.put(BLOCK, names[next], next);
+    }
+}
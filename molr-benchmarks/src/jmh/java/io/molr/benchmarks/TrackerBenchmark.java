@@ -0,0 +1,78 @@
+package io.molr.benchmarks;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.MissionRepresentation;
+import io.molr.commons.domain.Result;
+import io.molr.mole.core.tree.tracking.Bucket;
+import io.molr.mole.core.tree.tracking.CountingTreeTracker;
+import io.molr.mole.core.tree.tracking.TreeTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of pushing a leaf result into the trackers, including the summarizing of all its ancestors.
+ * Each invocation flips the result of a (pseudo random) leaf, so that every push changes the summaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TrackerBenchmark {
+
+    private static final int PUSHES = 1024;
+
+    public enum TrackerType {
+        TREE {
+            @Override
+            Bucket<Result> create(MissionRepresentation representation) {
+                return TreeTracker.create(representation, Result.UNDEFINED, Result::summaryOf);
+            }
+        },
+        COUNTING {
+            @Override
+            Bucket<Result> create(MissionRepresentation representation) {
+                return CountingTreeTracker.create(representation, Result.UNDEFINED, Result::summaryOf);
+            }
+        };
+
+        abstract Bucket<Result> create(MissionRepresentation representation);
+    }
+
+    @Param({"TREE", "COUNTING"})
+    private TrackerType tracker;
+
+    @Param({"FLAT", "BALANCED", "DEEP"})
+    private TreeShape shape;
+
+    @Param({"100", "1000", "10000"})
+    private int leafCount;
+
+    private Bucket<Result> bucket;
+    private Block[] leaves;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createTracker() {
+        MissionRepresentation representation = shape.mission("benchmark", leafCount, (in, out) -> {
+        }).treeStructure().missionRepresentation();
+        bucket = tracker.create(representation);
+
+        Block[] allLeaves = representation.allBlocks().stream().filter(representation::isLeaf).toArray(Block[]::new);
+        Random random = new Random(0);
+        leaves = new Block[PUSHES];
+        for (int i = 0; i < PUSHES; i++) {
+            leaves[i] = allLeaves[random.nextInt(allLeaves.length)];
+        }
+    }
+
+    @Benchmark
+    public void push() {
+        next = (next + 1) % (2 * PUSHES);
+        /* the same leaf is pushed SUCCESS the first time round and FAILED the next */
+        Result result = next < PUSHES ? Result.SUCCESS : Result.FAILED;
+        bucket.push(leaves[next % PUSHES], result);
+    }
+}
@@ -0,0 +1,99 @@
+package io.molr.benchmarks;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.In;
+import io.molr.commons.domain.MissionParameterDescription;
+import io.molr.commons.domain.Out;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+
+import java.util.function.BiConsumer;
+
+/**
+ * The shapes of the mission trees used in the benchmarks. All of them can be built with any number of leaves.
+ */
+public enum TreeShape {
+    /**
+     * All the leaves are direct children of a sequential root
+     */
+    FLAT(false) {
+        @Override
+        void addLeaves(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf) {
+            addLeafChildren(builder, parent, leaves, leaf);
+        }
+    },
+    /**
+     * Sequential blocks with up to {@value #FAN_OUT} children each
+     */
+    BALANCED(false) {
+        @Override
+        void addLeaves(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf) {
+            addBalanced(builder, parent, leaves, leaf, false);
+        }
+    },
+    /**
+     * Chains of sequential blocks of depth {@value #CHAIN_DEPTH}, each block containing one leaf and the next block
+     */
+    DEEP(false) {
+        @Override
+        void addLeaves(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf) {
+            int remaining = leaves;
+            while (remaining > 0) {
+                int chainLength = Math.min(CHAIN_DEPTH, remaining);
+                Block block = builder.sequentialChild(parent, "chain");
+                for (int i = 0; i < chainLength; i++) {
+                    builder.leafChild(block, "leaf", leaf);
+                    block = i < chainLength - 1 ? builder.sequentialChild(block, "level " + (i + 1)) : block;
+                }
+                remaining -= chainLength;
+            }
+        }
+    },
+    /**
+     * Like {@link #BALANCED}, but all the blocks are parallel, so that each block runs in a strand of its own
+     */
+    PARALLEL(true) {
+        @Override
+        void addLeaves(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf) {
+            addBalanced(builder, parent, leaves, leaf, true);
+        }
+    };
+
+    static final int FAN_OUT = 10;
+    static final int CHAIN_DEPTH = 100;
+
+    private final boolean parallel;
+
+    TreeShape(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Creates a mission of this shape with the given number of leaves, each of them executing the given runnable
+     */
+    public RunnableLeafsMission mission(String name, int leaves, BiConsumer<In, Out> leaf) {
+        RunnableLeafsMission.Builder builder = parallel ? RunnableLeafsMission.parallelRoot(name) : RunnableLeafsMission.sequentialRoot(name);
+        addLeaves(builder, builder.root(), leaves, leaf);
+        return builder.build(MissionParameterDescription.empty());
+    }
+
+    abstract void addLeaves(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf);
+
+    private static void addLeafChildren(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf) {
+        for (int i = 0; i < leaves; i++) {
+            builder.leafChild(parent, "leaf " + i, leaf);
+        }
+    }
+
+    private static void addBalanced(RunnableLeafsMission.Builder builder, Block parent, int leaves, BiConsumer<In, Out> leaf, boolean parallel) {
+        if (leaves <= FAN_OUT) {
+            addLeafChildren(builder, parent, leaves, leaf);
+            return;
+        }
+        for (int i = 0; i < FAN_OUT; i++) {
+            /* distributes the remainder over the first children */
+            int childLeaves = leaves / FAN_OUT + (i < leaves % FAN_OUT ? 1 : 0);
+            Block child = parallel ? builder.parallelChild(parent, "branch " + i) : builder.sequentialChild(parent, "branch " + i);
+            addBalanced(builder, child, childLeaves, leaf, parallel);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.molr.benchmarks;
+
+import io.molr.commons.domain.Block;
+import io.molr.mole.core.tree.TreeStructure;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the navigation queries on a {@link TreeStructure}, which are executed by the strands for each step of a
+ * mission. Each invocation queries a different (pseudo random) block, the same sequence for all the tree sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TreeStructureBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"FLAT", "BALANCED", "DEEP"})
+    private TreeShape shape;
+
+    @Param({"100", "1000", "10000"})
+    private int leafCount;
+
+    private TreeStructure structure;
+    private Block[] sources;
+    private Block[] targets;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next() {
+            next = (next + 1) % QUERIES;
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createStructure() {
+        structure = shape.mission("benchmark", leafCount, (in, out) -> {
+        }).treeStructure();
+        Block[] blocks = structure.allBlocks().toArray(new Block[0]);
+
+        Random random = new Random(0);
+        sources = new Block[QUERIES];
+        targets = new Block[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            sources[i] = blocks[random.nextInt(blocks.length)];
+            targets[i] = blocks[random.nextInt(blocks.length)];
+        }
+    }
+
+    @Benchmark
+    public Optional<Block> nextBlock(Cursor cursor) {
+        return structure.nextBlock(sources[cursor.next()]);
+    }
+
+    @Benchmark
+    public TreeStructure substructure(Cursor cursor) {
+        return structure.substructure(sources[cursor.next()]);
+    }
+
+    @Benchmark
+    public Optional<Block> nextBlockInSubstructure(Cursor cursor) {
+        int query = cursor.next();
+        return structure.substructure(sources[query]).nextBlock(sources[query]);
+    }
+
+    @Benchmark
+    public boolean isDescendantOf(Cursor cursor) {
+        int query = cursor.next();
+        return structure.isDescendantOf(targets[query], sources[query]);
+    }
+}
@@ -0,0 +1,85 @@
+package io.molr.commons.domain;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * When a block was executed and how much CPU it used. The start and the end are measured with a monotonic clock, as
+ * offsets from the start of the mission instance, so they can only be compared within the same instance.
+ * <p>
+ * For a leaf, the timing covers its execution. For an inner block (sequential or parallel), it is rolled up from the
+ * leaves executed below it: it starts with the first of them and ends with the last, and the CPU time is the sum of
+ * theirs. As long as one of the leaves is running, the block has no end.
+ */
+public final class BlockTiming {
+
+    private final Duration start;
+    private final Duration end;
+    private final Duration cpuTime;
+
+    private BlockTiming(Duration start, Duration end, Duration cpuTime) {
+        this.start = requireNonNull(start, "start must not be null");
+        this.end = end;
+        this.cpuTime = requireNonNull(cpuTime, "cpuTime must not be null");
+    }
+
+    public static BlockTiming running(Duration start, Duration cpuTime) {
+        return new BlockTiming(start, null, cpuTime);
+    }
+
+    public static BlockTiming finished(Duration start, Duration end, Duration cpuTime) {
+        return new BlockTiming(start, requireNonNull(end, "end must not be null"), cpuTime);
+    }
+
+    public Duration start() {
+        return start;
+    }
+
+    /**
+     * @return the end of the execution, empty while it is running
+     */
+    public Optional<Duration> end() {
+        return Optional.ofNullable(end);
+    }
+
+    /**
+     * @return the time elapsed between start and end, empty while the execution is running
+     */
+    public Optional<Duration> wallTime() {
+        return end().map(e -> e.minus(start));
+    }
+
+    /**
+     * @return the CPU time used by the execution. Zero if the JVM cannot measure the CPU time of threads
+     */
+    public Duration cpuTime() {
+        return cpuTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BlockTiming that = (BlockTiming) o;
+        return start.equals(that.start) &&
+                Objects.equals(end, that.end) &&
+                cpuTime.equals(that.cpuTime);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end, cpuTime);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockTiming{" +
+                "start=" + start +
+                ", end=" + end +
+                ", cpuTime=" + cpuTime +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package io.molr.commons.domain;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The answer of a strand to a {@link StrandCommand}: either the command was accepted and its effects are applied, or
+ * it was rejected, in which case the reason tells why (e.g. not allowed in the actual state of the strand, or cancelled
+ * by a later command).
+ */
+public final class CommandResponse {
+
+    private final Strand strand;
+    private final StrandCommand command;
+    private final boolean accepted;
+    private final String reason;
+
+    private CommandResponse(Strand strand, StrandCommand command, boolean accepted, String reason) {
+        this.strand = requireNonNull(strand, "strand must not be null");
+        this.command = requireNonNull(command, "command must not be null");
+        this.accepted = accepted;
+        this.reason = reason;
+    }
+
+    public static CommandResponse accepted(Strand strand, StrandCommand command) {
+        return new CommandResponse(strand, command, true, null);
+    }
+
+    public static CommandResponse rejected(Strand strand, StrandCommand command, String reason) {
+        return new CommandResponse(strand, command, false, requireNonNull(reason, "reason must not be null"));
+    }
+
+    public Strand strand() {
+        return strand;
+    }
+
+    public StrandCommand command() {
+        return command;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return why the command was rejected, empty if it was accepted
+     */
+    public Optional<String> reason() {
+        return Optional.ofNullable(reason);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CommandResponse that = (CommandResponse) o;
+        return accepted == that.accepted &&
+                Objects.equals(strand, that.strand) &&
+                command == that.command &&
+                Objects.equals(reason, that.reason);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(strand, command, accepted, reason);
+    }
+
+    @Override
+    public String toString() {
+        return "CommandResponse{" +
+                "strand=" + strand +
+                ", command=" + command +
+                ", accepted=" + accepted +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
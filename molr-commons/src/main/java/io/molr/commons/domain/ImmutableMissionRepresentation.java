@@ -1,6 +1,8 @@
 package io.molr.commons.domain;
 
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 
 import java.util.*;
@@ -11,10 +13,28 @@ public final class ImmutableMissionRepresentation implements MissionRepresentati
 
     private final Block root;
     private final ListMultimap<Block, Block> children;
+    /* derived lookups, computed once as the representation is immutable */
+    private final ImmutableMap<Block, Block> childToParent;
+    private final ImmutableSet<Block> allBlocks;
+    private final ImmutableMap<String, Block> blocksById;
 
     public ImmutableMissionRepresentation(Builder builder) {
         this.root = builder.rootBlock;
         this.children = builder.treeBuilder.build();
+
+        Map<Block, Block> parents = new HashMap<>();
+        ImmutableSet.Builder<Block> blocks = ImmutableSet.builder();
+        blocks.add(root);
+        for (Map.Entry<Block, Block> entry : children.entries()) {
+            parents.putIfAbsent(entry.getValue(), entry.getKey());
+            blocks.add(entry.getKey(), entry.getValue());
+        }
+        this.childToParent = ImmutableMap.copyOf(parents);
+        this.allBlocks = blocks.build();
+
+        Map<String, Block> byId = new HashMap<>();
+        allBlocks.forEach(block -> byId.putIfAbsent(block.id(), block));
+        this.blocksById = ImmutableMap.copyOf(byId);
     }
 
     @Override
@@ -29,13 +49,7 @@ public final class ImmutableMissionRepresentation implements MissionRepresentati
 
     @Override
     public Set<Block> allBlocks() {
-        HashSet<Block> blocks = new HashSet<>();
-        blocks.add(root);
-        for (Block parent : children.keys()) {
-            blocks.add(parent);
-            blocks.addAll(children.get(parent));
-        }
-        return blocks;
+        return allBlocks;
     }
 
     @Override
@@ -48,8 +62,15 @@ public final class ImmutableMissionRepresentation implements MissionRepresentati
         if (block.equals(root)) {
             return Optional.empty();
         }
+        return Optional.ofNullable(childToParent.get(block));
+    }
 
-        return children.entries().stream().filter(e -> e.getValue().equals(block)).map(Map.Entry::getKey).findFirst();
+    @Override
+    public Optional<Block> blockOfId(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(blocksById.get(id));
     }
 
     @Override
@@ -0,0 +1,66 @@
+package io.molr.commons.domain;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * One value emitted by a block of a mission instance. A stream of these events, applied in order, results in the
+ * {@link MissionOutput} of the mission: a later event for the same block and name overrides the earlier value.
+ */
+public final class MissionOutputEvent {
+
+    private final String blockId;
+    private final String name;
+    private final Object value;
+
+    private MissionOutputEvent(String blockId, String name, Object value) {
+        this.blockId = requireNonNull(blockId, "blockId must not be null");
+        this.name = requireNonNull(name, "name must not be null");
+        this.value = requireNonNull(value, "value must not be null");
+    }
+
+    public static MissionOutputEvent of(String blockId, String name, Object value) {
+        return new MissionOutputEvent(blockId, name, value);
+    }
+
+    public static MissionOutputEvent of(Block block, String name, Object value) {
+        return new MissionOutputEvent(block.id(), name, value);
+    }
+
+    public String blockId() {
+        return blockId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Object value() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MissionOutputEvent that = (MissionOutputEvent) o;
+        return Objects.equals(blockId, that.blockId) &&
+                Objects.equals(name, that.name) &&
+                Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(blockId, name, value);
+    }
+
+    @Override
+    public String toString() {
+        return "MissionOutputEvent{" +
+                "blockId='" + blockId + '\'' +
+                ", name='" + name + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
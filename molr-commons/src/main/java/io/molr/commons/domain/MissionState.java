@@ -19,6 +19,7 @@ public final class MissionState {
     private final ImmutableListMultimap<Strand, Strand> parentToChildren;
     private final Map<String, Result> blockIdsToResult;
     private final Map<String, RunState> blockIdsToRunState;
+    private final Map<String, BlockTiming> blockIdsToTiming;
 
 
     private MissionState(Builder builder) {
@@ -32,6 +33,7 @@ public final class MissionState {
         this.strandRunStates = builder.strandRunStatesBuilder.build();
         this.blockIdsToResult = builder.blockIdsToResult.build();
         this.blockIdsToRunState = builder.blockIdsToRunState.build();
+        this.blockIdsToTiming = builder.blockIdsToTiming.build();
     }
 
     public Set<StrandCommand> allowedCommandsFor(Strand strand) {
@@ -54,6 +56,21 @@ public final class MissionState {
         return this.blockIdsToRunState;
     }
 
+    /**
+     * @return the timings of the blocks which started executing, see {@link BlockTiming}
+     */
+    public Map<String, BlockTiming> blockIdsToTiming() {
+        return this.blockIdsToTiming;
+    }
+
+    public Optional<BlockTiming> timingOf(Block block) {
+        return timingOfBlockId(block.id());
+    }
+
+    public Optional<BlockTiming> timingOfBlockId(String blockId) {
+        return Optional.ofNullable(blockIdsToTiming.get(blockId));
+    }
+
     public Result resultOf(Block block) {
         return resultOfBlockId(block.id());
     }
@@ -86,6 +103,11 @@ public final class MissionState {
         return this.parentToChildren.get(parent);
     }
 
+    public Optional<Strand> parentOf(Strand strand) {
+        /* the inverse is computed once and cached by the immutable multimap */
+        return this.parentToChildren.inverse().get(strand).stream().findFirst();
+    }
+
     public Set<Strand> allStrands() {
         return strandRunStates.keySet();
     }
@@ -103,6 +125,7 @@ public final class MissionState {
         private final ImmutableListMultimap.Builder<Strand, Strand> parentToChildrenBuilder = ImmutableListMultimap.builder();
         private final ImmutableMap.Builder<String, Result> blockIdsToResult = ImmutableMap.builder();
         private final ImmutableMap.Builder<String, RunState> blockIdsToRunState = ImmutableMap.builder();
+        private final ImmutableMap.Builder<String, BlockTiming> blockIdsToTiming = ImmutableMap.builder();
 
         private Builder(Result result) {
             this.result = Objects.requireNonNull(result, "overall result must not be null");
@@ -163,6 +186,15 @@ public final class MissionState {
             return blockRunState(block.id(), runState);
         }
 
+        public Builder blockTiming(String blockId, BlockTiming timing) {
+            blockIdsToTiming.put(blockId, timing);
+            return this;
+        }
+
+        public Builder blockTiming(Block block, BlockTiming timing) {
+            return blockTiming(block.id(), timing);
+        }
+
         public MissionState build() {
             return new MissionState(this);
         }
@@ -0,0 +1,313 @@
+package io.molr.commons.domain;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The changes of a {@link MissionState}: the strands which changed (with their complete new state) and the blocks whose
+ * result, run state or timing changed. Strands are never removed from a mission state, so a delta only contains updates.
+ * <p>
+ * A delta can also be a snapshot (see {@link #isSnapshot()}), in which case it contains the complete state and
+ * {@link #applyTo(MissionState)} ignores the previous state.
+ */
+public final class MissionStateDelta {
+
+    private final boolean snapshot;
+    private final Result result;
+    private final List<StrandUpdate> strandUpdates;
+    private final Map<String, Result> blockIdsToResult;
+    private final Map<String, RunState> blockIdsToRunState;
+    private final Map<String, BlockTiming> blockIdsToTiming;
+
+    private MissionStateDelta(Builder builder) {
+        this.snapshot = builder.snapshot;
+        this.result = requireNonNull(builder.result, "result must not be null");
+        this.strandUpdates = ImmutableList.copyOf(builder.strandUpdates.values());
+        this.blockIdsToResult = ImmutableMap.copyOf(builder.blockIdsToResult);
+        this.blockIdsToRunState = ImmutableMap.copyOf(builder.blockIdsToRunState);
+        this.blockIdsToTiming = ImmutableMap.copyOf(builder.blockIdsToTiming);
+    }
+
+    public static Builder builder(Result result) {
+        return new Builder(result, false);
+    }
+
+    /**
+     * Returns a builder for a snapshot delta. All the strands and blocks of the state have to be added to it.
+     */
+    public static Builder snapshotBuilder(Result result) {
+        return new Builder(result, true);
+    }
+
+    /**
+     * Creates a snapshot delta containing the complete given state
+     */
+    public static MissionStateDelta snapshotOf(MissionState state) {
+        Builder builder = new Builder(state.result(), true);
+        for (Strand strand : state.allStrands()) {
+            builder.strand(strand, state);
+        }
+        builder.blockIdsToResult.putAll(state.blockIdsToResult());
+        builder.blockIdsToRunState.putAll(state.blockIdsToRunState());
+        builder.blockIdsToTiming.putAll(state.blockIdsToTiming());
+        return builder.build();
+    }
+
+    /**
+     * Computes the changes that lead from the {@code before} state to the {@code after} state
+     */
+    public static MissionStateDelta between(MissionState before, MissionState after) {
+        Builder builder = builder(after.result());
+        for (Strand strand : after.allStrands()) {
+            if (!StrandUpdate.of(strand, after).equals(StrandUpdate.of(strand, before))) {
+                builder.strand(strand, after);
+            }
+        }
+        after.blockIdsToResult().forEach((blockId, result) -> {
+            if (!Objects.equals(before.blockIdsToResult().get(blockId), result)) {
+                builder.blockResult(blockId, result);
+            }
+        });
+        after.blockIdsToRunState().forEach((blockId, runState) -> {
+            if (!Objects.equals(before.blockIdsToRunState().get(blockId), runState)) {
+                builder.blockRunState(blockId, runState);
+            }
+        });
+        after.blockIdsToTiming().forEach((blockId, timing) -> {
+            if (!Objects.equals(before.blockIdsToTiming().get(blockId), timing)) {
+                builder.blockTiming(blockId, timing);
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Applies the changes to the given state, returning the new state. If this delta is a snapshot, the given state is
+     * ignored (and might be null)
+     */
+    public MissionState applyTo(MissionState base) {
+        if (!snapshot) {
+            requireNonNull(base, "base state must not be null for a non snapshot delta");
+        }
+        MissionState previous = snapshot ? null : base;
+
+        Map<Strand, StrandUpdate> strands = new LinkedHashMap<>();
+        if (previous != null) {
+            previous.allStrands().forEach(strand -> strands.put(strand, StrandUpdate.of(strand, previous)));
+        }
+        strandUpdates.forEach(update -> strands.put(update.strand(), update));
+
+        MissionState.Builder builder = MissionState.builder(result);
+        strands.values().forEach(update -> builder.add(update.strand(), update.runState(),
+                update.cursorBlockId().orElse(null), update.parent().orElse(null), update.allowedCommands()));
+
+        merge(previous == null ? null : previous.blockIdsToResult(), blockIdsToResult).forEach(builder::blockResult);
+        merge(previous == null ? null : previous.blockIdsToRunState(), blockIdsToRunState).forEach(builder::blockRunState);
+        merge(previous == null ? null : previous.blockIdsToTiming(), blockIdsToTiming).forEach(builder::blockTiming);
+        return builder.build();
+    }
+
+    private static <T> Map<String, T> merge(Map<String, T> base, Map<String, T> changes) {
+        if (base == null || base.isEmpty()) {
+            return changes;
+        }
+        Map<String, T> merged = new LinkedHashMap<>(base);
+        merged.putAll(changes);
+        return merged;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether this delta does not contain any change (apart from the overall result, which is always contained)
+     */
+    public boolean isEmpty() {
+        return strandUpdates.isEmpty() && blockIdsToResult.isEmpty() && blockIdsToRunState.isEmpty() && blockIdsToTiming.isEmpty();
+    }
+
+    public Result result() {
+        return result;
+    }
+
+    public List<StrandUpdate> strandUpdates() {
+        return strandUpdates;
+    }
+
+    public Map<String, Result> blockIdsToResult() {
+        return blockIdsToResult;
+    }
+
+    public Map<String, RunState> blockIdsToRunState() {
+        return blockIdsToRunState;
+    }
+
+    public Map<String, BlockTiming> blockIdsToTiming() {
+        return blockIdsToTiming;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MissionStateDelta that = (MissionStateDelta) o;
+        return snapshot == that.snapshot &&
+                result == that.result &&
+                Objects.equals(strandUpdates, that.strandUpdates) &&
+                Objects.equals(blockIdsToResult, that.blockIdsToResult) &&
+                Objects.equals(blockIdsToRunState, that.blockIdsToRunState) &&
+                Objects.equals(blockIdsToTiming, that.blockIdsToTiming);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(snapshot, result, strandUpdates, blockIdsToResult, blockIdsToRunState, blockIdsToTiming);
+    }
+
+    @Override
+    public String toString() {
+        return "MissionStateDelta{" +
+                "snapshot=" + snapshot +
+                ", result=" + result +
+                ", strandUpdates=" + strandUpdates +
+                ", blockIdsToResult=" + blockIdsToResult +
+                ", blockIdsToRunState=" + blockIdsToRunState +
+                ", blockIdsToTiming=" + blockIdsToTiming +
+                '}';
+    }
+
+    /**
+     * The complete state of one strand within a {@link MissionStateDelta}
+     */
+    public static final class StrandUpdate {
+
+        private final Strand strand;
+        private final Strand parent;
+        private final RunState runState;
+        private final String cursorBlockId;
+        private final Set<StrandCommand> allowedCommands;
+
+        private StrandUpdate(Strand strand, Strand parent, RunState runState, String cursorBlockId, Set<StrandCommand> allowedCommands) {
+            this.strand = requireNonNull(strand, "strand must not be null");
+            this.runState = requireNonNull(runState, "runState must not be null");
+            this.allowedCommands = ImmutableSet.copyOf(requireNonNull(allowedCommands, "allowedCommands must not be null"));
+            /* parent and cursor might be null! */
+            this.parent = parent;
+            this.cursorBlockId = cursorBlockId;
+        }
+
+        public static StrandUpdate of(Strand strand, Strand parent, RunState runState, String cursorBlockId, Set<StrandCommand> allowedCommands) {
+            return new StrandUpdate(strand, parent, runState, cursorBlockId, allowedCommands);
+        }
+
+        private static StrandUpdate of(Strand strand, MissionState state) {
+            RunState runState = state.runStateOf(strand);
+            if (runState == null) {
+                return null;
+            }
+            return new StrandUpdate(strand, state.parentOf(strand).orElse(null), runState,
+                    state.cursorBlockIdIn(strand).orElse(null), state.allowedCommandsFor(strand));
+        }
+
+        public Strand strand() {
+            return strand;
+        }
+
+        public Optional<Strand> parent() {
+            return Optional.ofNullable(parent);
+        }
+
+        public RunState runState() {
+            return runState;
+        }
+
+        public Optional<String> cursorBlockId() {
+            return Optional.ofNullable(cursorBlockId);
+        }
+
+        public Set<StrandCommand> allowedCommands() {
+            return allowedCommands;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StrandUpdate that = (StrandUpdate) o;
+            return Objects.equals(strand, that.strand) &&
+                    Objects.equals(parent, that.parent) &&
+                    runState == that.runState &&
+                    Objects.equals(cursorBlockId, that.cursorBlockId) &&
+                    Objects.equals(allowedCommands, that.allowedCommands);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(strand, parent, runState, cursorBlockId, allowedCommands);
+        }
+
+        @Override
+        public String toString() {
+            return "StrandUpdate{" +
+                    "strand=" + strand +
+                    ", parent=" + parent +
+                    ", runState=" + runState +
+                    ", cursorBlockId='" + cursorBlockId + '\'' +
+                    ", allowedCommands=" + allowedCommands +
+                    '}';
+        }
+    }
+
+    public static class Builder {
+        private final Result result;
+        private final boolean snapshot;
+        /* keyed by strand, so that a strand updated twice only keeps its latest state */
+        private final Map<Strand, StrandUpdate> strandUpdates = new LinkedHashMap<>();
+        private final Map<String, Result> blockIdsToResult = new LinkedHashMap<>();
+        private final Map<String, RunState> blockIdsToRunState = new LinkedHashMap<>();
+        private final Map<String, BlockTiming> blockIdsToTiming = new LinkedHashMap<>();
+
+        private Builder(Result result, boolean snapshot) {
+            this.result = requireNonNull(result, "overall result must not be null");
+            this.snapshot = snapshot;
+        }
+
+        public Builder strand(StrandUpdate update) {
+            strandUpdates.put(update.strand(), update);
+            return this;
+        }
+
+        public Builder strand(Strand strand, RunState runState, String cursorBlockId, Strand parent, Set<StrandCommand> allowedCommands) {
+            return strand(StrandUpdate.of(strand, parent, runState, cursorBlockId, allowedCommands));
+        }
+
+        private Builder strand(Strand strand, MissionState state) {
+            return strand(StrandUpdate.of(strand, state));
+        }
+
+        public Builder blockResult(String blockId, Result blockResult) {
+            blockIdsToResult.put(blockId, blockResult);
+            return this;
+        }
+
+        public Builder blockRunState(String blockId, RunState runState) {
+            blockIdsToRunState.put(blockId, runState);
+            return this;
+        }
+
+        public Builder blockTiming(String blockId, BlockTiming timing) {
+            blockIdsToTiming.put(blockId, timing);
+            return this;
+        }
+
+        public MissionStateDelta build() {
+            return new MissionStateDelta(this);
+        }
+    }
+}
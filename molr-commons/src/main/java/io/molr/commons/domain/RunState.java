@@ -10,7 +10,11 @@ public enum RunState {
     UNDEFINED,
     RUNNING,
     PAUSED,
-    FINISHED;
+    FINISHED,
+    /**
+     * Waiting for a free slot of its parallel block, which limits the number of children running at the same time
+     */
+    QUEUED;
 
     public static final RunState summaryOf(Iterable<RunState> values) {
         for (RunState value : values) {
@@ -18,6 +22,11 @@ public enum RunState {
                 return RUNNING;
             }
         }
+        for (RunState value : values) {
+            if (QUEUED == value) {
+                return QUEUED;
+            }
+        }
         for (RunState value : values) {
             if (PAUSED == value) {
                 return PAUSED;
@@ -0,0 +1,48 @@
+package io.molr.commons.domain.dto;
+
+import io.molr.commons.domain.BlockTiming;
+
+import java.time.Duration;
+
+/**
+ * Transport representation of a {@link BlockTiming}, all the values in nanoseconds. The end is null while the block
+ * is running.
+ */
+public class BlockTimingDto {
+
+    public final long startNanos;
+    public final Long endNanos;
+    public final long cpuNanos;
+
+    public BlockTimingDto(long startNanos, Long endNanos, long cpuNanos) {
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.cpuNanos = cpuNanos;
+    }
+
+    public BlockTimingDto() {
+        this(0, null, 0);
+    }
+
+    public static final BlockTimingDto from(BlockTiming timing) {
+        return new BlockTimingDto(timing.start().toNanos(), timing.end().map(Duration::toNanos).orElse(null), timing.cpuTime().toNanos());
+    }
+
+    public BlockTiming toBlockTiming() {
+        Duration start = Duration.ofNanos(startNanos);
+        Duration cpuTime = Duration.ofNanos(cpuNanos);
+        if (endNanos == null) {
+            return BlockTiming.running(start, cpuTime);
+        }
+        return BlockTiming.finished(start, Duration.ofNanos(endNanos), cpuTime);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockTimingDto{" +
+                "startNanos=" + startNanos +
+                ", endNanos=" + endNanos +
+                ", cpuNanos=" + cpuNanos +
+                '}';
+    }
+}
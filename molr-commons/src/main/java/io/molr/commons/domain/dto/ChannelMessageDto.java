@@ -0,0 +1,88 @@
+package io.molr.commons.domain.dto;
+
+/**
+ * A message on the multiplexed channel between a remote mole and a mole server. Several streams are carried over the
+ * same connection, each one identified by the id chosen by the client when subscribing. Which of the fields are set
+ * depends on the type of the message.
+ */
+public class ChannelMessageDto {
+
+    public enum Type {
+        /* client to server */
+        SUBSCRIBE,
+        REQUEST,
+        CANCEL,
+        COMMAND,
+        /* server to client */
+        NEXT,
+        COMPLETE,
+        ERROR
+    }
+
+    public final Type type;
+    public final long id;
+    public final String path;
+    public final long demand;
+    public final Object payload;
+    public final String error;
+
+    public ChannelMessageDto() {
+        this(null, 0, null, 0, null, null);
+    }
+
+    private ChannelMessageDto(Type type, long id, String path, long demand, Object payload, String error) {
+        this.type = type;
+        this.id = id;
+        this.path = path;
+        this.demand = demand;
+        this.payload = payload;
+        this.error = error;
+    }
+
+    /**
+     * Opens the stream served by the rest service at the given path. No item is sent before it is requested.
+     */
+    public static ChannelMessageDto subscribe(long id, String path) {
+        return new ChannelMessageDto(Type.SUBSCRIBE, id, path, 0, null, null);
+    }
+
+    public static ChannelMessageDto request(long id, long demand) {
+        return new ChannelMessageDto(Type.REQUEST, id, null, demand, null, null);
+    }
+
+    public static ChannelMessageDto cancel(long id) {
+        return new ChannelMessageDto(Type.CANCEL, id, null, 0, null, null);
+    }
+
+    /**
+     * Executes the command posted to the rest service at the given path. Its response is sent back like a stream with
+     * the given id, without waiting for a request.
+     */
+    public static ChannelMessageDto command(long id, String path) {
+        return new ChannelMessageDto(Type.COMMAND, id, path, 0, null, null);
+    }
+
+    public static ChannelMessageDto next(long id, Object payload) {
+        return new ChannelMessageDto(Type.NEXT, id, null, 0, payload, null);
+    }
+
+    public static ChannelMessageDto complete(long id) {
+        return new ChannelMessageDto(Type.COMPLETE, id, null, 0, null, null);
+    }
+
+    public static ChannelMessageDto error(long id, String error) {
+        return new ChannelMessageDto(Type.ERROR, id, null, 0, null, error);
+    }
+
+    @Override
+    public String toString() {
+        return "ChannelMessageDto{" +
+                "type=" + type +
+                ", id=" + id +
+                ", path='" + path + '\'' +
+                ", demand=" + demand +
+                ", payload=" + payload +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
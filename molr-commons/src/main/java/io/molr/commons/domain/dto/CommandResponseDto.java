@@ -0,0 +1,48 @@
+package io.molr.commons.domain.dto;
+
+import io.molr.commons.domain.CommandResponse;
+import io.molr.commons.domain.Strand;
+import io.molr.commons.domain.StrandCommand;
+
+public class CommandResponseDto {
+
+    public final String strandId;
+    public final String command;
+    public final boolean accepted;
+    public final String reason;
+
+    public CommandResponseDto(String strandId, String command, boolean accepted, String reason) {
+        this.strandId = strandId;
+        this.command = command;
+        this.accepted = accepted;
+        this.reason = reason;
+    }
+
+    public CommandResponseDto() {
+        this(null, null, false, null);
+    }
+
+    public static final CommandResponseDto from(CommandResponse response) {
+        return new CommandResponseDto(response.strand().id(), response.command().name(), response.isAccepted(),
+                response.reason().orElse(null));
+    }
+
+    public CommandResponse toCommandResponse() {
+        Strand strand = Strand.ofId(strandId);
+        StrandCommand strandCommand = StrandCommand.valueOf(command);
+        if (accepted) {
+            return CommandResponse.accepted(strand, strandCommand);
+        }
+        return CommandResponse.rejected(strand, strandCommand, reason);
+    }
+
+    @Override
+    public String toString() {
+        return "CommandResponseDto{" +
+                "strandId='" + strandId + '\'' +
+                ", command='" + command + '\'' +
+                ", accepted=" + accepted +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package io.molr.commons.domain.dto;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The values of one meter of a mole server, by statistic (e.g. {@code count}, {@code totalSeconds})
+ */
+public class MetricDto {
+
+    public final String name;
+    public final Map<String, String> tags;
+    public final Map<String, Double> measurements;
+
+    public MetricDto(String name, Map<String, String> tags, Map<String, Double> measurements) {
+        this.name = name;
+        this.tags = tags;
+        this.measurements = measurements;
+    }
+
+    public MetricDto() {
+        this(null, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    @Override
+    public String toString() {
+        return "MetricDto{" +
+                "name='" + name + '\'' +
+                ", tags=" + tags +
+                ", measurements=" + measurements +
+                '}';
+    }
+}
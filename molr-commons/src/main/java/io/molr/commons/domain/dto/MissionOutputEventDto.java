@@ -0,0 +1,39 @@
+package io.molr.commons.domain.dto;
+
+import io.molr.commons.domain.MissionOutputEvent;
+
+public class MissionOutputEventDto {
+
+    public final String blockId;
+    public final String name;
+    public final Object value;
+
+    public MissionOutputEventDto() {
+        this.blockId = null;
+        this.name = null;
+        this.value = null;
+    }
+
+    public MissionOutputEventDto(String blockId, String name, Object value) {
+        this.blockId = blockId;
+        this.name = name;
+        this.value = value;
+    }
+
+    public static final MissionOutputEventDto from(MissionOutputEvent event) {
+        return new MissionOutputEventDto(event.blockId(), event.name(), event.value());
+    }
+
+    public MissionOutputEvent toMissionOutputEvent() {
+        return MissionOutputEvent.of(blockId, name, value);
+    }
+
+    @Override
+    public String toString() {
+        return "MissionOutputEventDto{" +
+                "blockId='" + blockId + '\'' +
+                ", name='" + name + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package io.molr.commons.domain.dto;
+
+import io.molr.commons.domain.MissionStateDelta;
+import io.molr.commons.domain.Result;
+import io.molr.commons.domain.RunState;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Transport representation of a {@link MissionStateDelta}. Only the changed strands and blocks are contained, unless
+ * the delta is a snapshot.
+ */
+public class MissionStateDeltaDto {
+
+    public final boolean snapshot;
+    public final String result;
+    public final List<StrandUpdateDto> strandUpdates;
+    public final Map<String, String> blockResults;
+    public final Map<String, String> blockRunStates;
+    public final Map<String, BlockTimingDto> blockTimings;
+
+    private MissionStateDeltaDto(boolean snapshot, String result, List<StrandUpdateDto> strandUpdates, Map<String, String> blockResults, Map<String, String> blockRunStates, Map<String, BlockTimingDto> blockTimings) {
+        this.snapshot = snapshot;
+        this.result = result;
+        this.strandUpdates = strandUpdates;
+        this.blockResults = blockResults;
+        this.blockRunStates = blockRunStates;
+        this.blockTimings = blockTimings;
+    }
+
+    public MissionStateDeltaDto() {
+        this(false, null, emptyList(), emptyMap(), emptyMap(), emptyMap());
+    }
+
+    public static final MissionStateDeltaDto from(MissionStateDelta delta) {
+        List<StrandUpdateDto> strandUpdates = delta.strandUpdates().stream().map(StrandUpdateDto::from).collect(toList());
+        return new MissionStateDeltaDto(delta.isSnapshot(), delta.result().name(), strandUpdates,
+                toNameMap(delta.blockIdsToResult()), toNameMap(delta.blockIdsToRunState()),
+                MissionStateDto.toTimingDtos(delta.blockIdsToTiming()));
+    }
+
+    private static <T extends Enum<T>> Map<String, String> toNameMap(Map<String, T> inMap) {
+        return inMap.entrySet().stream()
+                .collect(toMap(e -> e.getKey(), e -> e.getValue().name()));
+    }
+
+    public MissionStateDelta toMissionStateDelta() {
+        Result overallResult = Result.valueOf(result);
+        MissionStateDelta.Builder builder = snapshot ? MissionStateDelta.snapshotBuilder(overallResult) : MissionStateDelta.builder(overallResult);
+        strandUpdates.forEach(update -> builder.strand(update.toStrandUpdate()));
+        blockResults.forEach((blockId, blockResult) -> builder.blockResult(blockId, Result.valueOf(blockResult)));
+        blockRunStates.forEach((blockId, runState) -> builder.blockRunState(blockId, RunState.valueOf(runState)));
+        blockTimings.forEach((blockId, timing) -> builder.blockTiming(blockId, timing.toBlockTiming()));
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return "MissionStateDeltaDto{" +
+                "snapshot=" + snapshot +
+                ", result='" + result + '\'' +
+                ", strandUpdates=" + strandUpdates +
+                ", blockResults=" + blockResults +
+                ", blockRunStates=" + blockRunStates +
+                ", blockTimings=" + blockTimings +
+                '}';
+    }
+}
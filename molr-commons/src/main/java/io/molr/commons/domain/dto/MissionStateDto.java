@@ -23,8 +23,9 @@ public class MissionStateDto {
     public final Set<StrandDto> strands;
     public final Map<String, String> blockResults;
     public final Map<String, String> blockRunStates;
+    public final Map<String, BlockTimingDto> blockTimings;
 
-    private MissionStateDto(String result, Map<String, Set<String>> strandAllowedCommands, Map<String, String> strandCursorBlockIds, Map<String, String> strandRunStates, Set<StrandDto> strands, Map<String, List<String>> parentToChildrenStrands, Map<String, String> blockResults, Map<String, String> blockRunStates) {
+    private MissionStateDto(String result, Map<String, Set<String>> strandAllowedCommands, Map<String, String> strandCursorBlockIds, Map<String, String> strandRunStates, Set<StrandDto> strands, Map<String, List<String>> parentToChildrenStrands, Map<String, String> blockResults, Map<String, String> blockRunStates, Map<String, BlockTimingDto> blockTimings) {
         this.result = result;
         this.strandAllowedCommands = strandAllowedCommands;
         this.strandCursorBlockIds = strandCursorBlockIds;
@@ -33,10 +34,11 @@ public class MissionStateDto {
         this.parentToChildrenStrands = parentToChildrenStrands;
         this.blockResults = blockResults;
         this.blockRunStates = blockRunStates;
+        this.blockTimings = blockTimings;
     }
 
     public MissionStateDto() {
-        this(null, emptyMap(), emptyMap(), emptyMap(), emptySet(), emptyMap(), emptyMap(), emptyMap());
+        this(null, emptyMap(), emptyMap(), emptyMap(), emptySet(), emptyMap(), emptyMap(), emptyMap(), emptyMap());
     }
 
     public static final MissionStateDto from(MissionState missionState) {
@@ -63,7 +65,7 @@ public class MissionStateDto {
             }
         }
 
-        return new MissionStateDto(missionState.result().name(), allowedCommands, strandCursors, runStates, strandDtos, parentToChildrenStrands, toNameMap(missionState.blockIdsToResult()), toNameMap(missionState.blockIdsToRunState()));
+        return new MissionStateDto(missionState.result().name(), allowedCommands, strandCursors, runStates, strandDtos, parentToChildrenStrands, toNameMap(missionState.blockIdsToResult()), toNameMap(missionState.blockIdsToRunState()), toTimingDtos(missionState.blockIdsToTiming()));
     }
 
     private static <T extends Enum<T>> Map<String, String> toNameMap(Map<String, T> inMap) {
@@ -71,6 +73,11 @@ public class MissionStateDto {
                 .collect(toMap(e -> e.getKey(), e -> e.getValue().name()));
     }
 
+    static Map<String, BlockTimingDto> toTimingDtos(Map<String, BlockTiming> timings) {
+        return timings.entrySet().stream()
+                .collect(toMap(e -> e.getKey(), e -> BlockTimingDto.from(e.getValue())));
+    }
+
     public MissionState toMissionState() {
         Map<String, Strand> idsToStrand = strands.stream().collect(toMap(s -> s.id, StrandDto::toStrand));
         MissionState.Builder builder = MissionState.builder(Result.valueOf(result));
@@ -91,6 +98,7 @@ public class MissionStateDto {
 
         blockResults.entrySet().forEach(e -> builder.blockResult(e.getKey(), Result.valueOf(e.getValue())));
         blockRunStates.entrySet().forEach(e -> builder.blockRunState(e.getKey(), RunState.valueOf(e.getValue())));
+        blockTimings.forEach((blockId, timing) -> builder.blockTiming(blockId, timing.toBlockTiming()));
         return builder.build();
     }
 
@@ -117,6 +125,7 @@ public class MissionStateDto {
                 ", strands=" + strands +
                 ", blockResults=" + blockResults +
                 ", blockRunStates=" + blockRunStates +
+                ", blockTimings=" + blockTimings +
                 '}';
     }
 }
@@ -0,0 +1,55 @@
+package io.molr.commons.domain.dto;
+
+import io.molr.commons.domain.MissionStateDelta.StrandUpdate;
+import io.molr.commons.domain.RunState;
+import io.molr.commons.domain.Strand;
+import io.molr.commons.domain.StrandCommand;
+
+import java.util.Set;
+
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toSet;
+
+public class StrandUpdateDto {
+
+    public final String id;
+    public final String parentId;
+    public final String runState;
+    public final String cursorBlockId;
+    public final Set<String> allowedCommands;
+
+    private StrandUpdateDto(String id, String parentId, String runState, String cursorBlockId, Set<String> allowedCommands) {
+        this.id = id;
+        this.parentId = parentId;
+        this.runState = runState;
+        this.cursorBlockId = cursorBlockId;
+        this.allowedCommands = allowedCommands;
+    }
+
+    public StrandUpdateDto() {
+        this(null, null, null, null, emptySet());
+    }
+
+    public static final StrandUpdateDto from(StrandUpdate update) {
+        return new StrandUpdateDto(update.strand().id(), update.parent().map(Strand::id).orElse(null),
+                update.runState().name(), update.cursorBlockId().orElse(null),
+                update.allowedCommands().stream().map(StrandCommand::name).collect(toSet()));
+    }
+
+    public StrandUpdate toStrandUpdate() {
+        Strand parent = parentId == null ? null : Strand.ofId(parentId);
+        Set<StrandCommand> commands = allowedCommands.stream().map(StrandCommand::valueOf).collect(toSet());
+        return StrandUpdate.of(Strand.ofId(id), parent, RunState.valueOf(runState), cursorBlockId, commands);
+    }
+
+    @Override
+    public String toString() {
+        return "StrandUpdateDto{" +
+                "id='" + id + '\'' +
+                ", parentId='" + parentId + '\'' +
+                ", runState='" + runState + '\'' +
+                ", cursorBlockId='" + cursorBlockId + '\'' +
+                ", allowedCommands=" + allowedCommands +
+                '}';
+    }
+}
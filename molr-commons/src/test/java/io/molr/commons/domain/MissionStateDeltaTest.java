@@ -0,0 +1,62 @@
+package io.molr.commons.domain;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static io.molr.commons.domain.StrandCommand.PAUSE;
+import static io.molr.commons.domain.StrandCommand.RESUME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MissionStateDeltaTest {
+
+    private static final Strand ROOT = Strand.ofId("0");
+    private static final Strand CHILD = Strand.ofId("1");
+
+    private static final MissionState BEFORE = MissionState.builder(Result.UNDEFINED)
+            .add(ROOT, RunState.PAUSED, "0", null, ImmutableSet.of(RESUME))
+            .blockResult("0", Result.UNDEFINED)
+            .blockResult("1", Result.UNDEFINED)
+            .blockRunState("0", RunState.PAUSED)
+            .build();
+
+    private static final MissionState AFTER = MissionState.builder(Result.SUCCESS)
+            .add(ROOT, RunState.RUNNING, "0", null, ImmutableSet.of(PAUSE))
+            .add(CHILD, RunState.RUNNING, "1", ROOT, ImmutableSet.of(PAUSE))
+            .blockResult("0", Result.UNDEFINED)
+            .blockResult("1", Result.SUCCESS)
+            .blockRunState("0", RunState.RUNNING)
+            .build();
+
+    @Test
+    public void deltaContainsOnlyChanges() {
+        MissionStateDelta delta = MissionStateDelta.between(BEFORE, AFTER);
+
+        assertThat(delta.isSnapshot()).isFalse();
+        assertThat(delta.result()).isEqualTo(Result.SUCCESS);
+        assertThat(delta.strandUpdates()).extracting(MissionStateDelta.StrandUpdate::strand).containsExactly(ROOT, CHILD);
+        assertThat(delta.blockIdsToResult()).containsOnlyKeys("1");
+        assertThat(delta.blockIdsToRunState()).containsOnlyKeys("0");
+    }
+
+    @Test
+    public void applyingDeltaRebuildsState() {
+        MissionState rebuilt = MissionStateDelta.between(BEFORE, AFTER).applyTo(BEFORE);
+
+        assertThat(MissionStateDelta.between(rebuilt, AFTER).isEmpty()).isTrue();
+        assertThat(rebuilt.result()).isEqualTo(Result.SUCCESS);
+        assertThat(rebuilt.parentOf(CHILD)).contains(ROOT);
+        assertThat(rebuilt.cursorBlockIdIn(CHILD)).contains("1");
+        assertThat(rebuilt.allowedCommandsFor(ROOT)).containsExactly(PAUSE);
+        assertThat(rebuilt.blockIdsToResult()).isEqualTo(AFTER.blockIdsToResult());
+    }
+
+    @Test
+    public void snapshotIgnoresPreviousState() {
+        MissionStateDelta snapshot = MissionStateDelta.snapshotOf(AFTER);
+
+        assertThat(snapshot.isSnapshot()).isTrue();
+        assertThat(MissionStateDelta.between(snapshot.applyTo(null), AFTER).isEmpty()).isTrue();
+        assertThat(MissionStateDelta.between(snapshot.applyTo(BEFORE), AFTER).isEmpty()).isTrue();
+    }
+
+}
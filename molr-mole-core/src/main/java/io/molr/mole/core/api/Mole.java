@@ -1,9 +1,14 @@
 package io.molr.mole.core.api;
 
 import io.molr.commons.domain.*;
+import io.molr.mole.core.trace.TraceEvent;
+import io.molr.mole.core.utils.MissionOutputEvents;
+import io.molr.mole.core.utils.MissionStateDeltas;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -60,6 +65,24 @@ public interface Mole {
      */
     Flux<MissionState> statesFor(MissionHandle handle);
 
+    /**
+     * Retrieves the changes of the state of the mission instance. The first item emitted to each subscriber is a
+     * snapshot ({@link MissionStateDelta#isSnapshot()}) containing the complete state, each following item only
+     * contains the strands and blocks which changed since the previous one. Applying the deltas in order (see
+     * {@link MissionStateDelta#applyTo(MissionState)}) yields the same states as {@link #statesFor(MissionHandle)}.
+     * This is the preferred stream for clients which receive the states over the network, as the size of the items does
+     * not grow with the size of the mission.
+     * <p>
+     * By default the deltas are computed from consecutive states, implementations which track the changes shall
+     * override this method.
+     *
+     * @param handle a handle representing the mission instance for which the state changes shall be retrieved
+     * @return a stream starting with a snapshot of the mission state, followed by the changes
+     */
+    default Flux<MissionStateDelta> stateDeltasFor(MissionHandle handle) {
+        return MissionStateDeltas.deltasOf(statesFor(handle));
+    }
+
     /**
      * Retrieves a stream of the actual output of one mission instance. The items in the stream represent a 'snapshot'
      * of the actually available output of the whole mission. The returned stream shall emit each time the output
@@ -70,6 +93,22 @@ public interface Mole {
      */
     Flux<MissionOutput> outputsFor(MissionHandle handle);
 
+    /**
+     * Retrieves the output of one mission instance as a stream of individual values. New subscribers first receive the
+     * actual value of each output and then each new value as soon as it is emitted. Applying the events in order yields
+     * the outputs of {@link #outputsFor(MissionHandle)}, but - contrary to the latter - the size of the items does not
+     * grow with the amount of output. This is the preferred stream for missions which emit many values.
+     * <p>
+     * By default the events are computed from consecutive outputs, implementations which collect the individual values
+     * shall override this method.
+     *
+     * @param handle a handle representing the mission instance for which the output shall be queried.
+     * @return a stream of all the output values of the mission instance
+     */
+    default Flux<MissionOutputEvent> outputEventsFor(MissionHandle handle) {
+        return MissionOutputEvents.eventsOf(outputsFor(handle));
+    }
+
     /**
      * Delivers updates of the representation of the mission. Implementations of the agency (and underlying moles) shall
      * guarantee that the returned stream emits at least once for a newly subscribed client.
@@ -109,15 +148,20 @@ public interface Mole {
      * The allowed commands can be 'guessed' by using the information from {@link #statesFor(MissionHandle)}. However,
      * due to the asynchronous nature of the whole framework, it can never be guaranteed that the command is still
      * allowed when sent. For that reason, non-allowed commands shall be ignored by the implementations of an agency and
-     * underlying moles.
+     * underlying moles, which report them as rejected in the response.
+     * <p>
+     * The command is sent when this method is called, independent of a subscription to the returned mono. The mono
+     * emits the response of the strand, so that clients can wait for a command to be acknowledged before sending the
+     * next one.
      *
      * @param handle  a handle representing the mission instance on which the command shall be executed
      * @param strand  the strand of the mission instance on which the command shall be executed
      * @param command the command to execute
+     * @return the response of the strand: the command was either accepted (applied) or rejected
      * @see StrandCommand
      * @see Strand
      */
-    void instruct(MissionHandle handle, Strand strand, StrandCommand command);
+    Mono<CommandResponse> instruct(MissionHandle handle, Strand strand, StrandCommand command);
 
     /**
      * Instructs the root strand of the mission identified by the given handle to execute a given command. This is
@@ -128,6 +172,28 @@ public interface Mole {
      *
      * @param handle  a handle representing the mission instance on which the command shall be executed
      * @param command the command to execute.
+     * @return the response of the root strand
+     */
+    Mono<CommandResponse> instructRoot(MissionHandle handle, StrandCommand command);
+
+    /**
+     * Retrieves the events recorded while executing the mission instance (strand creations, cursor moves, leaf
+     * executions and commands), oldest first. They can be exported with {@link io.molr.mole.core.trace.ChromeTraceWriter}.
+     * Only the instances of moles which were configured to record traces have events, by default the list is empty.
+     *
+     * @param handle a handle representing the mission instance for which the events shall be retrieved
+     * @return a mono emitting the events recorded so far
+     */
+    default Mono<List<TraceEvent>> traceFor(MissionHandle handle) {
+        return Mono.just(Collections.emptyList());
+    }
+
+    /**
+     * Releases the mission instance identified by the given handle: a running instance is stopped, all the streams of
+     * the instance complete and every resource held for it is freed. Afterwards the handle is not known anymore by the
+     * agency, so that its streams emit an error. Unknown handles are ignored.
+     *
+     * @param handle a handle representing the mission instance to dispose
      */
-    void instructRoot(MissionHandle handle, StrandCommand command);
+    void dispose(MissionHandle handle);
 }
@@ -7,20 +7,49 @@ import static java.lang.String.format;
  */
 public final class MoleWebApi {
 
+    /**
+     * The binary alternative to the server sent events of the streaming endpoints: a sequence of Smile (binary JSON)
+     * encoded values. It transfers the same DTOs, but is more compact and cheaper to parse.
+     */
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
+    /**
+     * The header in which a client reconnecting to a stream of server sent events sends the id of the last event it
+     * received. The incremental streams (state deltas and output events) then resume after it.
+     */
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     public static final String MISSION_HEADER = "/mission/";
     public static final String INSTANCE_HEADER = "/instance/";
     public static final String MISSION_NAME = "missionName";
     public static final String MISSION_HANDLE = "missionHandle";
     public static final String STRAND_ID = "strandId";
     public static final String COMMAND_NAME = "commandName";
+    public static final String STATES_PATH = "/states";
     public static final String MISSION_REPRESENTATION_PATH = MISSION_HEADER + "{" + MISSION_NAME + "}/representation";
     public static final String MISSION_PARAMETER_DESCRIPTION_PATH = MISSION_HEADER + "{" + MISSION_NAME + "}/parameterDescription";
     public static final String INSTANCE_STATES_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/states";
+    public static final String INSTANCE_STATE_DELTAS_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/stateDeltas";
     public static final String INSTANCE_OUTPUTS_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/outputs";
+    public static final String INSTANCE_OUTPUT_EVENTS_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/outputEvents";
     public static final String INSTANCE_REPRESENTATIONS_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/representations";
     public static final String INSTANTIATE_MISSION_PATH = MISSION_HEADER + "{" + MISSION_NAME + "}/instantiate";
     public static final String INSTANCE_INSTRUCT_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/{" + STRAND_ID + "}/instruct/{" + COMMAND_NAME+ "}";
     public static final String INSTANCE_INSTRUCT_ROOT_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/instructRoot/{" + COMMAND_NAME+ "}";
+    public static final String INSTANCE_DISPOSE_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/dispose";
+    /**
+     * The events recorded by the mission instance, in the Chrome trace event format (see
+     * {@code io.molr.mole.core.trace.ChromeTraceWriter})
+     */
+    public static final String INSTANCE_TRACE_PATH = INSTANCE_HEADER + "{" + MISSION_HANDLE + "}/trace";
+    /**
+     * The websocket endpoint multiplexing the streams and commands of the paths above over one connection
+     */
+    public static final String CHANNEL_PATH = "/channel";
+    /**
+     * The actual values of the metrics of the server, see {@code io.molr.mole.core.metrics.MoleMetrics}
+     */
+    public static final String METRICS_PATH = "/metrics";
 
 
 
@@ -36,14 +65,26 @@ public final class MoleWebApi {
        return  format(INSTANCE_HEADER + "%s/states", missionHandle);
     }
 
+    public static String instanceStateDeltasUrl(String missionHandle){
+        return  format(INSTANCE_HEADER + "%s/stateDeltas", missionHandle);
+    }
+
     public static String instanceOutputsUrl(String missionHandle){
         return  format(INSTANCE_HEADER + "%s/outputs", missionHandle);
     }
 
+    public static String instanceOutputEventsUrl(String missionHandle){
+        return  format(INSTANCE_HEADER + "%s/outputEvents", missionHandle);
+    }
+
     public static String instanceRepresentationsUrl(String missionHandle){
         return  format(INSTANCE_HEADER + "%s/representations", missionHandle);
     }
 
+    public static String instanceTraceUrl(String missionHandle){
+        return  format(INSTANCE_HEADER + "%s/trace", missionHandle);
+    }
+
     public static String instantiateMission(String missionName){
         return  format(MISSION_HEADER + "%s/instantiate", missionName);
     }
@@ -56,6 +97,10 @@ public final class MoleWebApi {
         return  format(INSTANCE_HEADER + "%s/instructRoot/%s", missionHandle,commandName);
     }
 
+    public static String disposeInstance(String missionHandle){
+        return  format(INSTANCE_HEADER + "%s/dispose", missionHandle);
+    }
+
 
 
     private MoleWebApi() {
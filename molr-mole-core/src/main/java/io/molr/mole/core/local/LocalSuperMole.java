@@ -4,72 +4,83 @@
 
 package io.molr.mole.core.local;
 
+import com.google.common.collect.ImmutableList;
 import io.molr.commons.domain.*;
 import io.molr.mole.core.api.Mole;
+import io.molr.mole.core.trace.TraceEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.molr.commons.util.Exceptions.illegalArgumentException;
+import static io.molr.commons.util.Exceptions.illegalStateException;
 import static io.molr.mole.core.utils.ThreadFactories.namedThreadFactory;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 
 /**
- * This is probably the most simple agency possible: it is employing several moles, instantiating a mission on the first
- * one who can do it
+ * This is probably the most simple agency possible: it is employing several moles, instantiating a mission on one of
+ * the moles who can do it. If several moles offer the same mission, the {@link MolePlacement} chooses the mole for each
+ * new instance (by default the least loaded one, see {@link MolePlacements#leastLoaded()}).
  * <p>
- * This agency is threadsafe by delegating all the methods execution to a separate thread. All the methods that return
- * {@link Flux} or {@link Mono} are asynchronous.
+ * This agency is threadsafe: the moles are looked up for each call in concurrent maps, which are updated from the states
+ * of the moles and on instantiation. No call blocks the caller or waits for calls concerning other missions. All the
+ * methods that return {@link Flux} or {@link Mono} are asynchronous.
  *
  * @author kfuchsbe
  */
 public class LocalSuperMole implements Mole {
 
-    private final Map<Mission, Mole> missionMoles = new ConcurrentHashMap<>();
+    private final List<Mole> moles;
+    private final MolePlacement placement;
+
+    /* the latest state of each mole, a mole offers no missions before its first state arrives */
+    private final Map<Mole, AgencyState> moleStates = new ConcurrentHashMap<>();
+    /* the number of instances placed on each mole by this agency, which the mole did not report in its state yet */
+    private final Map<Mole, AtomicInteger> unreportedPlacements;
+    private final Set<MissionHandle> unreportedHandles = ConcurrentHashMap.newKeySet();
 
     /* TODO REMOVE? */
     private final Map<MissionHandle, Mole> activeMoles = new ConcurrentHashMap<>();
 
     private final Flux<AgencyState> statesStream;
-    private final ExecutorService agencyExecutor = newSingleThreadExecutor(namedThreadFactory("local-agency-%d"));
-    private final Scheduler agencyScheduler = Schedulers.fromExecutor(agencyExecutor);
 
     private final Scheduler stateScheduler = Schedulers.fromExecutor(newSingleThreadExecutor(namedThreadFactory("delegation-states-%d")));
 
     public LocalSuperMole(Iterable<Mole> moles) {
-        requireNonNull(moles, "moles must not be null");
-        Set<Flux<AgencyState>> stateStreams = StreamSupport.stream(moles.spliterator(), false).map(m -> m.states()).collect(Collectors.toSet());
-
-        for (Mole mole : moles) {
-            mole.states().publishOn(agencyScheduler).subscribe(state -> {
-                Set<Mission> updatedMissions = state.executableMissions();
-
-                for (Mission mission : updatedMissions) {
-                    missionMoles.putIfAbsent(mission, mole);
-                }
+        this(moles, MolePlacements.leastLoaded());
+    }
 
+    public LocalSuperMole(Iterable<Mole> moles, MolePlacement placement) {
+        requireNonNull(moles, "moles must not be null");
+        this.placement = requireNonNull(placement, "placement must not be null");
+        this.moles = ImmutableList.copyOf(moles);
+        this.unreportedPlacements = this.moles.stream().distinct().collect(toImmutableMap(identity(), m -> new AtomicInteger()));
+        Set<Flux<AgencyState>> stateStreams = this.moles.stream().map(m -> m.states()).collect(Collectors.toSet());
+
+        for (Mole mole : this.moles) {
+            /* the states of one mole arrive in sequence */
+            mole.states().subscribe(state -> {
+                /* the state is updated first, so that reportLater() sees it if it misses the loop below */
+                moleStates.put(mole, state);
                 for (MissionInstance missionInstance : state.activeMissions()) {
                     activeMoles.putIfAbsent(missionInstance.handle(), mole);
+                    if (unreportedHandles.remove(missionInstance.handle())) {
+                        unreportedPlacements.get(mole).decrementAndGet();
+                    }
                 }
-
-                missionMoles.entrySet().stream()
-                        .filter(e -> e.getValue().equals(mole))
-                        .map(Map.Entry::getKey)
-                        .filter(m -> !updatedMissions.contains(m))
-                        .forEach(missionMoles::remove);
             });
         }
 
@@ -93,84 +104,129 @@ public class LocalSuperMole implements Mole {
 
     @Override
     public Mono<MissionHandle> instantiate(Mission mission, Map<String, Object> params) {
-        return supplyOnAgencyExecutorAsync(() -> {
-            Mole mole = missionMoles.get(mission);
-            if (mole == null) {
-                throw new IllegalArgumentException("No mole could be found for mission '" + mission + "'.");
-            }
-            return mole;
-        }).flatMap(mole -> mole.instantiate(mission, params)
-                .doOnNext(missionHandle -> activeMoles.put(missionHandle, mole)))
+        return Mono.fromSupplier(() -> place(mission, params))
+                .flatMap(mole -> mole.instantiate(mission, params)
+                        .doOnNext(missionHandle -> {
+                            activeMoles.put(missionHandle, mole);
+                            reportLater(mission, missionHandle, mole);
+                        })
+                        .doOnError(e -> unreportedPlacements.get(mole).decrementAndGet()))
                 .cache();
     }
 
+    private Mole place(Mission mission, Map<String, Object> params) {
+        List<MolePlacement.Candidate> candidates = candidatesFor(mission);
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("No mole could be found for mission '" + mission + "'.");
+        }
+        Mole mole = placement.place(mission, params, candidates);
+        if (candidates.stream().noneMatch(c -> c.mole().equals(mole))) {
+            throw illegalStateException("Placement {} chose {} which is not one of the candidates {} for {}", placement, mole, candidates, mission);
+        }
+        unreportedPlacements.get(mole).incrementAndGet();
+        return mole;
+    }
+
+    /**
+     * The placement stays counted until the mole reports the instance, unless its state already did
+     */
+    private void reportLater(Mission mission, MissionHandle handle, Mole mole) {
+        unreportedHandles.add(handle);
+        AgencyState state = moleStates.get(mole);
+        if (state != null && state.activeMissions().contains(new MissionInstance(handle, mission)) && unreportedHandles.remove(handle)) {
+            unreportedPlacements.get(mole).decrementAndGet();
+        }
+    }
+
+    private List<MolePlacement.Candidate> candidatesFor(Mission mission) {
+        ImmutableList.Builder<MolePlacement.Candidate> candidates = ImmutableList.builder();
+        for (Mole mole : moles) {
+            AgencyState state = moleStates.get(mole);
+            if (state != null && state.executableMissions().contains(mission)) {
+                int activeInstances = state.activeMissions().size() + unreportedPlacements.get(mole).get();
+                candidates.add(new MolePlacement.Candidate(mole, state, activeInstances));
+            }
+        }
+        return candidates.build();
+    }
+
     @Override
     public Flux<MissionState> statesFor(MissionHandle handle) {
         return fromActiveMoleOrError(handle, m -> m.statesFor(handle));
     }
 
+    @Override
+    public Flux<MissionStateDelta> stateDeltasFor(MissionHandle handle) {
+        return fromActiveMoleOrError(handle, m -> m.stateDeltasFor(handle));
+    }
+
     @Override
     public Flux<MissionOutput> outputsFor(MissionHandle handle) {
         return fromActiveMoleOrError(handle, m -> m.outputsFor(handle));
     }
 
+    @Override
+    public Flux<MissionOutputEvent> outputEventsFor(MissionHandle handle) {
+        return fromActiveMoleOrError(handle, m -> m.outputEventsFor(handle));
+    }
+
     @Override
     public Flux<MissionRepresentation> representationsFor(MissionHandle handle) {
         return fromActiveMoleOrError(handle, m -> m.representationsFor(handle));
     }
 
     private Mono<Mole> getMole(Mission mission) {
-        Mole mole = missionMoles.get(mission);
-        if (mole == null) {
+        List<MolePlacement.Candidate> candidates = candidatesFor(mission);
+        if (candidates.isEmpty()) {
             return Mono.error(illegalArgumentException("{} is not handled by any mole", mission));
         }
-        return Mono.just(mole);
+        return Mono.just(candidates.get(0).mole());
     }
 
     private <T> Flux<T> fromActiveMoleOrError(MissionHandle handle, Function<Mole, Flux<T>> fluxMapper) {
-        return supplyOnAgencyExecutorSync(() -> {
-            try {
-                return fluxMapper.apply(getMoleWithId(handle));
-            } catch (Exception ex) {
-                return Flux.error(new IllegalStateException("No active mole for mission handle '" + handle + "' found. Probably no mission was instantiated with this id?", ex));
-            }
-        });
+        try {
+            return fluxMapper.apply(getMoleWithId(handle));
+        } catch (Exception ex) {
+            return Flux.error(new IllegalStateException("No active mole for mission handle '" + handle + "' found. Probably no mission was instantiated with this id?", ex));
+        }
     }
 
     private Mole getMoleWithId(MissionHandle moleHandle) {
         return ofNullable(activeMoles.get(moleHandle)).orElseThrow(() -> illegalArgumentException("Cannot find mole with handle {}", moleHandle));
     }
 
-    @Override
-    public void instruct(MissionHandle handle, Strand strand, StrandCommand command) {
-        runOnAgencyExecutorSync(() -> getMoleWithId(handle).instruct(handle, strand, command));
+    private <T> Mono<T> monoFromActiveMoleOrError(MissionHandle handle, Function<Mole, Mono<T>> monoMapper) {
+        Mole mole = activeMoles.get(handle);
+        if (mole == null) {
+            return Mono.error(illegalArgumentException("Cannot find mole with handle {}", handle));
+        }
+        return monoMapper.apply(mole);
     }
 
     @Override
-    public void instructRoot(MissionHandle handle, StrandCommand command) {
-        runOnAgencyExecutorSync(() -> getMoleWithId(handle).instructRoot(handle, command));
+    public Mono<CommandResponse> instruct(MissionHandle handle, Strand strand, StrandCommand command) {
+        return monoFromActiveMoleOrError(handle, m -> m.instruct(handle, strand, command));
     }
 
-    private void runOnAgencyExecutorSync(Runnable runnable) {
-        CompletableFuture<Void> future = CompletableFuture.runAsync(runnable, agencyExecutor);
-        try {
-            future.get();
-        } catch (Exception e) {
-            throw new RuntimeException("Exception while running on agency executor", e);
-        }
+    @Override
+    public Mono<CommandResponse> instructRoot(MissionHandle handle, StrandCommand command) {
+        return monoFromActiveMoleOrError(handle, m -> m.instructRoot(handle, command));
     }
 
-    private <T> T supplyOnAgencyExecutorSync(Supplier<T> supplier) {
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier, agencyExecutor);
-        try {
-            return future.get();
-        } catch (Exception e) {
-            throw new RuntimeException("Exception while running supplier on agency executor", e);
-        }
+    @Override
+    public Mono<List<TraceEvent>> traceFor(MissionHandle handle) {
+        return monoFromActiveMoleOrError(handle, m -> m.traceFor(handle));
     }
 
-    private <T> Mono<T> supplyOnAgencyExecutorAsync(Supplier<T> supplier) {
-        CompletableFuture<T> future = CompletableFuture.supplyAsync(supplier, agencyExecutor);
-        return Mono.fromFuture(future);
+    @Override
+    public void dispose(MissionHandle handle) {
+        Mole mole = activeMoles.remove(handle);
+        if (mole == null) {
+            return;
+        }
+        if (unreportedHandles.remove(handle)) {
+            unreportedPlacements.get(mole).decrementAndGet();
+        }
+        mole.dispose(handle);
     }
 }
@@ -0,0 +1,71 @@
+package io.molr.mole.core.local;
+
+import io.molr.commons.domain.AgencyState;
+import io.molr.commons.domain.Mission;
+import io.molr.mole.core.api.Mole;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Chooses the mole on which the {@link LocalSuperMole} creates a new mission instance, if several of its moles offer the
+ * same mission. The most common strategies are provided by {@link MolePlacements}.
+ * <p>
+ * Implementations must be thread safe, as missions can be instantiated concurrently.
+ */
+@FunctionalInterface
+public interface MolePlacement {
+
+    /**
+     * @param mission the mission to instantiate
+     * @param params the parameters the mission will be instantiated with
+     * @param candidates the moles offering the mission, in the order they were given to the agency. Never empty
+     * @return the mole to instantiate the mission on, one of the candidates
+     */
+    Mole place(Mission mission, Map<String, Object> params, List<Candidate> candidates);
+
+    /**
+     * A mole which can instantiate the mission, together with what is known about its load
+     */
+    final class Candidate {
+
+        private final Mole mole;
+        private final AgencyState state;
+        private final int activeInstances;
+
+        Candidate(Mole mole, AgencyState state, int activeInstances) {
+            this.mole = requireNonNull(mole, "mole must not be null");
+            this.state = requireNonNull(state, "state must not be null");
+            this.activeInstances = activeInstances;
+        }
+
+        public Mole mole() {
+            return mole;
+        }
+
+        /**
+         * @return the latest state published by the mole
+         */
+        public AgencyState state() {
+            return state;
+        }
+
+        /**
+         * @return the number of active instances on the mole. This includes the instances placed by the agency which the
+         * mole did not report in its state yet, so that a burst of instantiations is spread as well
+         */
+        public int activeInstances() {
+            return activeInstances;
+        }
+
+        @Override
+        public String toString() {
+            return "Candidate{" +
+                    "mole=" + mole +
+                    ", activeInstances=" + activeInstances +
+                    '}';
+        }
+    }
+}
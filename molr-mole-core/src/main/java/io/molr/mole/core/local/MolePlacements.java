@@ -0,0 +1,48 @@
+package io.molr.mole.core.local;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Factory methods for the most common {@link MolePlacement}s
+ */
+public final class MolePlacements {
+
+    private MolePlacements() {
+        /* Only static methods */
+    }
+
+    /**
+     * Always places the instances on the first candidate, the others are only used if it stops offering the mission
+     */
+    public static MolePlacement first() {
+        return (mission, params, candidates) -> candidates.get(0).mole();
+    }
+
+    /**
+     * Places the instances on the candidates in turn
+     */
+    public static MolePlacement roundRobin() {
+        AtomicLong next = new AtomicLong();
+        return (mission, params, candidates) -> candidates.get((int) (next.getAndIncrement() % candidates.size())).mole();
+    }
+
+    /**
+     * Places each instance on the candidate with the fewest active instances, the first one if several have the same
+     * number. This is the default of the {@link LocalSuperMole}.
+     */
+    public static MolePlacement leastLoaded() {
+        return (mission, params, candidates) -> candidates.stream()
+                .min(Comparator.comparingInt(MolePlacement.Candidate::activeInstances))
+                .get().mole();
+    }
+
+    /**
+     * Places the instances by the hash of the mission and its parameters, so that instances with equal parameters go to
+     * the same candidate (as long as the candidates do not change)
+     */
+    public static MolePlacement parameterHash() {
+        return (mission, params, candidates) -> candidates.get(Math.floorMod(Objects.hash(mission, params), candidates.size())).mole();
+    }
+}
@@ -0,0 +1,9 @@
+package io.molr.mole.core.metrics;
+
+/**
+ * Counts events, e.g. items emitted by a stream. Rates are derived from consecutive snapshots by the consumer.
+ */
+public interface Counter {
+
+    void increment();
+}
@@ -0,0 +1,9 @@
+package io.molr.mole.core.metrics;
+
+/**
+ * Tracks a value going up and down, e.g. the number of strands in a given state
+ */
+public interface Gauge {
+
+    void add(long delta);
+}
@@ -0,0 +1,184 @@
+package io.molr.mole.core.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static io.molr.commons.util.Exceptions.illegalArgumentException;
+import static io.molr.commons.util.Exceptions.illegalStateException;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link MetricsRegistry} keeping its meters in memory. Recording never blocks: the meters only use atomic counters.
+ */
+final class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    /* upper bounds of the buckets of the timer histograms */
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 5, 10, 50, 100, 500, 1_000, 5_000, 10_000, 60_000};
+
+    private final Map<MeterId, Meter> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(String name, String... tags) {
+        return meter(name, tags, InMemoryCounter.class, InMemoryCounter::new);
+    }
+
+    @Override
+    public Timer timer(String name, String... tags) {
+        return meter(name, tags, InMemoryTimer.class, InMemoryTimer::new);
+    }
+
+    @Override
+    public Gauge gauge(String name, String... tags) {
+        return meter(name, tags, InMemoryGauge.class, InMemoryGauge::new);
+    }
+
+    @Override
+    public List<MeterSnapshot> snapshot() {
+        return meters.entrySet().stream()
+                .map(entry -> new MeterSnapshot(entry.getKey().name, entry.getKey().tags, entry.getValue().measurements()))
+                .collect(toList());
+    }
+
+    private <M extends Meter> M meter(String name, String[] tags, Class<M> type, Supplier<M> factory) {
+        Meter meter = meters.computeIfAbsent(new MeterId(name, tags), id -> factory.get());
+        if (!type.isInstance(meter)) {
+            throw illegalStateException("Meter '{}' is already registered as {}", name, meter.getClass().getSimpleName());
+        }
+        return type.cast(meter);
+    }
+
+    private interface Meter {
+        Map<String, Double> measurements();
+    }
+
+    private static final class InMemoryCounter implements Counter, Meter {
+
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void increment() {
+            count.increment();
+        }
+
+        @Override
+        public Map<String, Double> measurements() {
+            return ImmutableMap.of("count", count.doubleValue());
+        }
+    }
+
+    private static final class InMemoryGauge implements Gauge, Meter {
+
+        private final AtomicLong value = new AtomicLong();
+
+        @Override
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        @Override
+        public Map<String, Double> measurements() {
+            return ImmutableMap.of("value", (double) value.get());
+        }
+    }
+
+    private static final class InMemoryTimer implements Timer, Meter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        /* the last bucket counts the durations above the highest bound */
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MILLIS.length + 1];
+
+        private InMemoryTimer() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void record(long amount, TimeUnit unit) {
+            long nanos = unit.toNanos(amount);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[bucketOf(nanos)].increment();
+        }
+
+        private static int bucketOf(long nanos) {
+            for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+                if (nanos <= TimeUnit.MILLISECONDS.toNanos(BUCKET_BOUNDS_MILLIS[i])) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS_MILLIS.length;
+        }
+
+        /**
+         * The buckets are cumulative: each one counts the durations up to its bound (in seconds)
+         */
+        @Override
+        public Map<String, Double> measurements() {
+            ImmutableMap.Builder<String, Double> builder = ImmutableMap.<String, Double>builder()
+                    .put("count", count.doubleValue())
+                    .put("totalSeconds", secondsOf(totalNanos.sum()))
+                    .put("maxSeconds", secondsOf(maxNanos.get()));
+            long cumulated = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+                cumulated += buckets[i].sum();
+                builder.put("le" + BUCKET_BOUNDS_MILLIS[i] / 1000.0, (double) cumulated);
+            }
+            builder.put("leInf", (double) (cumulated + buckets[BUCKET_BOUNDS_MILLIS.length].sum()));
+            return builder.build();
+        }
+
+        private static double secondsOf(long nanos) {
+            return nanos / 1e9;
+        }
+    }
+
+    private static final class MeterId {
+
+        private final String name;
+        private final Map<String, String> tags;
+
+        private MeterId(String name, String[] tags) {
+            this.name = requireNonNull(name, "name must not be null");
+            this.tags = tagsOf(tags);
+        }
+
+        private static Map<String, String> tagsOf(String[] keysAndValues) {
+            if (keysAndValues.length % 2 != 0) {
+                throw illegalArgumentException("Tags must be pairs of keys and values, but got {} strings", keysAndValues.length);
+            }
+            ImmutableSortedMap.Builder<String, String> builder = ImmutableSortedMap.naturalOrder();
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                builder.put(keysAndValues[i], String.valueOf(keysAndValues[i + 1]));
+            }
+            return builder.build();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MeterId meterId = (MeterId) o;
+            return name.equals(meterId.name) && tags.equals(meterId.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, tags);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.molr.mole.core.metrics;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The values of one meter at a given moment, by statistic (e.g. {@code count}, {@code totalSeconds})
+ */
+public final class MeterSnapshot {
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final Map<String, Double> measurements;
+
+    public MeterSnapshot(String name, Map<String, String> tags, Map<String, Double> measurements) {
+        this.name = requireNonNull(name, "name must not be null");
+        this.tags = ImmutableMap.copyOf(requireNonNull(tags, "tags must not be null"));
+        this.measurements = ImmutableMap.copyOf(requireNonNull(measurements, "measurements must not be null"));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Map<String, String> tags() {
+        return tags;
+    }
+
+    public Map<String, Double> measurements() {
+        return measurements;
+    }
+
+    @Override
+    public String toString() {
+        return "MeterSnapshot{" +
+                "name='" + name + '\'' +
+                ", tags=" + tags +
+                ", measurements=" + measurements +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package io.molr.mole.core.metrics;
+
+/**
+ * Factory methods for the {@link MetricsRegistry}s provided by molr
+ */
+public final class MetricsRegistries {
+
+    private MetricsRegistries() {
+        /* Only static methods */
+    }
+
+    /**
+     * Returns the in-memory registry used by all the moles and executors which are not explicitly configured with
+     * another one
+     */
+    public static MetricsRegistry shared() {
+        return SharedHolder.SHARED;
+    }
+
+    /**
+     * Creates a new registry keeping its meters in memory. Timers record their durations in a histogram with buckets
+     * from one millisecond to one minute.
+     */
+    public static MetricsRegistry inMemory() {
+        return new InMemoryMetricsRegistry();
+    }
+
+    private static final class SharedHolder {
+        private static final MetricsRegistry SHARED = inMemory();
+    }
+}
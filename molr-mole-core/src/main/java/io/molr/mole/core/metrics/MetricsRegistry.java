@@ -0,0 +1,27 @@
+package io.molr.mole.core.metrics;
+
+import java.util.List;
+
+/**
+ * Creates and keeps the meters through which molr reports about its own execution (see {@link MoleMetrics} for the
+ * meters). A meter is identified by its name and its tags, given as alternating keys and values: asking twice for the
+ * same meter returns the same instance.
+ * <p>
+ * Implementations can adapt an existing metrics library. {@link MetricsRegistries#inMemory()} keeps the meters in
+ * memory, which is sufficient to publish them (e.g. through the rest api of a mole server).
+ * <p>
+ * Implementations shall be thread safe
+ */
+public interface MetricsRegistry {
+
+    Counter counter(String name, String... tags);
+
+    Timer timer(String name, String... tags);
+
+    Gauge gauge(String name, String... tags);
+
+    /**
+     * @return the actual values of all the meters of the registry
+     */
+    List<MeterSnapshot> snapshot();
+}
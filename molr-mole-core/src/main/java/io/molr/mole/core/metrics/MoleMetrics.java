@@ -0,0 +1,100 @@
+package io.molr.mole.core.metrics;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.RunState;
+import io.molr.commons.domain.StrandCommand;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The meters through which the executors report about the execution of the missions, recorded in a
+ * {@link MetricsRegistry}:
+ * <ul>
+ * <li>{@value #LEAF_EXECUTION_TIME}: the execution time of the leaves, tagged by mission and block. As the ids of the
+ * blocks repeat across missions, the executors of a mission report through {@link #forMission(String)}</li>
+ * <li>{@value #COMMAND_WAIT_TIME}: the time from instructing a strand to the command being processed (accepted or
+ * rejected), tagged by command</li>
+ * <li>{@value #COMMANDS_DROPPED}: the commands which were rejected, tagged by command</li>
+ * <li>{@value #STRANDS}: the number of strands in each run state, tagged by state. Finished strands are removed once
+ * their executor terminated</li>
+ * <li>{@value #STREAM_EMISSIONS}: the items emitted to the subscribers of the mission streams, tagged by stream</li>
+ * </ul>
+ */
+public final class MoleMetrics {
+
+    public static final String LEAF_EXECUTION_TIME = "molr.leaf.execution.time";
+    public static final String COMMAND_WAIT_TIME = "molr.command.wait.time";
+    public static final String COMMANDS_DROPPED = "molr.commands.dropped";
+    public static final String STRANDS = "molr.strands";
+    public static final String STREAM_EMISSIONS = "molr.stream.emissions";
+
+    /**
+     * The mission tag of the leaves executed through metrics which are not bound to a mission
+     */
+    public static final String UNKNOWN_MISSION = "unknown";
+
+    private static final MoleMetrics SHARED = new MoleMetrics(MetricsRegistries.shared(), UNKNOWN_MISSION);
+
+    private final MetricsRegistry registry;
+    private final String mission;
+
+    private MoleMetrics(MetricsRegistry registry, String mission) {
+        this.registry = requireNonNull(registry, "registry must not be null");
+        this.mission = requireNonNull(mission, "mission must not be null");
+    }
+
+    /**
+     * @return the metrics recorded in {@link MetricsRegistries#shared()}
+     */
+    public static MoleMetrics shared() {
+        return SHARED;
+    }
+
+    public static MoleMetrics of(MetricsRegistry registry) {
+        return new MoleMetrics(registry, UNKNOWN_MISSION);
+    }
+
+    /**
+     * @return metrics recorded in the same registry, which tag the executed leaves with the given mission name
+     */
+    public MoleMetrics forMission(String missionName) {
+        return new MoleMetrics(registry, missionName);
+    }
+
+    public MetricsRegistry registry() {
+        return registry;
+    }
+
+    public void leafExecuted(Block block, long nanos) {
+        registry.timer(LEAF_EXECUTION_TIME, "mission", mission, "block", block.id(), "text", block.text()).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void commandProcessed(StrandCommand command, long waitNanos, boolean accepted) {
+        registry.timer(COMMAND_WAIT_TIME, "command", command.name()).record(waitNanos, TimeUnit.NANOSECONDS);
+        if (!accepted) {
+            registry.counter(COMMANDS_DROPPED, "command", command.name()).increment();
+        }
+    }
+
+    /**
+     * @param from the previous state of the strand, null for a new strand
+     * @param to   the new state of the strand, null for a strand which terminated
+     */
+    public void strandStateChanged(RunState from, RunState to) {
+        if (from == to) {
+            return;
+        }
+        if (from != null) {
+            registry.gauge(STRANDS, "state", from.name()).add(-1);
+        }
+        if (to != null) {
+            registry.gauge(STRANDS, "state", to.name()).add(1);
+        }
+    }
+
+    public void itemEmitted(String stream) {
+        registry.counter(STREAM_EMISSIONS, "stream", stream).increment();
+    }
+}
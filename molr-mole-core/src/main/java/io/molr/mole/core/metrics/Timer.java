@@ -0,0 +1,11 @@
+package io.molr.mole.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records durations, e.g. of the execution of leaves, in a histogram
+ */
+public interface Timer {
+
+    void record(long amount, TimeUnit unit);
+}
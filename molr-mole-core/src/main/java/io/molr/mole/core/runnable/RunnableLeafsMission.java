@@ -18,7 +18,7 @@ public class RunnableLeafsMission {
     private RunnableLeafsMission(Builder builder, MissionParameterDescription parameterDescription) {
         this.runnables = builder.runnables.build();
         MissionRepresentation representation = builder.representationBuilder.build();
-        this.treeStructure = new TreeStructure(representation, builder.parallelBlocksBuilder.build());
+        this.treeStructure = new TreeStructure(representation, builder.parallelBlocksBuilder.build(), builder.maxConcurrencies.build());
         this.parameterDescription = parameterDescription;
     }
 
@@ -46,6 +46,15 @@ public class RunnableLeafsMission {
         return new Builder(rootName, true);
     }
 
+    /**
+     * Starts a mission whose root is a parallel block running at most the given number of children at the same time
+     */
+    public static Builder parallelRoot(String rootName, int maxConcurrency) {
+        Builder builder = new Builder(rootName, true);
+        builder.maxConcurrencies.put(builder.root(), maxConcurrency);
+        return builder;
+    }
+
     public static class Builder {
 
         private final AtomicLong nextId = new AtomicLong(0);
@@ -53,6 +62,7 @@ public class RunnableLeafsMission {
         private final ImmutableMissionRepresentation.Builder representationBuilder;
         private final ImmutableMap.Builder<Block, BiConsumer<In, Out>> runnables = ImmutableMap.builder();
         private final ImmutableSet.Builder<Block> parallelBlocksBuilder = ImmutableSet.builder();
+        private final ImmutableMap.Builder<Block, Integer> maxConcurrencies = ImmutableMap.builder();
 
         private Builder(String rootName, boolean parallel) {
             Block root = block(rootName);
@@ -72,6 +82,16 @@ public class RunnableLeafsMission {
             return child;
         }
 
+        /**
+         * Adds a parallel block whose children are admitted as the running ones finish, so that at most the given number
+         * of them run at the same time. The others are reported as {@link RunState#QUEUED} meanwhile.
+         */
+        public Block parallelChild(Block parent, String childName, int maxConcurrency) {
+            Block child = parallelChild(parent, childName);
+            maxConcurrencies.put(child, maxConcurrency);
+            return child;
+        }
+
         public Block leafChild(Block parent, String childName, BiConsumer<In, Out> runnable) {
             Block child = addChild(parent, childName);
             runnables.put(child, runnable);
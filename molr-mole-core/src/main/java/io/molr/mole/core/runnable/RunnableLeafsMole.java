@@ -1,12 +1,18 @@
 package io.molr.mole.core.runnable;
 
 import io.molr.commons.domain.*;
+import io.molr.mole.core.metrics.MetricsRegistries;
+import io.molr.mole.core.metrics.MetricsRegistry;
+import io.molr.mole.core.metrics.MoleMetrics;
 import io.molr.mole.core.runnable.exec.RunnableBlockExecutor;
+import io.molr.mole.core.trace.TraceRecorder;
 import io.molr.mole.core.tree.*;
-import io.molr.mole.core.tree.tracking.TreeTracker;
+import io.molr.mole.core.tree.tracking.BlockTimingTracker;
+import io.molr.mole.core.tree.tracking.CountingTreeTracker;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
@@ -16,10 +22,48 @@ import static java.util.stream.Collectors.toSet;
 public class RunnableLeafsMole extends AbstractJavaMole {
 
     private final Map<Mission, RunnableLeafsMission> missions;
+    private final StrandScheduler strandScheduler;
+    private final MoleMetrics metrics;
+    private final Supplier<TraceRecorder> traceRecorders;
 
     public RunnableLeafsMole(Set<RunnableLeafsMission> missions) {
-        super(extractMissions(missions));
+        this(missions, StrandSchedulers.shared());
+    }
+
+    /**
+     * Creates a mole whose mission instances execute their strands on the given {@link StrandScheduler}
+     */
+    public RunnableLeafsMole(Set<RunnableLeafsMission> missions, StrandScheduler strandScheduler) {
+        this(missions, strandScheduler, RetentionPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a mole whose mission instances execute their strands on the given {@link StrandScheduler} and which keeps
+     * the instances as defined by the given {@link RetentionPolicy}
+     */
+    public RunnableLeafsMole(Set<RunnableLeafsMission> missions, StrandScheduler strandScheduler, RetentionPolicy retentionPolicy) {
+        this(missions, strandScheduler, retentionPolicy, MetricsRegistries.shared());
+    }
+
+    /**
+     * Creates a mole as {@link #RunnableLeafsMole(Set, StrandScheduler, RetentionPolicy)}, whose mission instances report
+     * their metrics (see {@link MoleMetrics}) to the given registry
+     */
+    public RunnableLeafsMole(Set<RunnableLeafsMission> missions, StrandScheduler strandScheduler, RetentionPolicy retentionPolicy, MetricsRegistry metricsRegistry) {
+        this(missions, strandScheduler, retentionPolicy, metricsRegistry, TraceRecorder::disabled);
+    }
+
+    /**
+     * Creates a mole as {@link #RunnableLeafsMole(Set, StrandScheduler, RetentionPolicy, MetricsRegistry)}, which
+     * records the execution of each mission instance in a recorder of the given supplier (e.g.
+     * {@code () -> TraceRecorder.withCapacity(10_000)}). The events are retrieved through {@link #traceFor(MissionHandle)}.
+     */
+    public RunnableLeafsMole(Set<RunnableLeafsMission> missions, StrandScheduler strandScheduler, RetentionPolicy retentionPolicy, MetricsRegistry metricsRegistry, Supplier<TraceRecorder> traceRecorders) {
+        super(extractMissions(missions), retentionPolicy);
         this.missions = createMissionsMap(missions);
+        this.strandScheduler = requireNonNull(strandScheduler, "strandScheduler must not be null");
+        this.metrics = MoleMetrics.of(requireNonNull(metricsRegistry, "metricsRegistry must not be null"));
+        this.traceRecorders = requireNonNull(traceRecorders, "traceRecorders must not be null");
     }
 
     private static Set<Mission> extractMissions(Set<RunnableLeafsMission> missions) {
@@ -56,13 +100,21 @@ public class RunnableLeafsMole extends AbstractJavaMole {
     protected MissionExecutor executorFor(Mission mission, Map<String, Object> params) {
         RunnableLeafsMission runnableLeafMission = missions.get(mission);
         TreeStructure treeStructure = runnableLeafMission.treeStructure();
-        TreeTracker<Result> resultTracker = TreeTracker.create(treeStructure.missionRepresentation(), Result.UNDEFINED, Result::summaryOf);
-        TreeTracker<RunState> runStateTracker = TreeTracker.create(treeStructure.missionRepresentation(), RunState.UNDEFINED, RunState::summaryOf);
+        CountingTreeTracker<Result> resultTracker = CountingTreeTracker.create(treeStructure.missionRepresentation(), Result.UNDEFINED, Result::summaryOf);
+        CountingTreeTracker<RunState> runStateTracker = CountingTreeTracker.create(treeStructure.missionRepresentation(), RunState.UNDEFINED, RunState::summaryOf);
 
         MissionOutputCollector outputCollector = new ConcurrentMissionOutputCollector();
 
-        LeafExecutor leafExecutor = new RunnableBlockExecutor(resultTracker, runnableLeafMission.runnables(), MissionInput.from(params), outputCollector, runStateTracker);
-        return new TreeMissionExecutor(treeStructure, leafExecutor, resultTracker, outputCollector, runStateTracker);
+        BlockTimingTracker timingTracker = BlockTimingTracker.create(treeStructure.missionRepresentation());
+
+        LeafExecutor leafExecutor = new RunnableBlockExecutor(resultTracker, runnableLeafMission.runnables(), MissionInput.from(params), outputCollector, runStateTracker, timingTracker);
+        ExecutionOptions options = ExecutionOptions.builder()
+                .strandScheduler(strandScheduler)
+                .metrics(metrics.forMission(mission.name()))
+                .timingTracker(timingTracker)
+                .traceRecorder(traceRecorders.get())
+                .build();
+        return new TreeMissionExecutor(treeStructure, leafExecutor, resultTracker, outputCollector, runStateTracker, options);
     }
 
 }
@@ -5,6 +5,7 @@ import io.molr.commons.domain.*;
 import io.molr.mole.core.tree.LeafExecutor;
 import io.molr.mole.core.tree.MissionOutputCollector;
 import io.molr.mole.core.tree.tracking.Bucket;
+import io.molr.mole.core.tree.tracking.TimingBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +28,11 @@ public class RunnableBlockExecutor extends LeafExecutor {
         this.runnables = ImmutableMap.copyOf(runnables);
     }
 
+    public RunnableBlockExecutor(Bucket<Result> resultTracker, Map<Block, BiConsumer<In, Out>> runnables, MissionInput input, MissionOutputCollector outputCollector, Bucket<RunState> runStateBucket, TimingBucket timingBucket) {
+        super(resultTracker, runStateBucket, timingBucket, input, outputCollector);
+        this.runnables = ImmutableMap.copyOf(runnables);
+    }
+
     @Override
     protected void doExecute(Block block) {
         runnables.get(block).accept(input(), outputFor(block));
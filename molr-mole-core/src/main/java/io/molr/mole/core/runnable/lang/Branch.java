@@ -54,6 +54,15 @@ public class Branch {
         return node;
     }
 
+    /**
+     * Defines a parallel block which runs at most the given number of its children at the same time
+     */
+    public Block parallel(String name, int maxConcurrency, Consumer<Branch> branchDefiner) {
+        Block node = builder.parallelChild(parent, name, maxConcurrency);
+        branchDefiner.accept(Branch.withParent(builder, node));
+        return node;
+    }
+
     public Block run(Task task) {
         return run(task.name, task.runnable);
     }
@@ -32,6 +32,10 @@ public abstract class RunnableLeafsMissionSupport {
         root(newName, branchConsumer, RunnableLeafsMission::parallelRoot);
     }
 
+    protected void parallel(String newName, int maxConcurrency, Consumer<Branch> branchConsumer) {
+        root(newName, branchConsumer, name -> RunnableLeafsMission.parallelRoot(name, maxConcurrency));
+    }
+
     private void root(String newName, Consumer<Branch> branchConsumer, Function<String, RunnableLeafsMission.Builder> builderFactory) {
         if (this.builder != null) {
             throw new IllegalStateException("Root can only be defined once!");
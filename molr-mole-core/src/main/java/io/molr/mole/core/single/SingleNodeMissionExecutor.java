@@ -10,6 +10,7 @@ import io.molr.mole.core.tree.MissionOutputCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.ReplayProcessor;
 import reactor.core.scheduler.Schedulers;
 
@@ -34,7 +35,7 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
     private final BlockOutputCollector output;
 
     private final ReplayProcessor<MissionState> stateSink = ReplayProcessor.cacheLast();
-    private final Flux<MissionState> stateStream = stateSink.publishOn(Schedulers.newSingle("MissionState publisher"));
+    private final Flux<MissionState> stateStream = stateSink.publishOn(Schedulers.elastic());
 
     private final ReplayProcessor<MissionRepresentation> representations = ReplayProcessor.cacheLast();
     private final MissionInput input;
@@ -43,6 +44,7 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
     private final AtomicReference<RunState> strandRunState = new AtomicReference<>(RunState.PAUSED);
     private final AtomicReference<Result> result = new AtomicReference<>(Result.UNDEFINED);
     private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean completed = new AtomicBoolean(false);
 
     private final ExecutorService executorService;
 
@@ -57,10 +59,10 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
         publishState();
     }
 
-    private void resume() {
+    private boolean resume() {
         if (started.getAndSet(true)) {
             LOGGER.warn("Already Running. Doing nothing.");
-            return;
+            return false;
         }
         this.strandRunState.set(RunState.RUNNING);
         executorService.submit(() -> {
@@ -68,6 +70,7 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
             finish();
         });
         publishState();
+        return true;
     }
 
 
@@ -101,7 +104,21 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
 
     private void finish() {
         this.strandRunState.set(RunState.FINISHED);
-        publishState();
+        complete();
+    }
+
+    /**
+     * Publishes the last state, completes all the streams and releases the execution thread. A running mission is
+     * interrupted.
+     */
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            publishState();
+            stateSink.onComplete();
+            representations.onComplete();
+            outputCollector.complete();
+            executorService.shutdownNow();
+        }
     }
 
     private void publishState() {
@@ -136,21 +153,29 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
 
 
     @Override
-    public void instruct(Strand strand, StrandCommand command) {
+    public Mono<CommandResponse> instruct(Strand strand, StrandCommand command) {
         if (!singleStrand.equals(strand)) {
             LOGGER.warn("given strand {} is not equal to strand {}. Doing nothing.", strand, singleStrand);
-            return;
+            return Mono.just(CommandResponse.rejected(strand, command, "unknown strand"));
         }
-        if (StrandCommand.RESUME.equals(command)) {
-            resume();
-        } else {
+        if (!StrandCommand.RESUME.equals(command)) {
             LOGGER.warn("given command {} is not supported. Doing nothing.", command);
+            return Mono.just(CommandResponse.rejected(strand, command, "not supported"));
         }
+        if (!resume()) {
+            return Mono.just(CommandResponse.rejected(strand, command, "already running"));
+        }
+        return Mono.just(CommandResponse.accepted(strand, command));
+    }
+
+    @Override
+    public Mono<CommandResponse> instructRoot(StrandCommand command) {
+        return instruct(singleStrand, command);
     }
 
     @Override
-    public void instructRoot(StrandCommand command) {
-        instruct(singleStrand, command);
+    public void dispose() {
+        complete();
     }
 
 
@@ -164,6 +189,11 @@ public class SingleNodeMissionExecutor<R> implements MissionExecutor {
         return outputCollector.asStream();
     }
 
+    @Override
+    public Flux<MissionOutputEvent> outputEvents() {
+        return outputCollector.events().publishOn(Schedulers.elastic());
+    }
+
     @Override
     public Flux<MissionRepresentation> representations() {
         return this.representations;
@@ -5,6 +5,7 @@ import io.molr.commons.domain.MissionParameterDescription;
 import io.molr.commons.domain.MissionRepresentation;
 import io.molr.mole.core.tree.AbstractJavaMole;
 import io.molr.mole.core.tree.MissionExecutor;
+import io.molr.mole.core.tree.RetentionPolicy;
 
 import java.util.Map;
 import java.util.Optional;
@@ -20,7 +21,11 @@ public class SingleNodeMole extends AbstractJavaMole {
     private final Map<Mission, SingleNodeMission<?>> missions;
 
     public SingleNodeMole(Set<SingleNodeMission<?>> singleLeafMissions) {
-        super(extractMissions(singleLeafMissions));
+        this(singleLeafMissions, RetentionPolicy.DEFAULT);
+    }
+
+    public SingleNodeMole(Set<SingleNodeMission<?>> singleLeafMissions, RetentionPolicy retentionPolicy) {
+        super(extractMissions(singleLeafMissions), retentionPolicy);
         this.missions = copyOf(singleLeafMissions.stream().collect(toMap(m -> new Mission(m.name()), m -> m)));
     }
 
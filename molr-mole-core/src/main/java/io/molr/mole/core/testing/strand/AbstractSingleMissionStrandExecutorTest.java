@@ -6,6 +6,7 @@ import io.molr.commons.domain.RunState;
 import io.molr.mole.core.runnable.RunnableLeafsMission;
 import io.molr.mole.core.runnable.exec.RunnableBlockExecutor;
 import io.molr.mole.core.testing.LatchTestSupport;
+import io.molr.mole.core.trace.TraceRecorder;
 import io.molr.mole.core.tree.*;
 import io.molr.mole.core.tree.tracking.TreeTracker;
 import org.assertj.core.api.AbstractComparableAssert;
@@ -37,10 +38,27 @@ public abstract class AbstractSingleMissionStrandExecutorTest implements SingleM
 
         leafExecutor = new RunnableBlockExecutor(resultTracker, mission.runnables(), MissionInput.empty(), new ConcurrentMissionOutputCollector(), runStateTracker);
         strandFactory = new StrandFactoryImpl();
-        strandExecutorFactory = new StrandExecutorFactory(strandFactory, leafExecutor);
+        ExecutionOptions options = ExecutionOptions.builder().strandScheduler(strandScheduler()).traceRecorder(traceRecorder()).build();
+        strandExecutorFactory = new StrandExecutorFactory(strandFactory, leafExecutor, options);
         strandExecutor = strandExecutorFactory.createStrandExecutor(strandFactory.rootStrand(), treeStructure);
     }
 
+    /**
+     * @return the scheduler on which the strands of the mission run, called once per test before the executors are
+     * created. Override to test the executors on another scheduler.
+     */
+    protected StrandScheduler strandScheduler() {
+        return StrandSchedulers.shared();
+    }
+
+    /**
+     * @return the recorder to which the strands of the mission report, called once per test before the executors are
+     * created
+     */
+    protected TraceRecorder traceRecorder() {
+        return TraceRecorder.disabled();
+    }
+
     @Override
     public StrandExecutor rootStrandExecutor() {
         return strandExecutor;
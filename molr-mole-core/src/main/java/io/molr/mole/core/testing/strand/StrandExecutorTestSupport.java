@@ -81,8 +81,7 @@ public interface StrandExecutorTestSupport {
      * processing
      */
     default void instructSync(StrandExecutor executor, StrandCommand command) {
-        executor.instruct(command);
-        waitForProcessedCommand(executor, command);
+        executor.instruct(command).block(TIMEOUT);
     }
 
     /**
@@ -0,0 +1,144 @@
+package io.molr.mole.core.trace;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.Strand;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes {@link TraceEvent}s in the Chrome trace event format (JSON), which can be loaded into chrome://tracing or
+ * Perfetto. Each strand is shown as a thread of its own, so that the leaves of parallel strands appear side by side and
+ * the gaps between them are visible. The leaves are duration events, the strand creations, cursor moves and commands are
+ * instant events.
+ */
+public final class ChromeTraceWriter {
+
+    private static final int PID = 1;
+
+    private ChromeTraceWriter() {
+        /* static methods only */
+    }
+
+    public static String toJson(List<TraceEvent> events) {
+        StringWriter writer = new StringWriter();
+        write(events, writer);
+        return writer.toString();
+    }
+
+    public static void write(List<TraceEvent> events, Writer writer) {
+        try {
+            Map<Strand, Integer> tids = tidsOf(events);
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            boolean first = true;
+            for (Map.Entry<Strand, Integer> strand : tids.entrySet()) {
+                first = separate(writer, first);
+                writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PID + ",\"tid\":" + strand.getValue()
+                        + ",\"args\":{\"name\":" + quoted("strand " + strand.getKey().id()) + "}}");
+            }
+            for (TraceEvent event : events) {
+                first = separate(writer, first);
+                writeEvent(writer, event, tids.get(event.strand()));
+            }
+            writer.write("]}");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the trace", e);
+        }
+    }
+
+    private static Map<Strand, Integer> tidsOf(List<TraceEvent> events) {
+        Map<Strand, Integer> tids = new LinkedHashMap<>();
+        events.forEach(event -> tids.putIfAbsent(event.strand(), tids.size()));
+        return tids;
+    }
+
+    private static boolean separate(Writer writer, boolean first) throws IOException {
+        if (!first) {
+            writer.write(",\n");
+        }
+        return false;
+    }
+
+    private static void writeEvent(Writer writer, TraceEvent event, int tid) throws IOException {
+        Map<String, String> args = new HashMap<>();
+        args.put("thread", event.threadName());
+        event.block().ifPresent(block -> args.put("block", block.id()));
+        String name;
+        String phase;
+        switch (event.kind()) {
+            case STRAND_CREATED:
+                name = "strand created";
+                phase = "i";
+                event.detail().ifPresent(parent -> args.put("parent", parent));
+                break;
+            case CURSOR_MOVED:
+                name = "cursor: " + event.block().map(Block::text).orElse("finished");
+                phase = "i";
+                break;
+            case LEAF_STARTED:
+                name = event.block().map(Block::text).orElse("leaf");
+                phase = "B";
+                break;
+            case LEAF_FINISHED:
+                name = event.block().map(Block::text).orElse("leaf");
+                phase = "E";
+                event.detail().ifPresent(result -> args.put("result", result));
+                break;
+            case COMMAND:
+                name = "command: " + event.detail().orElse("");
+                phase = "i";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kind of event " + event.kind());
+        }
+
+        writer.write("{\"name\":" + quoted(name) + ",\"cat\":\"" + event.kind().name().toLowerCase(Locale.ROOT)
+                + "\",\"ph\":\"" + phase + "\",\"ts\":" + micros(event.nanos()) + ",\"pid\":" + PID + ",\"tid\":" + tid);
+        if ("i".equals(phase)) {
+            writer.write(",\"s\":\"t\"");
+        }
+        writer.write(",\"args\":{");
+        boolean first = true;
+        for (Map.Entry<String, String> arg : args.entrySet()) {
+            first = separate(writer, first);
+            writer.write(quoted(arg.getKey()) + ":" + quoted(arg.getValue()));
+        }
+        writer.write("}}");
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    private static String quoted(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,112 @@
+package io.molr.mole.core.trace;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.Strand;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * One event of the execution of a mission instance, as recorded by a {@link TraceRecorder}
+ */
+public final class TraceEvent {
+
+    public enum Kind {
+        /**
+         * A strand was created, its block is the root of the structure it executes and its detail the id of the parent
+         * strand (absent for the root strand)
+         */
+        STRAND_CREATED,
+        /**
+         * The cursor of a strand moved to the block (absent when the strand finished)
+         */
+        CURSOR_MOVED,
+        LEAF_STARTED,
+        /**
+         * A leaf finished, the detail is its result
+         */
+        LEAF_FINISHED,
+        /**
+         * A command was sent to the strand, the detail is the command
+         */
+        COMMAND
+    }
+
+    private final Kind kind;
+    private final long nanos;
+    private final String threadName;
+    private final Strand strand;
+    private final Block block;
+    private final String detail;
+
+    TraceEvent(Kind kind, long nanos, String threadName, Strand strand, Block block, String detail) {
+        this.kind = requireNonNull(kind, "kind must not be null");
+        this.nanos = nanos;
+        this.threadName = requireNonNull(threadName, "threadName must not be null");
+        this.strand = requireNonNull(strand, "strand must not be null");
+        this.block = block;
+        this.detail = detail;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * @return the time of the event in nanoseconds since the creation of the recorder
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the name of the thread on which the event happened
+     */
+    public String threadName() {
+        return threadName;
+    }
+
+    public Strand strand() {
+        return strand;
+    }
+
+    public Optional<Block> block() {
+        return Optional.ofNullable(block);
+    }
+
+    public Optional<String> detail() {
+        return Optional.ofNullable(detail);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TraceEvent that = (TraceEvent) o;
+        return nanos == that.nanos &&
+                kind == that.kind &&
+                threadName.equals(that.threadName) &&
+                strand.equals(that.strand) &&
+                Objects.equals(block, that.block) &&
+                Objects.equals(detail, that.detail);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, nanos, threadName, strand, block, detail);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceEvent{" +
+                "kind=" + kind +
+                ", nanos=" + nanos +
+                ", threadName='" + threadName + '\'' +
+                ", strand=" + strand +
+                ", block=" + block +
+                ", detail='" + detail + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,175 @@
+package io.molr.mole.core.trace;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.Result;
+import io.molr.commons.domain.Strand;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.trace.TraceEvent.Kind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static io.molr.commons.util.Exceptions.illegalArgumentException;
+
+/**
+ * Records the execution of a mission instance (strand creations, cursor moves, leaf executions and commands) into a ring
+ * buffer which is allocated once on creation, so that recording neither allocates nor blocks. When the buffer is full,
+ * the oldest events are overwritten. The recorded events can be exported with {@link ChromeTraceWriter}.
+ * <p>
+ * Each slot of the buffer carries the sequence number of the event it holds. A writer claims the slot by swapping this
+ * number for a marker, so that only one writer at a time fills a slot. A writer which finds its slot claimed by another
+ * one, or already holding a newer event (it was preempted for a whole lap of the buffer), drops its event and counts
+ * it (see {@link #droppedCount()}). All the fields of a slot are accessed atomically, so {@link #events()} can check
+ * that the sequence number of a slot did not change while it read the event, and skips it otherwise. It can be called
+ * at any time.
+ * <p>
+ * This class is thread safe
+ */
+public final class TraceRecorder {
+
+    private static final TraceRecorder DISABLED = new TraceRecorder(0);
+    private static final long WRITING = -1;
+    private static final long EMPTY = -2;
+
+    private final long originNanos = System.nanoTime();
+    private final int capacity;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /* the slots of the ring buffer */
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray nanos;
+    private final AtomicReferenceArray<Kind> kinds;
+    private final AtomicReferenceArray<String> threadNames;
+    private final AtomicReferenceArray<Strand> strands;
+    private final AtomicReferenceArray<Block> blocks;
+    private final AtomicReferenceArray<String> details;
+
+    private TraceRecorder(int capacity) {
+        this.capacity = capacity;
+        this.sequences = new AtomicLongArray(capacity);
+        this.nanos = new AtomicLongArray(capacity);
+        this.kinds = new AtomicReferenceArray<>(capacity);
+        this.threadNames = new AtomicReferenceArray<>(capacity);
+        this.strands = new AtomicReferenceArray<>(capacity);
+        this.blocks = new AtomicReferenceArray<>(capacity);
+        this.details = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * @param capacity the number of events kept, the older ones are overwritten
+     */
+    public static TraceRecorder withCapacity(int capacity) {
+        if (capacity < 1) {
+            throw illegalArgumentException("capacity must be positive, but was {}", capacity);
+        }
+        return new TraceRecorder(capacity);
+    }
+
+    /**
+     * @return a recorder which records nothing
+     */
+    public static TraceRecorder disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    public void strandCreated(Strand strand, Strand parent, Block rootBlock) {
+        record(Kind.STRAND_CREATED, strand, rootBlock, parent == null ? null : parent.id());
+    }
+
+    public void cursorMoved(Strand strand, Block block) {
+        record(Kind.CURSOR_MOVED, strand, block, null);
+    }
+
+    public void leafStarted(Strand strand, Block leaf) {
+        record(Kind.LEAF_STARTED, strand, leaf, null);
+    }
+
+    public void leafFinished(Strand strand, Block leaf, Result result) {
+        record(Kind.LEAF_FINISHED, strand, leaf, result.name());
+    }
+
+    public void commandReceived(Strand strand, StrandCommand command) {
+        record(Kind.COMMAND, strand, null, command.name());
+    }
+
+    private void record(Kind kind, Strand strand, Block block, String detail) {
+        if (capacity == 0) {
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        int slot = (int) (sequence % capacity);
+        if (!claim(slot, sequence)) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        nanos.set(slot, System.nanoTime() - originNanos);
+        kinds.set(slot, kind);
+        threadNames.set(slot, Thread.currentThread().getName());
+        strands.set(slot, strand);
+        blocks.set(slot, block);
+        details.set(slot, detail);
+        sequences.set(slot, sequence);
+    }
+
+    /**
+     * @return whether the slot was claimed for the event with the given sequence number, false if another writer is
+     * filling it or it already holds a newer event
+     */
+    private boolean claim(int slot, long sequence) {
+        while (true) {
+            long actual = sequences.get(slot);
+            if (actual == WRITING || actual >= sequence) {
+                return false;
+            }
+            if (sequences.compareAndSet(slot, actual, WRITING)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the number of events recorded so far, including the overwritten ones
+     */
+    public long recordedCount() {
+        return nextSequence.get();
+    }
+
+    /**
+     * @return the number of events dropped because their slot was being written by another thread
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the events still in the buffer, the oldest first
+     */
+    public List<TraceEvent> events() {
+        long next = nextSequence.get();
+        long first = Math.max(0, next - capacity);
+        List<TraceEvent> events = new ArrayList<>((int) (next - first));
+        for (long sequence = first; sequence < next; sequence++) {
+            int slot = (int) (sequence % capacity);
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            TraceEvent event = new TraceEvent(kinds.get(slot), nanos.get(slot), threadNames.get(slot), strands.get(slot), blocks.get(slot), details.get(slot));
+            /* claimed by another writer in the meantime */
+            if (sequences.get(slot) == sequence) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
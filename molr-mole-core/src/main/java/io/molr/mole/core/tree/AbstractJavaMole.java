@@ -4,39 +4,66 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.molr.commons.domain.*;
 import io.molr.mole.core.api.Mole;
+import io.molr.mole.core.trace.TraceEvent;
 import io.molr.mole.core.utils.ThreadFactories;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.ReplayProcessor;
 import reactor.core.scheduler.Schedulers;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.Comparator.comparing;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 
+/**
+ * Base class for the moles executing their missions in this JVM. The mission instances are kept as defined by the
+ * {@link RetentionPolicy} given on construction ({@link RetentionPolicy#DEFAULT} if none): the executors of evicted
+ * instances are replaced by an {@link ArchivedMissionExecutor} and the instances are not listed in the {@link #states()}
+ * anymore.
+ */
 public abstract class AbstractJavaMole implements Mole {
 
+    private static final Duration EVICTION_PERIOD = Duration.ofSeconds(1);
+
     private final ReplayProcessor<AgencyState> statesSink = ReplayProcessor.create(1);
     private final Flux<AgencyState> statesStream = statesSink.publishOn(Schedulers.elastic());
 
+    /* the executors of the retained instances and of the archived ones */
     private final Map<MissionHandle, MissionExecutor> executors = new ConcurrentHashMap<>();
     private final Set<MissionInstance> instances = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Map<MissionHandle, RetainedInstance> retainedInstances = new ConcurrentHashMap<>();
+    /* oldest first. Only accessed by the mole executor */
+    private final Deque<MissionHandle> archivedHandles = new ArrayDeque<>();
 
     private final MissionHandleFactory handleFactory = new AtomicIncrementMissionHandleFactory(this);
-    private final ExecutorService moleExecutor = newSingleThreadExecutor(ThreadFactories.namedThreadFactory("java-mole-%d"));
+    private final ScheduledExecutorService moleExecutor = newSingleThreadScheduledExecutor(ThreadFactories.namedThreadFactory("java-mole-%d"));
 
     private final Set<Mission> availableMissions;
+    private final RetentionPolicy retentionPolicy;
 
     protected AbstractJavaMole(Set<Mission> availableMissions) {
+        this(availableMissions, RetentionPolicy.DEFAULT);
+    }
+
+    protected AbstractJavaMole(Set<Mission> availableMissions, RetentionPolicy retentionPolicy) {
         this.availableMissions = availableMissions;
+        this.retentionPolicy = requireNonNull(retentionPolicy, "retentionPolicy must not be null");
+        if (retentionPolicy.hasTimeLimits()) {
+            long period = EVICTION_PERIOD.toMillis();
+            moleExecutor.scheduleAtFixedRate(this::evictInstances, period, period, TimeUnit.MILLISECONDS);
+        }
         publishState();
     }
 
@@ -44,13 +71,72 @@ public abstract class AbstractJavaMole implements Mole {
     public Mono<MissionHandle> instantiate(Mission mission, Map<String, Object> params) {
         return supplyAsync(() -> {
             MissionHandle handle = handleFactory.createHandle();
-            executors.put(handle, executorFor(mission, params));
-            instances.add(new MissionInstance(handle, mission));
+            MissionExecutor executor = executorFor(mission, params);
+            MissionInstance instance = new MissionInstance(handle, mission);
+            executors.put(handle, executor);
+            retainedInstances.put(handle, new RetainedInstance(instance, executor));
+            instances.add(instance);
             publishState();
             return handle;
         });
     }
 
+    /**
+     * Archives the instances exceeding the limits of the retention policy. Runs on the mole executor.
+     */
+    private void evictInstances() {
+        Instant now = Instant.now();
+        List<RetainedInstance> evicted = new ArrayList<>();
+        List<RetainedInstance> finished = new ArrayList<>();
+        for (RetainedInstance retained : retainedInstances.values()) {
+            /* instances which did not finish (running, or paused e.g. after a failure) are never evicted */
+            if (!retained.isFinished()) {
+                continue;
+            }
+            if (isExceeded(retained.instantiated, retentionPolicy.maxAge(), now)
+                    || isExceeded(retained.finished, retentionPolicy.finishedTimeToLive(), now)) {
+                evicted.add(retained);
+            } else {
+                finished.add(retained);
+            }
+        }
+        int surplus = finished.size() - retentionPolicy.maxFinishedInstances();
+        if (surplus > 0) {
+            finished.sort(comparing(retained -> retained.finished));
+            evicted.addAll(finished.subList(0, surplus));
+        }
+
+        if (!evicted.isEmpty()) {
+            evicted.forEach(this::archive);
+            publishState();
+        }
+    }
+
+    private void archive(RetainedInstance retained) {
+        MissionHandle handle = retained.instance.handle();
+        release(retained);
+        executors.put(handle, new ArchivedMissionExecutor(retained.lastState, retained.lastOutput, retained.representation, retained.executor.traceRecorder()));
+
+        archivedHandles.addLast(handle);
+        while (archivedHandles.size() > retentionPolicy.maxArchivedInstances()) {
+            executors.remove(archivedHandles.removeFirst());
+        }
+    }
+
+    /**
+     * Stops the executor of the instance and forgets it. Runs on the mole executor.
+     */
+    private void release(RetainedInstance retained) {
+        retained.subscriptions.dispose();
+        retained.executor.dispose();
+        retainedInstances.remove(retained.instance.handle());
+        instances.remove(retained.instance);
+    }
+
+    private static boolean isExceeded(Instant since, Optional<Duration> limit, Instant now) {
+        return limit.isPresent() && !since.plus(limit.get()).isAfter(now);
+    }
+
     @Override
     public Mono<MissionParameterDescription> parameterDescriptionOf(Mission mission) {
         return supplyAsync(() -> missionParameterDescriptionOf(mission));
@@ -66,11 +152,21 @@ public abstract class AbstractJavaMole implements Mole {
         return fromExecutorOrError(handle, MissionExecutor::states);
     }
 
+    @Override
+    public final Flux<MissionStateDelta> stateDeltasFor(MissionHandle handle) {
+        return fromExecutorOrError(handle, MissionExecutor::stateDeltas);
+    }
+
     @Override
     public final Flux<MissionOutput> outputsFor(MissionHandle handle) {
         return fromExecutorOrError(handle, MissionExecutor::outputs);
     }
 
+    @Override
+    public final Flux<MissionOutputEvent> outputEventsFor(MissionHandle handle) {
+        return fromExecutorOrError(handle, MissionExecutor::outputEvents);
+    }
+
     @Override
     public final Flux<MissionRepresentation> representationsFor(MissionHandle handle) {
         return fromExecutorOrError(handle, MissionExecutor::representations);
@@ -88,14 +184,38 @@ public abstract class AbstractJavaMole implements Mole {
     }
 
     @Override
-    public final void instruct(MissionHandle handle, Strand strand, StrandCommand command) {
-        Optional.ofNullable(executors.get(handle))
-                .ifPresent(e -> e.instruct(strand, command));
+    public final Mono<CommandResponse> instruct(MissionHandle handle, Strand strand, StrandCommand command) {
+        return Optional.ofNullable(executors.get(handle))
+                .map(e -> e.instruct(strand, command))
+                .orElse(Mono.error(new IllegalStateException("No executor for handle '" + handle + "'")));
+    }
+
+    @Override
+    public final Mono<CommandResponse> instructRoot(MissionHandle handle, StrandCommand command) {
+        return Optional.ofNullable(executors.get(handle))
+                .map(e -> e.instructRoot(command))
+                .orElse(Mono.error(new IllegalStateException("No executor for handle '" + handle + "'")));
     }
 
-    public final void instructRoot(MissionHandle handle, StrandCommand command) {
-        Optional.ofNullable(executors.get(handle))
-                .ifPresent(e -> e.instructRoot(command));
+    @Override
+    public final Mono<List<TraceEvent>> traceFor(MissionHandle handle) {
+        return Optional.ofNullable(executors.get(handle))
+                .map(e -> Mono.fromSupplier(() -> e.traceRecorder().events()))
+                .orElse(Mono.error(new IllegalStateException("No executor for handle '" + handle + "'")));
+    }
+
+    @Override
+    public void dispose(MissionHandle handle) {
+        moleExecutor.execute(() -> {
+            RetainedInstance retained = retainedInstances.get(handle);
+            if (retained != null) {
+                release(retained);
+                publishState();
+            } else {
+                archivedHandles.remove(handle);
+            }
+            executors.remove(handle);
+        });
     }
 
     private <T> Mono<T> supplyAsync(Supplier<T> supplier) {
@@ -106,6 +226,43 @@ public abstract class AbstractJavaMole implements Mole {
         statesSink.onNext(ImmutableAgencyState.of(ImmutableSet.copyOf(availableMissions), ImmutableList.copyOf(instances)));
     }
 
+    /**
+     * The bookkeeping of an instance which is not archived yet
+     */
+    private final class RetainedInstance {
+
+        private final MissionInstance instance;
+        private final MissionExecutor executor;
+        private final Instant instantiated = Instant.now();
+        private final Disposable.Composite subscriptions = Disposables.composite();
+
+        private volatile MissionState lastState;
+        private volatile MissionOutput lastOutput = MissionOutput.empty();
+        private volatile MissionRepresentation representation;
+        /* set once, when the instance is seen finished for the first time */
+        private volatile Instant finished;
+
+        private RetainedInstance(MissionInstance instance, MissionExecutor executor) {
+            this.instance = instance;
+            this.executor = executor;
+            subscriptions.add(executor.representations().subscribe(r -> representation = r));
+            subscriptions.add(executor.outputs().subscribe(o -> lastOutput = o));
+            subscriptions.add(executor.states().subscribe(this::onState));
+        }
+
+        private void onState(MissionState state) {
+            lastState = state;
+            if (finished == null && state.runState() == RunState.FINISHED) {
+                finished = Instant.now();
+                moleExecutor.execute(AbstractJavaMole.this::evictInstances);
+            }
+        }
+
+        private boolean isFinished() {
+            return finished != null && representation != null;
+        }
+    }
+
     protected abstract MissionExecutor executorFor(Mission mission, Map<String, Object> params);
 
     protected abstract MissionRepresentation missionRepresentationOf(Mission mission);
@@ -0,0 +1,72 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.*;
+import io.molr.mole.core.trace.TraceRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stands in for the executor of a mission instance evicted by the {@link RetentionPolicy}: it only keeps the last known
+ * state, output and representation of the instance, as well as the events it recorded (if any). Each stream emits this single element and completes, commands are
+ * rejected.
+ */
+public final class ArchivedMissionExecutor implements MissionExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchivedMissionExecutor.class);
+
+    private final MissionState finalState;
+    private final MissionOutput finalOutput;
+    private final MissionRepresentation representation;
+    private final TraceRecorder traceRecorder;
+
+    public ArchivedMissionExecutor(MissionState finalState, MissionOutput finalOutput, MissionRepresentation representation) {
+        this(finalState, finalOutput, representation, TraceRecorder.disabled());
+    }
+
+    public ArchivedMissionExecutor(MissionState finalState, MissionOutput finalOutput, MissionRepresentation representation, TraceRecorder traceRecorder) {
+        this.finalState = requireNonNull(finalState, "finalState must not be null");
+        this.finalOutput = requireNonNull(finalOutput, "finalOutput must not be null");
+        this.representation = requireNonNull(representation, "representation must not be null");
+        this.traceRecorder = requireNonNull(traceRecorder, "traceRecorder must not be null");
+    }
+
+    @Override
+    public Flux<MissionState> states() {
+        return Flux.just(finalState);
+    }
+
+    @Override
+    public Flux<MissionOutput> outputs() {
+        return Flux.just(finalOutput);
+    }
+
+    @Override
+    public Flux<MissionRepresentation> representations() {
+        return Flux.just(representation);
+    }
+
+    @Override
+    public TraceRecorder traceRecorder() {
+        return traceRecorder;
+    }
+
+    @Override
+    public Mono<CommandResponse> instruct(Strand strand, StrandCommand command) {
+        LOGGER.warn("Command {} for strand {} is ignored, the mission instance is archived", command, strand);
+        return Mono.just(CommandResponse.rejected(strand, command, "the mission instance is archived"));
+    }
+
+    @Override
+    public Mono<CommandResponse> instructRoot(StrandCommand command) {
+        return instruct(finalState.rootStrand(), command);
+    }
+
+    @Override
+    public void dispose() {
+        /* nothing to release */
+    }
+}
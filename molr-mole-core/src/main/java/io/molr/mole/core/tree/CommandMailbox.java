@@ -0,0 +1,163 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.CommandResponse;
+import io.molr.commons.domain.Strand;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.metrics.MoleMetrics;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.molr.commons.domain.StrandCommand.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The commands sent to one strand, waiting to be processed. Any thread can {@link #post(StrandCommand)} without
+ * blocking, while only the strand lifecycle (one thread at a time) {@link #poll()}s them. Each command is answered
+ * exactly once with a {@link CommandResponse}.
+ * <p>
+ * Bursts of commands are coalesced while they wait:
+ * <ul>
+ * <li>a {@link StrandCommand#PAUSE} cancels the waiting {@link StrandCommand#RESUME} and
+ * {@link StrandCommand#STEP_OVER} commands, as the strand would stop anyway</li>
+ * <li>a {@link StrandCommand#RESUME} or {@link StrandCommand#PAUSE} directly following the same command is merged into
+ * it and receives the same response</li>
+ * </ul>
+ * <p>
+ * This class is thread safe
+ */
+final class CommandMailbox {
+
+    private final Strand strand;
+    private final MoleMetrics metrics;
+    private final ConcurrentLinkedQueue<PendingCommand> inbox = new ConcurrentLinkedQueue<>();
+    /* the commands taken from the inbox and coalesced, only accessed by the consumer */
+    private final ArrayDeque<PendingCommand> batch = new ArrayDeque<>();
+    /* number of posted commands which are not answered yet */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile String closedReason;
+
+    CommandMailbox(Strand strand) {
+        this(strand, MoleMetrics.shared());
+    }
+
+    /**
+     * Creates a mailbox which reports the waiting time of the commands, and the rejected ones, to the given metrics
+     */
+    CommandMailbox(Strand strand, MoleMetrics metrics) {
+        this.strand = requireNonNull(strand, "strand must not be null");
+        this.metrics = requireNonNull(metrics, "metrics must not be null");
+    }
+
+    /**
+     * @return the response to the command, emitted once the command is processed or cancelled. Commands posted after
+     * the mailbox is {@link #close(String) closed} are rejected right away
+     */
+    Mono<CommandResponse> post(StrandCommand command) {
+        PendingCommand pending = new PendingCommand(requireNonNull(command, "command must not be null"));
+        pendingCount.incrementAndGet();
+        inbox.offer(pending);
+        if (closedReason != null) {
+            /* the consumer might have drained the inbox for the last time already */
+            rejectAll(inbox, closedReason);
+        }
+        return pending.response;
+    }
+
+    /**
+     * @return the next command to be processed or {@code null} if there is none. The caller must answer the command by
+     * {@link PendingCommand#accept()} or {@link PendingCommand#reject(String)} once it is processed.
+     */
+    PendingCommand poll() {
+        PendingCommand next;
+        while ((next = inbox.poll()) != null) {
+            coalesce(next);
+        }
+        return batch.poll();
+    }
+
+    /**
+     * Rejects all the waiting and future commands with the given reason. To be called by the consumer, once it will not
+     * {@link #poll()} anymore.
+     */
+    void close(String reason) {
+        closedReason = requireNonNull(reason, "reason must not be null");
+        rejectAll(batch, reason);
+        rejectAll(inbox, reason);
+    }
+
+    boolean hasPending() {
+        return pendingCount.get() > 0;
+    }
+
+    private void coalesce(PendingCommand next) {
+        if (next.command == PAUSE) {
+            Iterator<PendingCommand> waiting = batch.iterator();
+            while (waiting.hasNext()) {
+                PendingCommand cancelled = waiting.next();
+                if (cancelled.command == RESUME || cancelled.command == STEP_OVER) {
+                    waiting.remove();
+                    cancelled.reject("cancelled by a later " + PAUSE);
+                }
+            }
+        }
+
+        PendingCommand last = batch.peekLast();
+        if (last != null && last.command == next.command && (next.command == RESUME || next.command == PAUSE)) {
+            last.merged.add(next);
+            return;
+        }
+        batch.add(next);
+    }
+
+    private static void rejectAll(Queue<PendingCommand> commands, String reason) {
+        PendingCommand pending;
+        while ((pending = commands.poll()) != null) {
+            pending.reject(reason);
+        }
+    }
+
+    /**
+     * A command taken from the mailbox, together with the ones merged into it
+     */
+    final class PendingCommand {
+
+        private final StrandCommand command;
+        private final long postedNanos = System.nanoTime();
+        private final MonoProcessor<CommandResponse> response = MonoProcessor.create();
+        private final List<PendingCommand> merged = new ArrayList<>();
+
+        private PendingCommand(StrandCommand command) {
+            this.command = command;
+        }
+
+        StrandCommand command() {
+            return command;
+        }
+
+        void accept() {
+            respond(CommandResponse.accepted(strand, command));
+        }
+
+        void reject(String reason) {
+            respond(CommandResponse.rejected(strand, command, reason));
+        }
+
+        private void respond(CommandResponse commandResponse) {
+            for (PendingCommand mergedCommand : merged) {
+                mergedCommand.respond(commandResponse);
+            }
+            /* not pending anymore before anybody is told, so that the effects are visible to the subscribers */
+            pendingCount.decrementAndGet();
+            metrics.commandProcessed(command, System.nanoTime() - postedNanos, commandResponse.isAccepted());
+            response.onNext(commandResponse);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.molr.mole.core.tree;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Limits the number of children strands of one parallel block which run at the same time. A child strand asks to be
+ * admitted before it starts running and keeps its slot until it finishes. If no slot is free, it waits in line: a slot
+ * freed by another child is handed over to the first one waiting, which is then signalled.
+ * <p>
+ * This class is thread safe
+ */
+final class ConcurrencyLimit {
+
+    private static final ConcurrencyLimit UNLIMITED = new ConcurrencyLimit(Integer.MAX_VALUE);
+
+    private final int maxConcurrency;
+
+    /* all guarded by this */
+    private final Set<Object> admitted = new HashSet<>();
+    private final Map<Object, Runnable> waiting = new LinkedHashMap<>();
+
+    private ConcurrencyLimit(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    static ConcurrencyLimit of(int maxConcurrency) {
+        if (maxConcurrency == Integer.MAX_VALUE) {
+            return UNLIMITED;
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, but was " + maxConcurrency);
+        }
+        return new ConcurrencyLimit(maxConcurrency);
+    }
+
+    static ConcurrencyLimit unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * @param child            the strand asking for a slot
+     * @param onSlotHandedOver called (outside of any lock) when a slot is handed over to the child after it had to wait
+     * @return whether the child holds a slot. If not, it waits in line until a slot is handed over to it, or until it
+     * gives up with {@link #release(Object)}.
+     */
+    boolean admit(Object child, Runnable onSlotHandedOver) {
+        if (this == UNLIMITED) {
+            return true;
+        }
+        synchronized (this) {
+            if (admitted.contains(child)) {
+                return true;
+            }
+            if (admitted.size() < maxConcurrency) {
+                waiting.remove(child);
+                admitted.add(child);
+                return true;
+            }
+            waiting.putIfAbsent(child, onSlotHandedOver);
+            return false;
+        }
+    }
+
+    /**
+     * Frees the slot of the given child, or takes it out of the line if it is still waiting
+     */
+    void release(Object child) {
+        if (this == UNLIMITED) {
+            return;
+        }
+        Runnable signal = null;
+        synchronized (this) {
+            admitted.remove(child);
+            waiting.remove(child);
+            if (admitted.size() < maxConcurrency && !waiting.isEmpty()) {
+                Map.Entry<Object, Runnable> next = waiting.entrySet().iterator().next();
+                waiting.remove(next.getKey());
+                admitted.add(next.getKey());
+                signal = next.getValue();
+            }
+        }
+        if (signal != null) {
+            signal.run();
+        }
+    }
+}
@@ -2,34 +2,66 @@ package io.molr.mole.core.tree;
 
 import io.molr.commons.domain.Block;
 import io.molr.commons.domain.MissionOutput;
+import io.molr.commons.domain.MissionOutputEvent;
 import io.molr.commons.domain.Placeholder;
+import io.molr.mole.core.utils.CoalescingPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.ReplayProcessor;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Collects the output of a mission as a stream of {@link MissionOutputEvent}s. Putting a value only records the value
+ * and emits one event, the complete {@link MissionOutput} is built lazily: at most once per change and only if somebody
+ * asks for it (through {@link #snapshot()} or {@link #asStream()}). Only the actual values are kept, so a leaf
+ * overwriting the same value in a loop does not make the collector grow.
+ * <p>
+ * The stream of complete outputs is published through a {@link CoalescingPublisher}: bursts of values (e.g. a leaf
+ * emitting in a tight loop) result in one output per time window or per given number of values.
+ */
 public class ConcurrentMissionOutputCollector implements MissionOutputCollector {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ConcurrentMissionOutputCollector.class);
 
-    private final ReplayProcessor<MissionOutput> outputSink = ReplayProcessor.cacheLast();
-    private final Flux<MissionOutput> outputStream = outputSink.publishOn(Schedulers.newSingle("Output collector"));
+    private static final Duration DEFAULT_PUBLISHING_WINDOW = Duration.ofMillis(100);
+    private static final int DEFAULT_MAX_COALESCED_UPDATES = 1000;
 
-    private final Map<Block, Map<String, Object>> blockOutputs = new ConcurrentHashMap<>();
+    /* live events only, new subscribers get the actual values first (see events()) */
+    private final DirectProcessor<MissionOutputEvent> eventSink = DirectProcessor.create();
+    private final FluxSink<MissionOutputEvent> events = eventSink.sink();
+    private final CoalescingPublisher<MissionOutput> outputPublisher;
+
+    private final Object lock = new Object();
+    /* guarded by lock */
+    private final Map<String, Map<String, Object>> blockOutputs = new LinkedHashMap<>();
+    /* guarded by lock, null whenever a value was put after the last snapshot */
+    private MissionOutput snapshot = MissionOutput.empty();
+    /* guarded by lock */
+    private boolean completed;
+
+    public ConcurrentMissionOutputCollector() {
+        this(DEFAULT_PUBLISHING_WINDOW, DEFAULT_MAX_COALESCED_UPDATES);
+    }
+
+    /**
+     * @param publishingWindow    the maximum time for which values are merged into one published output
+     * @param maxCoalescedUpdates the maximum number of values which are merged into one published output
+     */
+    public ConcurrentMissionOutputCollector(Duration publishingWindow, int maxCoalescedUpdates) {
+        this.outputPublisher = new CoalescingPublisher<>(eventSink, this::snapshot, publishingWindow, maxCoalescedUpdates, Schedulers.parallel());
+    }
 
     @Override
     public void put(Block block, String name, Number value) {
         putIt(block, name, value);
     }
 
-    private Map<String, Object> blockMap(Block block) {
-        return blockOutputs.computeIfAbsent(block, b -> new ConcurrentHashMap<>());
-    }
-
     @Override
     public void put(Block block, String name, String value) {
         putIt(block, name, value);
@@ -42,21 +74,67 @@ public class ConcurrentMissionOutputCollector implements MissionOutputCollector
 
     private void putIt(Block block, String name, Object value) {
         if (value != null) {
-            blockMap(block).put(name, value);
-            publish();
+            synchronized (lock) {
+                if (completed) {
+                    LOGGER.warn("Value for {}, variable '{}' was put after the output was completed. Nothing added.", block, name);
+                    return;
+                }
+                blockOutputs.computeIfAbsent(block.id(), id -> new LinkedHashMap<>()).put(name, value);
+                snapshot = null;
+                events.next(MissionOutputEvent.of(block, name, value));
+            }
         } else {
             LOGGER.warn("Value for {}, variable '{}' was a null value. Nothing added.", block, name);
         }
     }
 
-    private void publish() {
-        outputSink.onNext(MissionOutput.fromBlocks(this.blockOutputs));
+    /**
+     * Returns the complete output collected so far
+     */
+    public MissionOutput snapshot() {
+        synchronized (lock) {
+            if (snapshot == null) {
+                snapshot = MissionOutput.fromBlockIds(blockOutputs);
+            }
+            return snapshot;
+        }
     }
 
     @Override
     public Flux<MissionOutput> asStream() {
-        return this.outputStream;
+        return outputPublisher.asStream();
     }
 
+    /**
+     * The number of values which were not published as an output of their own, but merged with others
+     */
+    public long coalescedCount() {
+        return outputPublisher.coalescedCount();
+    }
+
+    @Override
+    public Flux<MissionOutputEvent> events() {
+        return Flux.create(sink -> {
+            /* events are emitted under the lock, so that no value is missed or duplicated between the two parts */
+            synchronized (lock) {
+                blockOutputs.forEach((blockId, values) -> values.forEach((name, value) -> sink.next(MissionOutputEvent.of(blockId, name, value))));
+                if (completed) {
+                    sink.complete();
+                    return;
+                }
+                sink.onDispose(eventSink.subscribe(sink::next, sink::error, sink::complete));
+            }
+        });
+    }
+
+    @Override
+    public void complete() {
+        synchronized (lock) {
+            if (!completed) {
+                completed = true;
+                events.complete();
+            }
+        }
+    }
 
 }
@@ -4,24 +4,23 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.molr.commons.domain.*;
+import io.molr.mole.core.metrics.MoleMetrics;
+import io.molr.mole.core.trace.TraceRecorder;
 import io.molr.mole.core.tree.exception.RejectedCommandException;
 import io.molr.mole.core.tree.exception.StrandExecutorException;
-import io.molr.mole.core.utils.ThreadFactories;
 import io.molr.mole.core.utils.Trees;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.ReplayProcessor;
-import reactor.core.scheduler.Scheduler;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static io.molr.commons.domain.RunState.*;
@@ -32,22 +31,34 @@ import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toList;
 
 /**
- * Concurrent (non-blocking) implementation of a {@link StrandExecutor}. Internally all the operations run on a separate
- * thread avoiding to block the {@link #instruct(StrandCommand)} method (or any other for that matter).
+ * Concurrent (non-blocking) implementation of a {@link StrandExecutor}. Internally all the operations run on the
+ * threads of a {@link StrandScheduler} avoiding to block the {@link #instruct(StrandCommand)} method (or any other for
+ * that matter). The scheduler is shared between strands, so no thread is owned by a single strand: cycles run on the
+ * cycle executor, while leaves run on the leaf executor and signal the strand when they complete.
+ * <p>
+ * The executor does not poll: a lifecycle cycle is only run when it is signalled, which happens when a command arrives,
+ * when a child strand changes its state or when the previous cycle changed something (e.g. a leaf completed and the
+ * cursor moved). Cycles are repeated until nothing changes anymore, then the executor goes idle until the next signal.
+ * <p>
+ * Commands wait in a {@link CommandMailbox} until a cycle processes them, one per cycle. Bursts of commands are
+ * coalesced there, so none is lost, and each is answered by the response returned from {@link #instruct(StrandCommand)}.
  * <p>
  * This class is thread safe
  */
 public class ConcurrentStrandExecutor implements StrandExecutor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentStrandExecutor.class);
-    private static final int EXECUTOR_SLEEP_MS_IDLE = 50;
-    private static final int EXECUTOR_SLEEP_MS_DEFAULT = 10;
-    private static final int EXECUTOR_SLEEP_MS_WAITING_FOR_CHILDREN = 25;
 
     private final Object cycleLock = new Object();
-
-    private final ExecutorService executor;
-    private final LinkedBlockingQueue<StrandCommand> commandQueue;
+    /* number of signals that arrived since the lifecycle last checked, the lifecycle is scheduled on 0 -> 1 */
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+
+    private final StrandScheduler scheduler;
+    private final MoleMetrics metrics;
+    private final TraceRecorder traceRecorder;
+    /* shared with the siblings of this strand, if it is the child of a parallel block */
+    private final ConcurrencyLimit concurrencyLimit;
+    private final CommandMailbox commandMailbox;
     private final TreeStructure structure;
     private final Strand strand;
     private final StrandFactory strandFactory;
@@ -69,183 +80,356 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
     private final AtomicReference<ExecutorState> actualState;
     private final AtomicReference<Block> actualBlock;
 
+    /* result of the leaf in execution, set by the leaf executor thread. null while the leaf is still running */
+    private final AtomicReference<Result> leafResult;
+
     private Block currentStepOverSource;
+    /* the state to go back to when the leaf in execution completes. Guarded by cycleLock */
+    private ExecutorState stateBeforeLeaf;
+    /* the command (RESUME or STEP_OVER) to carry out when the strand is admitted by the concurrency limit. Guarded by cycleLock */
+    private StrandCommand queuedCommand;
+    /* whether the strand holds a slot of the concurrency limit, kept until it finishes. Guarded by cycleLock */
+    private boolean admitted;
     private StrandCommand lastCommand;
     private ImmutableList<StrandExecutor> childExecutors;
+    /* incremented on each effective change of state, block or children. Guarded by cycleLock */
+    private long changeCount;
+    private volatile boolean disposed;
 
     public ConcurrentStrandExecutor(Strand strand, Block actualBlock, TreeStructure structure, StrandFactory strandFactory, StrandExecutorFactory strandExecutorFactory, LeafExecutor leafExecutor) {
+        this(strand, actualBlock, structure, strandFactory, strandExecutorFactory, leafExecutor, ExecutionOptions.defaults());
+    }
+
+    /**
+     * @param options the scheduler, metrics and trace recorder of the strand. A child strand of a parallel block only
+     *                starts running when admitted by the concurrency limit of the options and is
+     *                {@link RunState#QUEUED} until then
+     */
+    public ConcurrentStrandExecutor(Strand strand, Block actualBlock, TreeStructure structure, StrandFactory strandFactory, StrandExecutorFactory strandExecutorFactory, LeafExecutor leafExecutor, ExecutionOptions options) {
         requireNonNull(actualBlock, "actualBlock cannot be null");
         this.structure = requireNonNull(structure, "structure cannot be null");
         this.strand = requireNonNull(strand, "strand cannot be null");
         this.strandFactory = requireNonNull(strandFactory, "strandFactory cannot be null");
         this.strandExecutorFactory = requireNonNull(strandExecutorFactory, "strandExecutorFactory cannot be null");
         this.leafExecutor = requireNonNull(leafExecutor, "leafExecutor cannot be null");
+        requireNonNull(options, "options cannot be null");
+        this.scheduler = options.strandScheduler();
+        this.metrics = options.metrics();
+        this.traceRecorder = options.traceRecorder();
+        this.concurrencyLimit = options.concurrencyLimit();
+        this.commandMailbox = new CommandMailbox(strand, metrics);
 
         this.lastCommandSink = ReplayProcessor.cacheLast();
-        this.lastCommandStream = lastCommandSink.publishOn(publishingScheduler("last-command"));
+        this.lastCommandStream = lastCommandSink.publishOn(scheduler.publishingScheduler());
         this.errorSink = EmitterProcessor.create();
-        this.errorStream = errorSink.publishOn(publishingScheduler("errors"));
+        this.errorStream = errorSink.publishOn(scheduler.publishingScheduler());
         this.stateSink = ReplayProcessor.cacheLast();
-        this.stateStream = stateSink.publishOn(publishingScheduler("states"));
+        this.stateStream = stateSink.publishOn(scheduler.publishingScheduler());
         this.blockSink = ReplayProcessor.cacheLast();
-        this.blockStream = blockSink.publishOn(publishingScheduler("cursor"));
+        this.blockStream = blockSink.publishOn(scheduler.publishingScheduler());
         this.childExecutorsSink = EmitterProcessor.create();
 
         this.allowedCommands = new AtomicReference<>();
         this.actualBlock = new AtomicReference<>();
         this.actualState = new AtomicReference<>();
+        this.leafResult = new AtomicReference<>();
         this.currentStepOverSource = null;
         this.lastCommand = null;
 
         updateActualBlock(actualBlock);
         updateState(ExecutorState.IDLE);
         updateChildrenExecutors(ImmutableList.of());
+    }
 
-        this.commandQueue = new LinkedBlockingQueue<>(1);
-        this.executor = Executors.newSingleThreadExecutor(ThreadFactories.namedThreadFactory("strand" + strand.id() + "-exec-%d"));
-        this.executor.submit(this::lifecycle);
+    @Override
+    public Mono<CommandResponse> instruct(StrandCommand command) {
+        traceRecorder.commandReceived(strand, command);
+        Mono<CommandResponse> response = commandMailbox.post(command);
+        signal();
+        return response.publishOn(scheduler.publishingScheduler());
     }
 
+    /**
+     * The strand stops at the next cycle: no more leaves are started, the waiting commands are rejected and the streams
+     * complete. A leaf in execution is not interrupted, but its result is ignored. The children strands are disposed as
+     * well.
+     */
     @Override
-    public void instruct(StrandCommand command) {
-        if (!commandQueue.offer(command)) {
-            LOGGER.warn("Command {} cannot be accepted by strand {} because it is processing another command", command, strand);
+    public void dispose() {
+        disposed = true;
+        signal();
+    }
+
+    /**
+     * Requests a run of the lifecycle. Signals arriving while the lifecycle is running are not lost: they cause one more
+     * pass before the lifecycle goes idle. Once the strand is finished, the counter is never reset, so no further
+     * lifecycle runs are scheduled.
+     */
+    private void signal() {
+        if (pendingSignals.getAndIncrement() == 0) {
+            scheduler.cycleExecutor().execute(this::lifecycle);
         }
     }
 
     private void lifecycle() {
+        int missed = 1;
+        while (true) {
+            boolean changed;
+            do {
+                changed = cycle();
+            } while (changed && !isTerminated());
+
+            if (isTerminated()) {
+                terminate();
+                return;
+            }
+
+            missed = pendingSignals.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs one cycle of the strand state machine.
+     *
+     * @return whether something changed (state, block, children) or a command was consumed during the cycle. In this
+     * case another cycle has to be run, as the new situation might require further actions.
+     */
+    private boolean cycle() {
         // FIXME refactor in a more maintainable way, after tests are complete!
-        boolean finished = false;
-        while (!finished) {
+        synchronized (cycleLock) {
+            long changeCountBefore = changeCount;
+            if (isTerminated()) {
+                return false;
+            }
 
-            synchronized (cycleLock) {
-                if (actualState() == ExecutorState.FINISHED) {
-                    finished = true;
-                    continue;
-                }
-                /* remove finished children */
-                if (hasChildren() && actualState() == ExecutorState.WAITING_FOR_CHILDREN) {
-                    childExecutors.stream().filter(c -> c.getActualState() == FINISHED).forEach(this::removeChildExecutor);
-                }
+            if (actualState() == ExecutorState.QUEUED && admit()) {
+                LOGGER.debug("[{}] admitted by its parallel block", strand);
+                run(queuedCommand);
+                queuedCommand = null;
+            }
 
-                /* if has children then the state can only be WAITING or IDLE*/
-                if (hasChildren() && actualState() != ExecutorState.WAITING_FOR_CHILDREN && actualState() != ExecutorState.IDLE) {
-                    publishError(exception(StrandExecutorException.class, "[{}] inconsistent state! There are children, so current state can only be IDLE or WAITING FOR CHILDREN, pausing! Current state is {}", strand, actualState()));
-                    updateState(ExecutorState.IDLE);
+            if (actualState() == ExecutorState.RUNNING_LEAF) {
+                /* commands are kept in the mailbox until the leaf completes */
+                Result result = leafResult.getAndSet(null);
+                if (result == null) {
+                    return false;
                 }
-
-                if (hasChildren()) {
-                    boolean allPaused = childExecutors.stream().map(StrandExecutor::getActualState).allMatch(PAUSED::equals);
-                    if (allPaused && actualState() != ExecutorState.IDLE) {
-                        LOGGER.debug("[{}] paused because all children are paused", strand);
-                        updateState(ExecutorState.IDLE);
-                    } else if (!allPaused && actualState() != ExecutorState.WAITING_FOR_CHILDREN) {
-                        LOGGER.debug("[{}] has some non-paused children. Setting the state to waiting", strand);
-                        updateState(ExecutorState.WAITING_FOR_CHILDREN);
-                    }
+                completeLeaf(result);
+                if (actualState() == ExecutorState.FINISHED) {
+                    return true;
                 }
+            }
 
-                StrandCommand commandToExecute = commandQueue.poll();
+            /* remove finished children */
+            if (hasChildren() && actualState() == ExecutorState.WAITING_FOR_CHILDREN) {
+                childExecutors.stream().filter(c -> c.getActualState() == FINISHED).forEach(this::removeChildExecutor);
+            }
 
-                if (commandToExecute == StrandCommand.PAUSE) {
-                    pause();
-                }
+            /* if has children then the state can only be WAITING, IDLE or QUEUED (after stepping into a parallel block) */
+            if (hasChildren() && actualState() != ExecutorState.WAITING_FOR_CHILDREN && actualState() != ExecutorState.IDLE && actualState() != ExecutorState.QUEUED) {
+                publishError(exception(StrandExecutorException.class, "[{}] inconsistent state! There are children, so current state can only be IDLE or WAITING FOR CHILDREN, pausing! Current state is {}", strand, actualState()));
+                updateState(ExecutorState.IDLE);
+            }
 
-                if (commandToExecute == StrandCommand.SKIP) {
-                    if (hasChildren()) {
-                        publishError(new RejectedCommandException(commandToExecute, "[{}] has children so skipping is not allowed", strand));
-                    } else {
-                        moveNext();
-                    }
+            if (hasChildren() && actualState() != ExecutorState.QUEUED) {
+                boolean allPaused = childExecutors.stream().allMatch(ConcurrentStrandExecutor::isSettledInPause);
+                if (allPaused && actualState() != ExecutorState.IDLE) {
+                    LOGGER.debug("[{}] paused because all children are paused", strand);
+                    updateState(ExecutorState.IDLE);
+                } else if (!allPaused && actualState() != ExecutorState.WAITING_FOR_CHILDREN) {
+                    LOGGER.debug("[{}] has some non-paused children. Setting the state to waiting", strand);
+                    updateState(ExecutorState.WAITING_FOR_CHILDREN);
                 }
+            }
 
-                if (commandToExecute == StrandCommand.STEP_INTO) {
-                    if (hasChildren()) {
-                        publishError(new RejectedCommandException(commandToExecute, "[{}] has children so step into is not allowed", strand));
+            /* settled before polling the command, so that it is checked against the allowed commands of the new state */
+            if (actualState() == ExecutorState.WAITING_FOR_CHILDREN) {
+                if (!hasChildren()) {
+                    if (lastCommand == RESUME) {
+                        updateState(ExecutorState.RESUMING);
                     } else {
-                        stepInto();
+                        updateState(ExecutorState.IDLE);
                     }
+                    moveNext();
                 }
+            }
 
-                if (commandToExecute == STEP_OVER && hasChildren()) {
-                    publishError(new RejectedCommandException(commandToExecute, "[{}] has children so step over is not allowed", strand));
+            if (actualState() == ExecutorState.STEPPING_OVER) {
+                if (!structure.isDescendantOf(actualBlock(), currentStepOverSource)) {
+                    // Stepping over has finished the subtree of the block that initiate it.. finishing
+                    updateState(ExecutorState.IDLE);
+                    currentStepOverSource = null;
                 }
+            }
 
-                if (commandToExecute == STEP_OVER) {
-                    currentStepOverSource = actualBlock();
-                }
+            CommandMailbox.PendingCommand pendingCommand = commandMailbox.poll();
+            RejectedCommandException rejection = pendingCommand == null ? null : rejectionOf(pendingCommand.command());
+            if (rejection != null) {
+                publishError(rejection);
+            }
+            /* a rejected command is not executed at all */
+            StrandCommand commandToExecute = pendingCommand == null || rejection != null ? null : pendingCommand.command();
 
-                if (commandToExecute == STEP_OVER || commandToExecute == RESUME) {
+            if (commandToExecute == StrandCommand.PAUSE) {
+                pause();
+            }
 
-                    if (structure.isParallel(actualBlock()) && hasChildren()) {
-                        updateState(ExecutorState.WAITING_FOR_CHILDREN);
-                        LOGGER.debug("[{}] instructing children to RESUME", strand);
-                        childExecutors.forEach(child -> child.instruct(RESUME));
-                    } else {
-                        if (commandToExecute == STEP_OVER) {
-                            updateState(ExecutorState.STEPPING_OVER);
-                        } else {
-                            updateState(ExecutorState.RESUMING);
-                        }
-                    }
-                }
+            if (commandToExecute == StrandCommand.SKIP) {
+                moveNext();
+            }
 
-                if (actualState() == ExecutorState.WAITING_FOR_CHILDREN) {
-                    if (!hasChildren()) {
-                        if (lastCommand == RESUME) {
-                            updateState(ExecutorState.RESUMING);
-                        } else {
-                            updateState(ExecutorState.IDLE);
-                        }
-                        moveNext();
-                    }
-                }
+            if (commandToExecute == StrandCommand.STEP_INTO) {
+                stepInto();
+            }
 
-                if (actualState() == ExecutorState.STEPPING_OVER) {
-                    // FIXME potential performance bottleneck #isDescendantOf is very slow
-                    if (!structure.isDescendantOf(actualBlock(), currentStepOverSource)) {
-                        // Stepping over has finished the subtree of the block that initiate it.. finishing
-                        updateState(ExecutorState.IDLE);
-                        currentStepOverSource = null;
-                    }
+            if (commandToExecute == STEP_OVER) {
+                currentStepOverSource = actualBlock();
+            }
+
+            /* a queued strand keeps its place in the line */
+            if ((commandToExecute == STEP_OVER || commandToExecute == RESUME) && actualState() != ExecutorState.QUEUED) {
+                if (admit()) {
+                    run(commandToExecute);
+                } else {
+                    LOGGER.debug("[{}] queued until its parallel block admits it", strand);
+                    queuedCommand = commandToExecute;
+                    updateState(ExecutorState.QUEUED);
                 }
+            }
 
-                if (actualState() == ExecutorState.RESUMING || actualState() == ExecutorState.STEPPING_OVER) {
-
-                    if (isLeaf(actualBlock())) {
-                        LOGGER.debug("[{}] executing {}", strand, actualBlock());
-                        Result result = leafExecutor.execute(actualBlock());
-                        if (result == Result.SUCCESS) {
-                            moveNext();
-                        } else {
-                            LOGGER.warn("[{}] execution of {} returned {}. Pausing strand", strand, actualBlock(), result);
-                            updateState(ExecutorState.IDLE);
-                        }
-                    } else if (structure.isParallel(actualBlock())) {
-                        for (Block child : structure.childrenOf(actualBlock())) {
-                            StrandExecutor childExecutor = createChildStrandExecutor(child);
-                            childExecutor.instruct(RESUME);
-                        }
-                        LOGGER.debug("[{}] waiting for children strand to finish", strand);
-                        updateState(ExecutorState.WAITING_FOR_CHILDREN);
-                    } else {
-                        // Sequential block, moving into
-                        moveIntoFirstChild();
+            if (actualState() == ExecutorState.RESUMING || actualState() == ExecutorState.STEPPING_OVER) {
+
+                if (isLeaf(actualBlock())) {
+                    startLeaf(actualBlock());
+                } else if (structure.isParallel(actualBlock())) {
+                    ConcurrencyLimit childrenLimit = ConcurrencyLimit.of(structure.maxConcurrencyOf(actualBlock()));
+                    for (Block child : structure.childrenOf(actualBlock())) {
+                        StrandExecutor childExecutor = createChildStrandExecutor(child, childrenLimit);
+                        childExecutor.instruct(RESUME);
                     }
+                    LOGGER.debug("[{}] waiting for children strand to finish", strand);
+                    updateState(ExecutorState.WAITING_FOR_CHILDREN);
+                } else {
+                    // Sequential block, moving into
+                    moveIntoFirstChild();
                 }
+            }
 
-                if (commandToExecute != null) {
-                    lastCommand = commandToExecute;
-                    LOGGER.debug("[{}] consumed command {}", strand, commandToExecute);
-                    lastCommandSink.onNext(commandToExecute);
-                }
+            if (commandToExecute != null) {
+                lastCommand = commandToExecute;
+                LOGGER.debug("[{}] consumed command {}", strand, commandToExecute);
+                pendingCommand.accept();
+            } else if (pendingCommand != null) {
+                LOGGER.debug("[{}] rejected command {}", strand, pendingCommand.command());
+                pendingCommand.reject(rejection.getMessage());
             }
+            if (pendingCommand != null) {
+                lastCommandSink.onNext(pendingCommand.command());
+            }
+
+            return pendingCommand != null || changeCount != changeCountBefore;
+        }
+    }
+
+    /**
+     * @return the reason why the given command cannot be executed in the actual situation of the strand or null if it
+     * is allowed
+     */
+    private RejectedCommandException rejectionOf(StrandCommand command) {
+        if (hasChildren() && (command == SKIP || command == STEP_INTO || command == STEP_OVER)) {
+            return new RejectedCommandException(command, "[{}] has children so {} is not allowed", strand, command);
+        }
+        if (!allowedCommands.get().contains(command)) {
+            return new RejectedCommandException(command, "[{}] {} is not allowed while {} at {}, allowed commands are {}", strand, command, actualState(), actualBlock(), allowedCommands.get());
+        }
+        return null;
+    }
+
+    /**
+     * Starts running as instructed by the given command (RESUME or STEP_OVER)
+     */
+    private void run(StrandCommand command) {
+        if (structure.isParallel(actualBlock()) && hasChildren()) {
+            updateState(ExecutorState.WAITING_FOR_CHILDREN);
+            LOGGER.debug("[{}] instructing children to RESUME", strand);
+            childExecutors.forEach(child -> child.instruct(RESUME));
+        } else if (command == STEP_OVER) {
+            updateState(ExecutorState.STEPPING_OVER);
+        } else {
+            updateState(ExecutorState.RESUMING);
+        }
+    }
+
+    /**
+     * @return whether the strand holds a slot of its concurrency limit, asking for one if not. If none is free, the
+     * strand is signalled as soon as one is handed over to it.
+     */
+    private boolean admit() {
+        if (!admitted) {
+            admitted = concurrencyLimit.admit(this, this::signal);
+        }
+        return admitted;
+    }
 
-            cycleSleep();
+    private boolean isTerminated() {
+        return disposed || actualState() == ExecutorState.FINISHED;
+    }
+
+    /**
+     * Completes all the streams of a finished or disposed strand. Runs once, in the last lifecycle: once terminated, the
+     * pending signals are never reset so that no further lifecycle is scheduled.
+     */
+    private void terminate() {
+        synchronized (cycleLock) {
+            if (actualState() == ExecutorState.FINISHED) {
+                LOGGER.debug("Executor for strand {} is finished", strand);
+                commandMailbox.close("strand " + strand.id() + " is finished");
+            } else {
+                LOGGER.debug("Executor for strand {} is disposed", strand);
+                commandMailbox.close("strand " + strand.id() + " is disposed");
+                childExecutors.forEach(StrandExecutor::dispose);
+            }
+            metrics.strandStateChanged(runStateFrom(actualState()), null);
+            concurrencyLimit.release(this);
+            lastCommandSink.onComplete();
+            stateSink.onComplete();
+            blockSink.onComplete();
+            errorSink.onComplete();
+            childExecutorsSink.onComplete();
         }
+    }
 
-        LOGGER.debug("Executor for strand {} is finished", strand);
-        executor.shutdown();
+    private void startLeaf(Block leaf) {
+        LOGGER.debug("[{}] executing {}", strand, leaf);
+        stateBeforeLeaf = actualState();
+        updateState(ExecutorState.RUNNING_LEAF);
+        scheduler.leafExecutor().execute(() -> {
+            Result result = Result.FAILED;
+            long start = System.nanoTime();
+            traceRecorder.leafStarted(strand, leaf);
+            try {
+                result = leafExecutor.execute(leaf);
+            } finally {
+                traceRecorder.leafFinished(strand, leaf, result);
+                metrics.leafExecuted(leaf, System.nanoTime() - start);
+                leafResult.set(result);
+                signal();
+            }
+        });
+    }
+
+    private void completeLeaf(Result result) {
+        if (result == Result.SUCCESS) {
+            updateState(stateBeforeLeaf);
+            moveNext();
+        } else {
+            LOGGER.warn("[{}] execution of {} returned {}. Pausing strand", strand, actualBlock(), result);
+            updateState(ExecutorState.IDLE);
+        }
+        stateBeforeLeaf = null;
     }
 
     private void pause() {
@@ -265,7 +449,8 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
         }
 
         if (structure.isParallel(actualBlock())) {
-            structure.childrenOf(actualBlock()).forEach(this::createChildStrandExecutor);
+            ConcurrencyLimit childrenLimit = ConcurrencyLimit.of(structure.maxConcurrencyOf(actualBlock()));
+            structure.childrenOf(actualBlock()).forEach(child -> createChildStrandExecutor(child, childrenLimit));
         } else {
             moveIntoFirstChild();
         }
@@ -294,9 +479,10 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
         }
     }
 
-    private StrandExecutor createChildStrandExecutor(Block childBlock) {
+    private StrandExecutor createChildStrandExecutor(Block childBlock, ConcurrencyLimit childrenLimit) {
         Strand childStrand = strandFactory.createChildStrand(strand);
-        StrandExecutor childExecutor = strandExecutorFactory.createStrandExecutor(childStrand, structure.substructure(childBlock));
+        StrandExecutor childExecutor = strandExecutorFactory.createStrandExecutor(childStrand, structure.substructure(childBlock), childrenLimit);
+        childExecutor.getStateStream().subscribe(childState -> signal());
         addChildExecutor(childExecutor);
         LOGGER.debug("[{}] created child strand {}", strand, childStrand);
         return childExecutor;
@@ -311,25 +497,38 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
     }
 
     private void updateChildrenExecutors(ImmutableList<StrandExecutor> newChildren) {
+        changeCount++;
         childExecutors = newChildren;
-        childExecutorsSink.onNext(childExecutors);
         updateAllowedCommands();
+        childExecutorsSink.onNext(childExecutors);
     }
 
     private void updateActualBlock(Block newBlock) {
         LOGGER.debug("[{}] block = {}", strand, newBlock);
         // TODO Should we complete the stream if the newBlock is null? (strand execution finished)
-        actualBlock.set(newBlock);
-        blockSink.onNext(newBlock);
+        if (!Objects.equals(actualBlock.getAndSet(newBlock), newBlock)) {
+            changeCount++;
+            traceRecorder.cursorMoved(strand, newBlock);
+        }
+        /* allowed commands first, so that they are up to date when subscribers receive the update */
         updateAllowedCommands();
+        blockSink.onNext(newBlock);
     }
 
     private void updateState(ExecutorState newState) {
         LOGGER.debug("[{}] state = {}", strand, newState);
         // TODO Should we complete the stream if the new state is FINISHED?
-        actualState.set(newState);
-        stateSink.onNext(runStateFrom(newState));
+        ExecutorState previousState = actualState.getAndSet(newState);
+        if (previousState != newState) {
+            changeCount++;
+            metrics.strandStateChanged(previousState == null ? null : runStateFrom(previousState), runStateFrom(newState));
+        }
+        if (previousState == ExecutorState.QUEUED && newState != ExecutorState.QUEUED && !admitted) {
+            /* e.g. paused while waiting: leave the line */
+            concurrencyLimit.release(this);
+        }
         updateAllowedCommands();
+        stateSink.onNext(runStateFrom(newState));
     }
 
     private void updateAllowedCommands() {
@@ -351,6 +550,7 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
                 }
                 break;
             case RUNNING:
+            case QUEUED:
                 builder.add(PAUSE);
                 break;
         }
@@ -379,6 +579,11 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
         return lastCommandStream;
     }
 
+    @Override
+    public boolean hasPendingCommands() {
+        return commandMailbox.hasPending();
+    }
+
     @Override
     public Strand getStrand() {
         return strand;
@@ -454,28 +659,13 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
         errorSink.onNext(error);
     }
 
-    private Scheduler publishingScheduler(String suffix) {
-        return Schedulers.newSingle("strand-exec-" + strand.id() + "-" + suffix);
-    }
-
     /**
-     * Tweak this parameters will improve the performances a lot. Possibly to be externalized to be configurable...
+     * A freshly created (or instructed) child is still PAUSED until it processes its command. It must not be taken for
+     * paused in this case, otherwise the parent would flip to paused for a moment. The pending commands are checked
+     * first, as they are only released once the resulting state is visible.
      */
-    private void cycleSleep() {
-        try {
-            switch (actualState()) {
-                case WAITING_FOR_CHILDREN:
-                    Thread.sleep(EXECUTOR_SLEEP_MS_WAITING_FOR_CHILDREN);
-                    break;
-                case IDLE:
-                    Thread.sleep(EXECUTOR_SLEEP_MS_IDLE);
-                    break;
-                default:
-                    Thread.sleep(EXECUTOR_SLEEP_MS_DEFAULT);
-            }
-        } catch (InterruptedException e) {
-            throw exception(IllegalStateException.class, "Strand {} thread interrupted!", strand.id(), e);
-        }
+    private static boolean isSettledInPause(StrandExecutor executor) {
+        return !executor.hasPendingCommands() && executor.getActualState() == PAUSED;
     }
 
     private static RunState runStateFrom(ExecutorState state) {
@@ -489,6 +679,8 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
                 return PAUSED;
             case FINISHED:
                 return FINISHED;
+            case QUEUED:
+                return RunState.QUEUED;
         }
         throw exception(IllegalArgumentException.class, "Strand state {} cannot be mapped to a RunState", state);
     }
@@ -502,7 +694,8 @@ public class ConcurrentStrandExecutor implements StrandExecutor {
         RUNNING_LEAF,
         RESUMING,
         FINISHED,
-        WAITING_FOR_CHILDREN;
+        WAITING_FOR_CHILDREN,
+        QUEUED;
     }
 
     @Override
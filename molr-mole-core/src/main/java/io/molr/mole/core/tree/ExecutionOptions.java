@@ -0,0 +1,126 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.BlockTiming;
+import io.molr.mole.core.metrics.MoleMetrics;
+import io.molr.mole.core.trace.TraceRecorder;
+import io.molr.mole.core.tree.tracking.Tracker;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The optional collaborators of the execution of a mission instance, which are handed down from the
+ * {@link TreeMissionExecutor} to its {@link StrandExecutorFactory} and to each {@link ConcurrentStrandExecutor}. All of
+ * them have a default: the shared {@link StrandScheduler} and {@link MoleMetrics}, a disabled {@link TraceRecorder} and
+ * a timing tracker created by the mission executor itself.
+ */
+public final class ExecutionOptions {
+
+    private final StrandScheduler strandScheduler;
+    private final MoleMetrics metrics;
+    private final TraceRecorder traceRecorder;
+    private final Tracker<BlockTiming> timingTracker;
+    private final ConcurrencyLimit concurrencyLimit;
+
+    private ExecutionOptions(StrandScheduler strandScheduler, MoleMetrics metrics, TraceRecorder traceRecorder, Tracker<BlockTiming> timingTracker, ConcurrencyLimit concurrencyLimit) {
+        this.strandScheduler = strandScheduler;
+        this.metrics = metrics;
+        this.traceRecorder = traceRecorder;
+        this.timingTracker = timingTracker;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    public static ExecutionOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the scheduler on which the strand executors run their cycles and leaves
+     */
+    public StrandScheduler strandScheduler() {
+        return strandScheduler;
+    }
+
+    public MoleMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the recorder of the strand creations, cursor moves, leaf executions and commands
+     */
+    public TraceRecorder traceRecorder() {
+        return traceRecorder;
+    }
+
+    /**
+     * @return the timings of the blocks, usually the {@link io.molr.mole.core.tree.tracking.BlockTimingTracker} to
+     * which the leaf executor pushes the timings of the leaves. If empty, the mission executor creates its own.
+     */
+    public Optional<Tracker<BlockTiming>> timingTracker() {
+        return Optional.ofNullable(timingTracker);
+    }
+
+    /**
+     * @return the limit by which a strand has to be admitted before it runs, only set for the children of a parallel
+     * block
+     */
+    ConcurrencyLimit concurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    ExecutionOptions withConcurrencyLimit(ConcurrencyLimit newConcurrencyLimit) {
+        return new ExecutionOptions(strandScheduler, metrics, traceRecorder, timingTracker, requireNonNull(newConcurrencyLimit, "concurrencyLimit must not be null"));
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionOptions{" +
+                "strandScheduler=" + strandScheduler +
+                ", metrics=" + metrics +
+                ", traceRecorder=" + traceRecorder +
+                ", timingTracker=" + timingTracker +
+                ", concurrencyLimit=" + concurrencyLimit +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private StrandScheduler strandScheduler = StrandSchedulers.shared();
+        private MoleMetrics metrics = MoleMetrics.shared();
+        private TraceRecorder traceRecorder = TraceRecorder.disabled();
+        private Tracker<BlockTiming> timingTracker;
+
+        private Builder() {
+            /* use the static factory method */
+        }
+
+        public Builder strandScheduler(StrandScheduler strandScheduler) {
+            this.strandScheduler = requireNonNull(strandScheduler, "strandScheduler must not be null");
+            return this;
+        }
+
+        public Builder metrics(MoleMetrics metrics) {
+            this.metrics = requireNonNull(metrics, "metrics must not be null");
+            return this;
+        }
+
+        public Builder traceRecorder(TraceRecorder traceRecorder) {
+            this.traceRecorder = requireNonNull(traceRecorder, "traceRecorder must not be null");
+            return this;
+        }
+
+        public Builder timingTracker(Tracker<BlockTiming> timingTracker) {
+            this.timingTracker = requireNonNull(timingTracker, "timingTracker must not be null");
+            return this;
+        }
+
+        public ExecutionOptions build() {
+            return new ExecutionOptions(strandScheduler, metrics, traceRecorder, timingTracker, ConcurrencyLimit.unlimited());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.*;
+import io.molr.commons.domain.MissionStateDelta.StrandUpdate;
+import io.molr.mole.core.tree.tracking.Tracker;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Incremental model of the {@link MissionState} of a tree mission. Strands and blocks only get marked as dirty when
+ * they change. At most once per publishing period, the dirty ones are read and the changes are published as a
+ * {@link MissionStateDelta}. The complete {@link MissionState} is only built when somebody asks for it and is then
+ * cached until the next change.
+ * <p>
+ * This class is thread safe
+ */
+public class IncrementalMissionState {
+
+    private final Object lock = new Object();
+
+    private final Block rootBlock;
+    private final Tracker<Result> resultTracker;
+    private final Tracker<RunState> runStateTracker;
+    private final Tracker<BlockTiming> timingTracker;
+    private final StrandFactory strandFactory;
+    private final Scheduler scheduler;
+    private final long publishingPeriodMs;
+
+    private final Set<StrandExecutor> dirtyStrands = ConcurrentHashMap.newKeySet();
+    private final Set<Block> dirtyResults = ConcurrentHashMap.newKeySet();
+    private final Set<Block> dirtyRunStates = ConcurrentHashMap.newKeySet();
+    private final Set<Block> dirtyTimings = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final DirectProcessor<MissionStateDelta> deltasSink = DirectProcessor.create();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    /* The current state, all guarded by lock */
+    private final Map<Strand, StrandUpdate> strands = new LinkedHashMap<>();
+    private final Map<String, Result> blockResults = new LinkedHashMap<>();
+    private final Map<String, RunState> blockRunStates = new LinkedHashMap<>();
+    private final Map<String, BlockTiming> blockTimings = new LinkedHashMap<>();
+    private Result result;
+    private MissionState snapshot;
+    /* nothing is published before the first flush, as the root strand is not known yet */
+    private boolean published;
+    private boolean completed;
+
+    public IncrementalMissionState(Block rootBlock, Tracker<Result> resultTracker, Tracker<RunState> runStateTracker, Tracker<BlockTiming> timingTracker, StrandFactory strandFactory, Scheduler scheduler, Duration publishingPeriod) {
+        this.rootBlock = requireNonNull(rootBlock, "rootBlock must not be null");
+        this.resultTracker = requireNonNull(resultTracker, "resultTracker must not be null");
+        this.runStateTracker = requireNonNull(runStateTracker, "runStateTracker must not be null");
+        this.timingTracker = requireNonNull(timingTracker, "timingTracker must not be null");
+        this.strandFactory = requireNonNull(strandFactory, "strandFactory must not be null");
+        this.scheduler = requireNonNull(scheduler, "scheduler must not be null");
+        this.publishingPeriodMs = requireNonNull(publishingPeriod, "publishingPeriod must not be null").toMillis();
+
+        synchronized (lock) {
+            this.result = resultTracker.resultFor(rootBlock);
+            resultTracker.blockResults().forEach((block, blockResult) -> blockResults.put(block.id(), blockResult));
+            runStateTracker.blockResults().forEach((block, runState) -> blockRunStates.put(block.id(), runState));
+            timingTracker.blockResults().forEach((block, timing) -> blockTimings.put(block.id(), timing));
+        }
+
+        subscriptions.add(resultTracker.updatedBlocks().subscribe(block -> markDirty(dirtyResults, block)));
+        subscriptions.add(runStateTracker.updatedBlocks().subscribe(block -> markDirty(dirtyRunStates, block)));
+        subscriptions.add(timingTracker.updatedBlocks().subscribe(block -> markDirty(dirtyTimings, block)));
+    }
+
+    /**
+     * Starts following the changes of the given strand executor
+     */
+    public void track(StrandExecutor executor) {
+        markDirty(dirtyStrands, executor);
+        subscriptions.add(executor.getBlockStream().subscribe(any -> markDirty(dirtyStrands, executor)));
+        subscriptions.add(executor.getStateStream().subscribe(any -> markDirty(dirtyStrands, executor)));
+    }
+
+    /**
+     * Publishes the pending changes right away and completes the streams. Subscribers arriving afterwards receive the
+     * final state and the completion. Nothing is tracked anymore.
+     *
+     * @param strands the strand executors to read one last time, as their tracking might not have started yet
+     */
+    public void complete(Iterable<StrandExecutor> strands) {
+        subscriptions.dispose();
+        strands.forEach(dirtyStrands::add);
+        flush();
+        synchronized (lock) {
+            if (!completed) {
+                completed = true;
+                deltasSink.onComplete();
+            }
+        }
+    }
+
+    /**
+     * The changes of the mission state. Each subscriber first receives a snapshot of the current state, followed by the
+     * deltas. No change can be lost or received twice in between. Subscribers arriving before anything was published
+     * receive the first publication, which is a snapshot.
+     */
+    public Flux<MissionStateDelta> deltas() {
+        return followFrom(this::snapshotDelta, delta -> delta);
+    }
+
+    /**
+     * The complete mission states. Each subscriber first receives the current state, followed by a new state for each
+     * change. Each state is built only once, independently of the number of subscribers.
+     */
+    public Flux<MissionState> states() {
+        return followFrom(this::snapshot, delta -> snapshot());
+    }
+
+    /**
+     * Returns the current complete {@link MissionState}. It is built only if something changed since the last call.
+     */
+    public MissionState snapshot() {
+        synchronized (lock) {
+            if (snapshot == null) {
+                MissionState.Builder builder = MissionState.builder(result);
+                strands.values().forEach(s -> builder.add(s.strand(), s.runState(), s.cursorBlockId().orElse(null), s.parent().orElse(null), s.allowedCommands()));
+                blockResults.forEach(builder::blockResult);
+                blockRunStates.forEach(builder::blockRunState);
+                blockTimings.forEach(builder::blockTiming);
+                snapshot = builder.build();
+            }
+            return snapshot;
+        }
+    }
+
+    private MissionStateDelta snapshotDelta() {
+        synchronized (lock) {
+            MissionStateDelta.Builder builder = MissionStateDelta.snapshotBuilder(result);
+            strands.values().forEach(builder::strand);
+            blockResults.forEach(builder::blockResult);
+            blockRunStates.forEach(builder::blockRunState);
+            blockTimings.forEach(builder::blockTiming);
+            return builder.build();
+        }
+    }
+
+    private <T> Flux<T> followFrom(Supplier<T> initial, Function<MissionStateDelta, T> onDelta) {
+        return Flux.create(sink -> {
+            /* the same lock as the flush: the initial value and the subscription to the changes are atomic */
+            synchronized (lock) {
+                if (published) {
+                    sink.next(initial.get());
+                }
+                if (completed) {
+                    sink.complete();
+                    return;
+                }
+                Disposable subscription = deltasSink.subscribe(delta -> sink.next(onDelta.apply(delta)), sink::error, sink::complete);
+                sink.onDispose(subscription);
+            }
+        });
+    }
+
+    private <T> void markDirty(Set<T> dirtySet, T item) {
+        dirtySet.add(item);
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, publishingPeriodMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        /* reset first: anything marked from now on schedules a new flush */
+        flushScheduled.set(false);
+        synchronized (lock) {
+            if (completed) {
+                return;
+            }
+            Result newResult = resultTracker.resultFor(rootBlock);
+            MissionStateDelta.Builder builder = MissionStateDelta.builder(newResult);
+            boolean changed = newResult != result;
+            result = newResult;
+
+            changed |= drain(dirtyStrands, executor -> {
+                Strand strand = executor.getStrand();
+                Block cursor = executor.getActualBlock();
+                StrandUpdate update = StrandUpdate.of(strand, strandFactory.parentOf(strand).orElse(null),
+                        executor.getActualState(), cursor == null ? null : cursor.id(), executor.getAllowedCommands());
+                if (!update.equals(strands.put(strand, update))) {
+                    builder.strand(update);
+                    return true;
+                }
+                return false;
+            });
+            changed |= drain(dirtyResults, block -> updateBlock(blockResults, block, resultTracker.resultFor(block), builder::blockResult));
+            changed |= drain(dirtyRunStates, block -> updateBlock(blockRunStates, block, runStateTracker.resultFor(block), builder::blockRunState));
+            changed |= drain(dirtyTimings, block -> updateBlock(blockTimings, block, timingTracker.resultFor(block), builder::blockTiming));
+
+            if (!changed) {
+                return;
+            }
+            snapshot = null;
+            if (published) {
+                deltasSink.onNext(builder.build());
+            } else {
+                published = true;
+                deltasSink.onNext(snapshotDelta());
+            }
+        }
+    }
+
+    private static <T> boolean updateBlock(Map<String, T> values, Block block, T value, BiConsumer<String, T> changes) {
+        if (Objects.equals(values.put(block.id(), value), value)) {
+            return false;
+        }
+        changes.accept(block.id(), value);
+        return true;
+    }
+
+    private static <T> boolean drain(Set<T> dirtySet, Predicate<T> update) {
+        boolean changed = false;
+        for (Iterator<T> iterator = dirtySet.iterator(); iterator.hasNext(); ) {
+            T item = iterator.next();
+            iterator.remove();
+            changed |= update.test(item);
+        }
+        return changed;
+    }
+
+}
@@ -5,9 +5,13 @@ import io.molr.commons.domain.MissionInput;
 import io.molr.commons.domain.Result;
 import io.molr.commons.domain.RunState;
 import io.molr.mole.core.tree.tracking.Bucket;
+import io.molr.mole.core.tree.tracking.TimingBucket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 import static io.molr.commons.domain.Result.FAILED;
 import static io.molr.commons.domain.Result.SUCCESS;
 import static io.molr.commons.domain.RunState.FINISHED;
@@ -16,15 +20,37 @@ import static io.molr.commons.domain.RunState.RUNNING;
 public abstract class LeafExecutor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LeafExecutor.class);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final TimingBucket UNTIMED = new TimingBucket() {
+        @Override
+        public void started(Block leaf, long nanoTime) {
+            /* not timed */
+        }
+
+        @Override
+        public void finished(Block leaf, long nanoTime, long cpuNanos) {
+            /* not timed */
+        }
+    };
 
     private final Bucket<Result> resultBucket;
     private final Bucket<RunState> runStateBucket;
+    private final TimingBucket timingBucket;
     private final MissionInput input;
     private final MissionOutputCollector output;
 
     protected LeafExecutor(Bucket<Result> resultBucket, Bucket<RunState> runStateBucket, MissionInput input, MissionOutputCollector output) {
+        this(resultBucket, runStateBucket, UNTIMED, input, output);
+    }
+
+    /**
+     * Creates an executor which also pushes the start and end of each leaf (with the CPU time of the executing thread)
+     * to the given bucket
+     */
+    protected LeafExecutor(Bucket<Result> resultBucket, Bucket<RunState> runStateBucket, TimingBucket timingBucket, MissionInput input, MissionOutputCollector output) {
         this.resultBucket = resultBucket;
         this.runStateBucket = runStateBucket;
+        this.timingBucket = timingBucket;
         this.input = input;
         this.output = output;
     }
@@ -39,13 +65,26 @@ public abstract class LeafExecutor {
     }
 
     public final Result execute(Block block) {
+        long cpuStart = currentThreadCpuNanos();
+        timingBucket.started(block, System.nanoTime());
         runStateBucket.push(block, RUNNING);
         Result result = tryCatchExecute(block);
+        timingBucket.finished(block, System.nanoTime(), currentThreadCpuNanos() - cpuStart);
         resultBucket.push(block, result);
         runStateBucket.push(block, FINISHED);
         return result;
     }
 
+    /**
+     * @return the CPU time of the current thread, 0 if it cannot be measured (e.g. disabled or on a virtual thread)
+     */
+    private static long currentThreadCpuNanos() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+            return 0;
+        }
+        return Math.max(THREADS.getCurrentThreadCpuTime(), 0);
+    }
+
 
     public final Result tryCatchExecute(Block block) {
         try {
@@ -1,17 +1,56 @@
 package io.molr.mole.core.tree;
 
 import io.molr.commons.domain.*;
+import io.molr.mole.core.trace.TraceRecorder;
+import io.molr.mole.core.utils.MissionOutputEvents;
+import io.molr.mole.core.utils.MissionStateDeltas;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface MissionExecutor {
 
     Flux<MissionState> states();
 
+    /**
+     * The changes of the mission state: a snapshot first, followed by deltas. Executors which can track their changes
+     * shall override this method, by default the deltas are computed from consecutive {@link #states()}.
+     */
+    default Flux<MissionStateDelta> stateDeltas() {
+        return MissionStateDeltas.deltasOf(states());
+    }
+
     Flux<MissionOutput> outputs();
 
+    /**
+     * The output of the mission as individual values: the actual values first, followed by the new ones. By default
+     * the events are computed from consecutive {@link #outputs()}, executors which collect the events directly shall
+     * override this method.
+     */
+    default Flux<MissionOutputEvent> outputEvents() {
+        return MissionOutputEvents.eventsOf(outputs());
+    }
+
     Flux<MissionRepresentation> representations();
 
-    void instruct(Strand strand, StrandCommand command);
+    /**
+     * The recorder of the events of the execution, disabled unless the executor was configured to record them
+     */
+    default TraceRecorder traceRecorder() {
+        return TraceRecorder.disabled();
+    }
+
+    /**
+     * Posts the given command to the given strand. The command is posted on calling this method, whether the result is
+     * subscribed or not: it emits the response of the strand, once the command is accepted (applied) or rejected.
+     */
+    Mono<CommandResponse> instruct(Strand strand, StrandCommand command);
+
+    Mono<CommandResponse> instructRoot(StrandCommand command);
 
-    void instructRoot(StrandCommand command);
+    /**
+     * Stops the mission instance and releases everything the executor owns (threads, subscriptions). All the streams
+     * complete, after emitting the last state and output. Executors do the same by themselves when the mission
+     * finishes, so disposing is only required to abandon a mission which did not finish. Disposing twice has no effect.
+     */
+    void dispose();
 }
@@ -2,6 +2,7 @@ package io.molr.mole.core.tree;
 
 import io.molr.commons.domain.Block;
 import io.molr.commons.domain.MissionOutput;
+import io.molr.commons.domain.MissionOutputEvent;
 import io.molr.commons.domain.Placeholder;
 import reactor.core.publisher.Flux;
 
@@ -14,4 +15,16 @@ public interface MissionOutputCollector {
     <T> void put(Block block, Placeholder<T> placeholder, T value);
 
     Flux<MissionOutput> asStream();
+
+    /**
+     * The individual values in the order they were put. Each subscriber first receives the actual values (the last value
+     * put for each block and name), followed by the new ones.
+     */
+    Flux<MissionOutputEvent> events();
+
+    /**
+     * Marks the end of the output: the streams complete, after the final output is published. Values put afterwards
+     * are ignored.
+     */
+    void complete();
 }
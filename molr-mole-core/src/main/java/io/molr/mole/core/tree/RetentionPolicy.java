@@ -0,0 +1,131 @@
+package io.molr.mole.core.tree;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Defines how long an {@link AbstractJavaMole} keeps its mission instances. Only finished instances are evicted, the
+ * running and paused ones (e.g. not started yet or stopped by a failure) are always kept. A finished instance is evicted
+ * when one of the limits is exceeded: their executor is released and only an archived record of
+ * their final state and output is kept, which still answers the stream requests for the instance (with one element).
+ * The archive itself is limited in size, the oldest records are dropped first.
+ * <p>
+ * The time limits are checked about once per second.
+ */
+public final class RetentionPolicy {
+
+    /**
+     * Keeps the last 100 finished instances and archives the 1000 evicted before them
+     */
+    public static final RetentionPolicy DEFAULT = builder().maxFinishedInstances(100).build();
+
+    private final int maxFinishedInstances;
+    private final Duration finishedTimeToLive;
+    private final Duration maxAge;
+    private final int maxArchivedInstances;
+
+    private RetentionPolicy(Builder builder) {
+        this.maxFinishedInstances = builder.maxFinishedInstances;
+        this.finishedTimeToLive = builder.finishedTimeToLive;
+        this.maxAge = builder.maxAge;
+        this.maxArchivedInstances = builder.maxArchivedInstances;
+    }
+
+    /**
+     * A policy that never evicts any instance, as moles did before they had a policy
+     */
+    public static RetentionPolicy keepAll() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the number of finished instances kept, the ones which finished first are evicted beyond it
+     */
+    public int maxFinishedInstances() {
+        return maxFinishedInstances;
+    }
+
+    /**
+     * @return how long an instance is kept after it finished
+     */
+    public Optional<Duration> finishedTimeToLive() {
+        return Optional.ofNullable(finishedTimeToLive);
+    }
+
+    /**
+     * @return how long a finished instance is kept after it was instantiated, no matter when it finished
+     */
+    public Optional<Duration> maxAge() {
+        return Optional.ofNullable(maxAge);
+    }
+
+    /**
+     * @return the number of archived records of evicted instances kept
+     */
+    public int maxArchivedInstances() {
+        return maxArchivedInstances;
+    }
+
+    boolean hasTimeLimits() {
+        return finishedTimeToLive != null || maxAge != null;
+    }
+
+    @Override
+    public String toString() {
+        return "RetentionPolicy{" +
+                "maxFinishedInstances=" + maxFinishedInstances +
+                ", finishedTimeToLive=" + finishedTimeToLive +
+                ", maxAge=" + maxAge +
+                ", maxArchivedInstances=" + maxArchivedInstances +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private int maxFinishedInstances = Integer.MAX_VALUE;
+        private Duration finishedTimeToLive;
+        private Duration maxAge;
+        private int maxArchivedInstances = 1000;
+
+        private Builder() {
+            /* use the static factory method */
+        }
+
+        public Builder maxFinishedInstances(int maxFinishedInstances) {
+            this.maxFinishedInstances = requireNotNegative(maxFinishedInstances, "maxFinishedInstances");
+            return this;
+        }
+
+        public Builder finishedTimeToLive(Duration finishedTimeToLive) {
+            this.finishedTimeToLive = requireNonNull(finishedTimeToLive, "finishedTimeToLive must not be null");
+            return this;
+        }
+
+        public Builder maxAge(Duration maxAge) {
+            this.maxAge = requireNonNull(maxAge, "maxAge must not be null");
+            return this;
+        }
+
+        public Builder maxArchivedInstances(int maxArchivedInstances) {
+            this.maxArchivedInstances = requireNotNegative(maxArchivedInstances, "maxArchivedInstances");
+            return this;
+        }
+
+        public RetentionPolicy build() {
+            return new RetentionPolicy(this);
+        }
+
+        private static int requireNotNegative(int value, String name) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " must not be negative, but was " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package io.molr.mole.core.tree;
 
 import io.molr.commons.domain.Block;
+import io.molr.commons.domain.CommandResponse;
 import io.molr.commons.domain.RunState;
 import io.molr.commons.domain.Strand;
 import io.molr.commons.domain.StrandCommand;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Set;
 
 public interface StrandExecutor {
 
-    void instruct(StrandCommand command);
+    /**
+     * Sends the command to the strand, without blocking. Commands are never dropped: they are processed in the order
+     * they arrive, after the ones sent before (apart from bursts which are coalesced, e.g. a {@link StrandCommand#PAUSE}
+     * cancels a {@link StrandCommand#RESUME} still waiting to be processed). A command which is not among the
+     * {@link #getAllowedCommands()} at the time it is processed is rejected and has no effect.
+     *
+     * @return the response of the strand, emitted once the command is processed (or cancelled)
+     */
+    Mono<CommandResponse> instruct(StrandCommand command);
 
     Flux<RunState> getStateStream();
 
@@ -24,6 +34,18 @@ public interface StrandExecutor {
 
     Set<StrandCommand> getAllowedCommands();
 
+    /**
+     * Whether some commands were accepted by {@link #instruct(StrandCommand)} but are not processed yet. While this is
+     * the case, the actual state might be about to change.
+     */
+    boolean hasPendingCommands();
+
     Strand getStrand();
 
+    /**
+     * Stops the strand and its children and completes their streams. A strand also completes its streams by itself, when
+     * it finishes. Disposing a finished strand has no effect.
+     */
+    void dispose();
+
 }
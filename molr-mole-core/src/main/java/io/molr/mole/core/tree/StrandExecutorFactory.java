@@ -22,14 +22,26 @@ public class StrandExecutorFactory {
     private final Object strandExecutorLock = new Object();
     private final StrandFactory strandFactory;
     private final LeafExecutor leafExecutor;
+    private final ExecutionOptions options;
     // FIXME #1 change to interface!
     private final ConcurrentHashMap<Strand, ConcurrentStrandExecutor> strandExecutors;
     private final EmitterProcessor<StrandExecutor> newStrandsSink;
     private final Flux<StrandExecutor> newStrandsStream;
+    /* guarded by strandExecutorLock */
+    private boolean disposed;
 
     public StrandExecutorFactory(StrandFactory strandFactory, LeafExecutor leafExecutor) {
+        this(strandFactory, leafExecutor, ExecutionOptions.defaults());
+    }
+
+    /**
+     * Creates a factory whose strand executors all run on the {@link StrandScheduler} of the given options and report
+     * to its metrics and trace recorder
+     */
+    public StrandExecutorFactory(StrandFactory strandFactory, LeafExecutor leafExecutor, ExecutionOptions options) {
         this.strandFactory = requireNonNull(strandFactory, "strandFactory cannot be null");
         this.leafExecutor = requireNonNull(leafExecutor, "leafExecutor cannot be null");
+        this.options = requireNonNull(options, "options cannot be null");
         this.strandExecutors = new ConcurrentHashMap<>();
 
         newStrandsSink = EmitterProcessor.create();
@@ -37,13 +49,26 @@ public class StrandExecutorFactory {
     }
 
     public StrandExecutor createStrandExecutor(Strand strand, TreeStructure structure) {
+        return createStrandExecutor(strand, structure, ConcurrencyLimit.unlimited());
+    }
+
+    /**
+     * Creates the executor of a child strand of a parallel block, which only runs when admitted by the given limit
+     */
+    StrandExecutor createStrandExecutor(Strand strand, TreeStructure structure, ConcurrencyLimit concurrencyLimit) {
         synchronized (strandExecutorLock) {
             if (strandExecutors.containsKey(strand)) {
                 throw new IllegalArgumentException(strand + " is already associated with an executor");
             }
-            ConcurrentStrandExecutor strandExecutor = new ConcurrentStrandExecutor(strand, structure.rootBlock(), structure, strandFactory, this, leafExecutor);
+            options.traceRecorder().strandCreated(strand, strandFactory.parentOf(strand).orElse(null), structure.rootBlock());
+            ConcurrentStrandExecutor strandExecutor = new ConcurrentStrandExecutor(strand, structure.rootBlock(), structure, strandFactory, this, leafExecutor, options.withConcurrencyLimit(concurrencyLimit));
             strandExecutors.put(strand, strandExecutor);
-            newStrandsSink.onNext(strandExecutor);
+            if (disposed) {
+                /* a parent strand entering a parallel block while being disposed */
+                strandExecutor.dispose();
+            } else {
+                newStrandsSink.onNext(strandExecutor);
+            }
             return strandExecutor;
         }
     }
@@ -73,6 +98,18 @@ public class StrandExecutorFactory {
         return newStrandsStream;
     }
 
+    /**
+     * Disposes all the strand executors created so far and completes the {@link #newStrandsStream()}. Executors created
+     * afterwards are disposed right away.
+     */
+    public void dispose() {
+        synchronized (strandExecutorLock) {
+            disposed = true;
+            strandExecutors.values().forEach(StrandExecutor::dispose);
+            newStrandsSink.onComplete();
+        }
+    }
+
     /**
      * DO NOT USE! jUST FOR DEBUGGING FIXME remove this method
      */
@@ -53,7 +53,7 @@ public class StrandFactoryImpl implements StrandFactory {
                 return Optional.empty();
             }
 
-            if (childToParent.values().contains(strand) || childToParent.keySet().contains(strand)) {
+            if (childToParent.containsKey(strand) || parentToChildren.containsKey(strand)) {
                 return Optional.ofNullable(childToParent.get(strand));
             }
 
@@ -0,0 +1,32 @@
+package io.molr.mole.core.tree;
+
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Provides the threads on which {@link StrandExecutor}s do their work. Implementations are meant to be shared between
+ * all the strands (and missions), so that the number of threads does not depend on the number of strands.
+ *
+ * @see StrandSchedulers
+ */
+public interface StrandScheduler {
+
+    /**
+     * The executor on which the lifecycle cycles of the strands are run. Cycles are short and never block, so a small
+     * bounded pool is sufficient.
+     */
+    Executor cycleExecutor();
+
+    /**
+     * The executor on which the leaves are executed. As leaves contain user code that might block, this executor shall
+     * not be shared with the {@link #cycleExecutor()} unless it can grow (or uses virtual threads).
+     */
+    Executor leafExecutor();
+
+    /**
+     * The scheduler on which the streams of the strand executors are published
+     */
+    Scheduler publishingScheduler();
+
+}
@@ -0,0 +1,162 @@
+package io.molr.mole.core.tree;
+
+import io.molr.mole.core.utils.ThreadFactories;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static io.molr.commons.util.Exceptions.exception;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Factory methods for the most common {@link StrandScheduler}s
+ */
+public final class StrandSchedulers {
+
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private StrandSchedulers() {
+        /* Only static methods */
+    }
+
+    /**
+     * Returns the {@link StrandScheduler} shared by all the strand executors that are not explicitly configured. Cycles
+     * run on a pool sized as the number of available cores, leaves on a cached pool. All the threads are daemons.
+     */
+    public static StrandScheduler shared() {
+        return SharedHolder.SHARED;
+    }
+
+    /**
+     * Creates a new {@link StrandScheduler} whose cycles run on a fixed pool of the given size and whose leaves run on a
+     * cached pool. The threads are daemons and are never released, so the returned scheduler is meant to be shared.
+     */
+    public static StrandScheduler boundedPool(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be at least 1, but was " + poolSize);
+        }
+        ExecutorService cycles = Executors.newFixedThreadPool(poolSize, ThreadFactories.namedDaemonThreadFactory("strand-cycle-%d"));
+        ExecutorService leaves = Executors.newCachedThreadPool(ThreadFactories.namedDaemonThreadFactory("strand-leaf-%d"));
+        Scheduler publishing = Schedulers.newParallel("strand-publish", poolSize, true);
+        return of(cycles, leaves, publishing);
+    }
+
+    /**
+     * Creates a new {@link StrandScheduler} whose cycles and leaves run on two work-stealing {@link ForkJoinPool}s of
+     * the given parallelism. A cycle started from another cycle (e.g. a parallel block starting its children strands) is
+     * forked onto the deque of the worker which runs the parent, from which idle workers steal it, so that wide and deep
+     * parallel trees are spread over all the workers without any further thread. As the leaves share a fixed number of
+     * threads as well, this scheduler is meant for missions whose leaves compute rather than block: a blocking leaf
+     * keeps its worker until it returns. The threads are daemons and are never released, so the returned scheduler is
+     * meant to be shared.
+     */
+    public static StrandScheduler forkJoin(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, but was " + parallelism);
+        }
+        /* async mode, as the tasks are never joined */
+        ForkJoinPool cycles = new ForkJoinPool(parallelism, ThreadFactories.namedDaemonForkJoinWorkerThreadFactory("strand-fj-cycle-%d"), null, true);
+        ForkJoinPool leaves = new ForkJoinPool(parallelism, ThreadFactories.namedDaemonForkJoinWorkerThreadFactory("strand-fj-leaf-%d"), null, true);
+        Scheduler publishing = Schedulers.newParallel("strand-publish", parallelism, true);
+        return of(new ForkingExecutor(cycles), new ForkingExecutor(leaves), publishing);
+    }
+
+    /**
+     * Creates a new {@link StrandScheduler} that runs everything (cycles, leaves and publishing) on virtual threads.
+     * Virtual threads are only available from java 21 onwards, on older JVMs this method throws an {@link
+     * UnsupportedOperationException}.
+     */
+    public static StrandScheduler virtualThreads() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return of(executor, executor, Schedulers.fromExecutorService(executor));
+    }
+
+    /**
+     * Creates a {@link StrandScheduler} from the given executors and scheduler. The caller stays responsible of their
+     * lifecycle.
+     */
+    public static StrandScheduler of(Executor cycleExecutor, Executor leafExecutor, Scheduler publishingScheduler) {
+        return new SimpleStrandScheduler(cycleExecutor, leafExecutor, publishingScheduler);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw exception(UnsupportedOperationException.class, "Virtual threads are not supported by this JVM ({})", System.getProperty("java.version"), e);
+        }
+    }
+
+    private static final class SharedHolder {
+        private static final StrandScheduler SHARED = boundedPool(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Forks the tasks submitted from a worker of the pool onto the deque of that worker, submits the others to the pool
+     */
+    private static final class ForkingExecutor implements Executor {
+
+        private final ForkJoinPool pool;
+
+        private ForkingExecutor(ForkJoinPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Thread current = Thread.currentThread();
+            if (current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == pool) {
+                ForkJoinTask.adapt(() -> runReportingFailures(command)).fork();
+            } else {
+                pool.execute(command);
+            }
+        }
+
+        /**
+         * A forked task keeps its exception until it is joined, which never happens: it is reported as by
+         * {@link ForkJoinPool#execute(Runnable)} instead
+         */
+        private static void runReportingFailures(Runnable command) {
+            try {
+                command.run();
+            } catch (RuntimeException | Error e) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+    }
+
+    private static final class SimpleStrandScheduler implements StrandScheduler {
+
+        private final Executor cycleExecutor;
+        private final Executor leafExecutor;
+        private final Scheduler publishingScheduler;
+
+        private SimpleStrandScheduler(Executor cycleExecutor, Executor leafExecutor, Scheduler publishingScheduler) {
+            this.cycleExecutor = requireNonNull(cycleExecutor, "cycleExecutor must not be null");
+            this.leafExecutor = requireNonNull(leafExecutor, "leafExecutor must not be null");
+            this.publishingScheduler = requireNonNull(publishingScheduler, "publishingScheduler must not be null");
+        }
+
+        @Override
+        public Executor cycleExecutor() {
+            return cycleExecutor;
+        }
+
+        @Override
+        public Executor leafExecutor() {
+            return leafExecutor;
+        }
+
+        @Override
+        public Scheduler publishingScheduler() {
+            return publishingScheduler;
+        }
+    }
+}
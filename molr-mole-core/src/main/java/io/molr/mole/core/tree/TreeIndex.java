@@ -0,0 +1,142 @@
+package io.molr.mole.core.tree;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.MissionRepresentation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Navigation index of a {@link MissionRepresentation}, built once and immutable afterwards. Each block gets a dense
+ * ordinal in pre-order (parent before children, children in their order), all the navigation information is then kept
+ * in primitive arrays indexed by this ordinal. This allows to answer parent, next block and depth queries in constant
+ * time.
+ */
+final class TreeIndex {
+
+    static final int NONE = -1;
+
+    private final Block[] blocks;
+    private final ImmutableMap<Block, Integer> ordinals;
+    private final ImmutableSet<Block> allBlocks;
+    private final int[] parent;
+    private final int[] siblingIndex;
+    private final int[] next;
+    private final int[] depth;
+    /* exclusive end of the subtree in pre-order: the descendants of i are the ordinals in (i, subtreeEnd[i]) */
+    private final int[] subtreeEnd;
+
+    private TreeIndex(MissionRepresentation representation) {
+        requireNonNull(representation, "representation must not be null");
+        int size = representation.allBlocks().size();
+        this.blocks = new Block[size];
+        this.parent = new int[size];
+        this.siblingIndex = new int[size];
+        this.next = new int[size];
+        this.depth = new int[size];
+        this.subtreeEnd = new int[size];
+
+        ImmutableMap.Builder<Block, Integer> ordinalsBuilder = ImmutableMap.builderWithExpectedSize(size);
+        ImmutableSet.Builder<Block> allBlocksBuilder = ImmutableSet.builderWithExpectedSize(size);
+
+        /* iterative pre-order visit, so that deep trees do not overflow the stack */
+        Deque<int[]> stack = new ArrayDeque<>();
+        int count = 0;
+        blocks[0] = representation.rootBlock();
+        parent[0] = NONE;
+        siblingIndex[0] = 0;
+        depth[0] = 0;
+        stack.push(new int[]{0, 0});
+        ordinalsBuilder.put(blocks[0], 0);
+        allBlocksBuilder.add(blocks[0]);
+        count++;
+
+        while (!stack.isEmpty()) {
+            int[] frame = stack.peek();
+            int ordinal = frame[0];
+            List<Block> children = representation.childrenOf(blocks[ordinal]);
+            if (frame[1] >= children.size()) {
+                subtreeEnd[ordinal] = count;
+                stack.pop();
+                continue;
+            }
+
+            int childSiblingIndex = frame[1]++;
+            int child = count++;
+            blocks[child] = children.get(childSiblingIndex);
+            parent[child] = ordinal;
+            siblingIndex[child] = childSiblingIndex;
+            depth[child] = depth[ordinal] + 1;
+            ordinalsBuilder.put(blocks[child], child);
+            allBlocksBuilder.add(blocks[child]);
+            stack.push(new int[]{child, 0});
+        }
+
+        this.ordinals = ordinalsBuilder.build();
+        this.allBlocks = allBlocksBuilder.build();
+
+        /* parents come before their children in pre-order, so next[parent] is already known */
+        next[0] = NONE;
+        for (int i = 1; i < size; i++) {
+            int siblingCount = representation.childrenOf(blocks[parent[i]]).size();
+            if (siblingIndex[i] < siblingCount - 1) {
+                next[i] = subtreeEnd[i];
+            } else {
+                next[i] = next[parent[i]];
+            }
+        }
+    }
+
+    static TreeIndex of(MissionRepresentation representation) {
+        return new TreeIndex(representation);
+    }
+
+    int size() {
+        return blocks.length;
+    }
+
+    /**
+     * Returns the ordinal of the given block or {@link #NONE} if the block is not part of the indexed tree
+     */
+    int ordinalOf(Block block) {
+        Integer ordinal = ordinals.get(block);
+        return ordinal == null ? NONE : ordinal;
+    }
+
+    Block blockAt(int ordinal) {
+        return blocks[ordinal];
+    }
+
+    int parentOf(int ordinal) {
+        return parent[ordinal];
+    }
+
+    int siblingIndexOf(int ordinal) {
+        return siblingIndex[ordinal];
+    }
+
+    int nextOf(int ordinal) {
+        return next[ordinal];
+    }
+
+    int depthOf(int ordinal) {
+        return depth[ordinal];
+    }
+
+    int subtreeEndOf(int ordinal) {
+        return subtreeEnd[ordinal];
+    }
+
+    /**
+     * All the blocks of the tree, iterating in pre-order
+     */
+    ImmutableSet<Block> allBlocks() {
+        return allBlocks;
+    }
+
+}
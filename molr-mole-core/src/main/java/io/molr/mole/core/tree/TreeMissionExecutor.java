@@ -1,52 +1,71 @@
 package io.molr.mole.core.tree;
 
 import io.molr.commons.domain.*;
+import io.molr.mole.core.metrics.MoleMetrics;
+import io.molr.mole.core.trace.TraceRecorder;
+import io.molr.mole.core.tree.tracking.BlockTimingTracker;
 import io.molr.mole.core.tree.tracking.Tracker;
-import io.molr.mole.core.tree.tracking.TreeTracker;
-import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.molr.commons.domain.StrandCommand.STEP_INTO;
+import static java.util.Objects.requireNonNull;
 
 
 /**
  * Keeps track of the state of the execution of one mission instance. It assumes a tree of execution blocks, can execute
- * them and keeps track of cursor positions within strands.
+ * them and keeps track of cursor positions within strands. When the root strand finishes (or the executor is disposed),
+ * all the streams complete after publishing the final state and output.
  */
 public class TreeMissionExecutor implements MissionExecutor {
 
+    private static final Duration STATE_PUBLISHING_PERIOD = Duration.ofMillis(100);
+
+    private final IncrementalMissionState missionState;
     private final Flux<MissionState> states;
+    private final Flux<MissionStateDelta> stateDeltas;
     private final StrandFactoryImpl strandFactory;
     private final StrandExecutorFactory strandExecutorFactory;
     private final MissionOutputCollector outputCollector;
     private final Tracker<Result> resultTracker;
-    private final TreeTracker<RunState> runStateTracker;
+    private final Tracker<RunState> runStateTracker;
     private final MissionRepresentation representation;
+    private final MoleMetrics metrics;
+    private final TraceRecorder traceRecorder;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    public TreeMissionExecutor(TreeStructure treeStructure, LeafExecutor leafExecutor, Tracker<Result> resultTracker, MissionOutputCollector outputCollector, Tracker<RunState> runStateTracker) {
+        this(treeStructure, leafExecutor, resultTracker, outputCollector, runStateTracker, ExecutionOptions.defaults());
+    }
 
-    public TreeMissionExecutor(TreeStructure treeStructure, LeafExecutor leafExecutor, Tracker<Result> resultTracker, MissionOutputCollector outputCollector, TreeTracker<RunState> runStateTracker) {
+    /**
+     * @param options the scheduler, metrics, timing tracker and trace recorder (see {@link #traceRecorder()}) of this
+     *                mission instance
+     */
+    public TreeMissionExecutor(TreeStructure treeStructure, LeafExecutor leafExecutor, Tracker<Result> resultTracker, MissionOutputCollector outputCollector, Tracker<RunState> runStateTracker, ExecutionOptions options) {
+        requireNonNull(options, "options must not be null");
         this.runStateTracker = runStateTracker;
+        this.metrics = options.metrics();
+        this.traceRecorder = options.traceRecorder();
         strandFactory = new StrandFactoryImpl();
-        strandExecutorFactory = new StrandExecutorFactory(strandFactory, leafExecutor);
+        strandExecutorFactory = new StrandExecutorFactory(strandFactory, leafExecutor, options);
         this.outputCollector = outputCollector;
         this.resultTracker = resultTracker;
         this.representation = treeStructure.missionRepresentation();
 
-        EmitterProcessor<Object> statesSink = EmitterProcessor.create();
-        strandExecutorFactory.newStrandsStream().subscribe(newExecutor -> {
-            newExecutor.getBlockStream().subscribe(any -> statesSink.onNext(new Object()));
-            newExecutor.getStateStream().subscribe(any -> statesSink.onNext(new Object()));
-        });
-        states = statesSink.map(signal -> gatherMissionState())
-                .cache(1)
-                .sample(Duration.ofMillis(100))
-                .publishOn(Schedulers.elastic());
+        Tracker<BlockTiming> timingTracker = options.timingTracker().orElseGet(() -> BlockTimingTracker.create(representation));
+        missionState = new IncrementalMissionState(representation.rootBlock(), resultTracker, runStateTracker, timingTracker, strandFactory, Schedulers.parallel(), STATE_PUBLISHING_PERIOD);
+        strandExecutorFactory.newStrandsStream().subscribe(missionState::track);
+        states = missionState.states().publishOn(Schedulers.elastic()).doOnNext(state -> metrics.itemEmitted("states"));
+        stateDeltas = missionState.deltas().publishOn(Schedulers.elastic()).doOnNext(delta -> metrics.itemEmitted("stateDeltas"));
 
         Strand rootStrand = strandFactory.rootStrand();
         StrandExecutor rootExecutor = strandExecutorFactory.createStrandExecutor(rootStrand, treeStructure);
+        rootExecutor.getStateStream().filter(RunState.FINISHED::equals).subscribe(finished -> complete());
 
         if (!treeStructure.isLeaf(treeStructure.rootBlock())) {
             rootExecutor.instruct(STEP_INTO);
@@ -68,9 +87,19 @@ public class TreeMissionExecutor implements MissionExecutor {
         return states;
     }
 
+    @Override
+    public Flux<MissionStateDelta> stateDeltas() {
+        return stateDeltas;
+    }
+
     @Override
     public Flux<MissionOutput> outputs() {
-        return outputCollector.asStream();
+        return outputCollector.asStream().doOnNext(output -> metrics.itemEmitted("outputs"));
+    }
+
+    @Override
+    public Flux<MissionOutputEvent> outputEvents() {
+        return outputCollector.events().publishOn(Schedulers.elastic()).doOnNext(event -> metrics.itemEmitted("outputEvents"));
     }
 
     @Override
@@ -78,34 +107,37 @@ public class TreeMissionExecutor implements MissionExecutor {
         return Flux.just(this.representation);
     }
 
-    private MissionState gatherMissionState() {
-        Result rootResult = resultTracker.resultFor(representation.rootBlock());
-        MissionState.Builder builder = MissionState.builder(rootResult);
-        for (StrandExecutor executor : strandExecutorFactory.allStrandExecutors()) {
-            RunState runState = executor.getActualState();
-            Block cursor = executor.getActualBlock();
-            Optional<Strand> parent = strandFactory.parentOf(executor.getStrand());
-            if (parent.isPresent()) {
-                builder.add(executor.getStrand(), runState, cursor, parent.get(), executor.getAllowedCommands());
-            } else {
-                builder.add(executor.getStrand(), runState, cursor, executor.getAllowedCommands());
-            }
-        }
+    @Override
+    public Mono<CommandResponse> instruct(Strand strand, StrandCommand command) {
+        StrandExecutor executor = strandExecutorFactory.getStrandExecutorFor(strand);
+        return executor.instruct(command);
+    }
 
-        resultTracker.blockResults().entrySet().forEach(e -> builder.blockResult(e.getKey(), e.getValue()));
-        runStateTracker.blockResults().entrySet().forEach(e -> builder.blockRunState(e.getKey(), e.getValue()));
-        return builder.build();
+    @Override
+    public Mono<CommandResponse> instructRoot(StrandCommand command) {
+        return instruct(strandFactory.rootStrand(), command);
     }
 
     @Override
-    public void instruct(Strand strand, StrandCommand command) {
-        StrandExecutor executor = strandExecutorFactory.getStrandExecutorFor(strand);
-        executor.instruct(command);
+    public void dispose() {
+        complete();
     }
 
+    /**
+     * @return the recorder of the execution of this mission instance, which records nothing unless one was given on
+     * creation. Its events can be exported with {@link io.molr.mole.core.trace.ChromeTraceWriter}.
+     */
     @Override
-    public void instructRoot(StrandCommand command) {
-        instruct(strandFactory.rootStrand(), command);
+    public TraceRecorder traceRecorder() {
+        return traceRecorder;
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            strandExecutorFactory.dispose();
+            missionState.complete(strandExecutorFactory.allStrandExecutors());
+            outputCollector.complete();
+        }
     }
 
 
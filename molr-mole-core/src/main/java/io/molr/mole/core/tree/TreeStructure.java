@@ -1,10 +1,17 @@
 package io.molr.mole.core.tree;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.molr.commons.domain.Block;
 import io.molr.commons.domain.ImmutableMissionRepresentation;
 import io.molr.commons.domain.MissionRepresentation;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -12,35 +19,86 @@ import java.util.stream.Collectors;
 
 /**
  * TODO #1 consider merging with MissionRepresentation
+ * <p>
+ * All the navigation queries are answered in constant time from a {@link TreeIndex} built when the structure is
+ * created. Substructures are views on the same index, restricted to the pre-order interval of their root block.
  */
 public class TreeStructure {
 
     private final MissionRepresentation representation;
     private final Set<Block> parallelBlocks;
+    /* the maximum number of concurrently running children of the parallel blocks which have one */
+    private final Map<Block, Integer> maxConcurrencies;
+    private final TreeIndex index;
+    /* ordinal of the deepest parallel ancestor of each block, TreeIndex.NONE if there is none */
+    private final int[] nearestParallelAncestor;
+    /* the ordinal of the root of this structure, 0 unless this is a substructure */
+    private final int rootOrdinal;
+    private final int endOrdinal;
+    private final Set<Block> allBlocks;
+    /* lazily built for substructures */
+    private volatile MissionRepresentation subrepresentation;
 
     public TreeStructure(MissionRepresentation representation, Set<Block> parallelBlocks) {
+        this(representation, parallelBlocks, ImmutableMap.of());
+    }
+
+    /**
+     * @param maxConcurrencies the maximum number of children running at the same time, for the parallel blocks which
+     *                         limit it
+     */
+    public TreeStructure(MissionRepresentation representation, Set<Block> parallelBlocks, Map<Block, Integer> maxConcurrencies) {
+        maxConcurrencies.forEach((block, maxConcurrency) -> {
+            if (!parallelBlocks.contains(block)) {
+                throw new IllegalArgumentException("Block " + block + " limits its concurrency but is not parallel");
+            }
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("The max concurrency of " + block + " must be at least 1, but was " + maxConcurrency);
+            }
+        });
         this.representation = representation;
         this.parallelBlocks = parallelBlocks;
+        this.maxConcurrencies = ImmutableMap.copyOf(maxConcurrencies);
+        this.index = TreeIndex.of(representation);
+        this.nearestParallelAncestor = nearestParallelAncestorsOf(index, parallelBlocks);
+        this.rootOrdinal = 0;
+        this.endOrdinal = index.size();
+        this.allBlocks = index.allBlocks();
+        this.subrepresentation = representation;
+    }
+
+    private TreeStructure(TreeStructure parent, int rootOrdinal) {
+        this.representation = parent.representation;
+        this.parallelBlocks = parent.parallelBlocks;
+        this.maxConcurrencies = parent.maxConcurrencies;
+        this.index = parent.index;
+        this.nearestParallelAncestor = parent.nearestParallelAncestor;
+        this.rootOrdinal = rootOrdinal;
+        this.endOrdinal = index.subtreeEndOf(rootOrdinal);
+        this.allBlocks = new SubtreeBlocks();
+    }
+
+    private static int[] nearestParallelAncestorsOf(TreeIndex index, Set<Block> parallelBlocks) {
+        int[] nearest = new int[index.size()];
+        Arrays.fill(nearest, TreeIndex.NONE);
+        /* pre-order: the parent is always resolved before its children */
+        for (int i = 1; i < index.size(); i++) {
+            int parent = index.parentOf(i);
+            nearest[i] = parallelBlocks.contains(index.blockAt(parent)) ? parent : nearest[parent];
+        }
+        return nearest;
     }
 
     /**
-     * Returns a new {@link TreeStructure} with the specified {@link Block} as root. It will not return a view of this
-     * structure but a completely new one.
-     * <p>
-     * NOTE: The current implementation is not optimized for performance...
+     * Returns a {@link TreeStructure} with the specified {@link Block} as root. The returned structure is a view on
+     * this one: nothing is copied, it shares the same index and is only restricted to the subtree of the block.
      */
     public TreeStructure substructure(Block block) {
-        if (!representation.allBlocks().contains(block)) {
-            throw new IllegalArgumentException("Block " + block + " is not part of this structure");
+        int ordinal = ordinalOrThrow(block);
+        if (ordinal == rootOrdinal) {
+            return this;
         }
-
-        ImmutableMissionRepresentation.Builder builder = ImmutableMissionRepresentation.builder(block);
-        addChildren(block, null, builder);
-
-        MissionRepresentation subrepresentation = builder.build();
-        Set<Block> subparallelBlocks = parallelBlocks.stream()
-                .filter(subrepresentation.allBlocks()::contains).collect(Collectors.toSet());
-        return new TreeStructure(subrepresentation, subparallelBlocks);
+        return new TreeStructure(this, ordinal);
     }
 
     /**
@@ -53,83 +111,136 @@ public class TreeStructure {
      * TODO ?? think if it makes sense to have a VisitorInstance that knows how to navigate from a block onwards..
      */
     public Optional<Block> nextBlock(Block actualBlock) {
-        Optional<Block> maybeParent = parentOf(actualBlock);
-        if (!maybeParent.isPresent()) {
-            /* Root block has no next */
+        int ordinal = ordinalOf(actualBlock);
+        if (ordinal == TreeIndex.NONE || ordinal == rootOrdinal) {
             return Optional.empty();
         }
-        Block parent = maybeParent.get();
-
-        List<Block> siblings = childrenOf(parent);
-        if (isLastSibling(actualBlock, siblings)) {
-            return nextBlock(parent);
-        }
-
-        return nextSiblingOf(actualBlock, siblings);
+        /* the next block is either still in this subtree or after its end */
+        return blockAt(index.nextOf(ordinal));
     }
 
     public List<Block> childrenOf(Block block) {
+        if (!contains(block)) {
+            return ImmutableList.of();
+        }
         return representation.childrenOf(block);
     }
 
     public boolean isParallel(Block block) {
-        return parallelBlocks.contains(block);
+        return contains(block) && parallelBlocks.contains(block);
+    }
+
+    /**
+     * Returns the maximum number of children of the specified parallel block which run at the same time,
+     * {@link Integer#MAX_VALUE} if it is not limited
+     */
+    public int maxConcurrencyOf(Block block) {
+        if (!isParallel(block)) {
+            return Integer.MAX_VALUE;
+        }
+        return maxConcurrencies.getOrDefault(block, Integer.MAX_VALUE);
     }
 
     public boolean isLeaf(Block block) {
-        return representation.isLeaf(block);
+        return childrenOf(block).isEmpty();
     }
 
     public Block rootBlock() {
-        return representation.rootBlock();
+        return index.blockAt(rootOrdinal);
     }
 
+    /**
+     * Returns all the blocks of this structure. The iteration order is parent before children (pre-order)
+     */
     public Set<Block> allBlocks() {
-        return representation.allBlocks();
+        return allBlocks;
     }
 
     public boolean contains(Block block) {
-        return allBlocks().contains(block);
+        return ordinalOf(block) != TreeIndex.NONE;
+    }
+
+    /**
+     * Returns the depth of the specified block in this structure, the root block having depth 0
+     */
+    public int depthOf(Block block) {
+        return index.depthOf(ordinalOrThrow(block)) - index.depthOf(rootOrdinal);
+    }
+
+    /**
+     * Returns whether or not one of the ancestors of the specified block within this structure is parallel
+     */
+    public boolean hasParallelAncestor(Block block) {
+        /* ancestors have smaller ordinals, the ones in this structure are the ones not before its root */
+        return nearestParallelAncestor[ordinalOrThrow(block)] >= rootOrdinal;
     }
 
+    /**
+     * Returns the {@link MissionRepresentation} of this structure. For substructures it is built (once) on the first
+     * call.
+     */
     public MissionRepresentation missionRepresentation() {
-        return representation;
+        MissionRepresentation result = subrepresentation;
+        if (result == null) {
+            ImmutableMissionRepresentation.Builder builder = ImmutableMissionRepresentation.builder(rootBlock());
+            for (int i = rootOrdinal + 1; i < endOrdinal; i++) {
+                builder.parentToChild(index.blockAt(index.parentOf(i)), index.blockAt(i));
+            }
+            result = builder.build();
+            subrepresentation = result;
+        }
+        return result;
     }
 
     /**
-     * Determines whether or not the {@code target} is a descendant of the {@code source} block in this structure.
-     * <p>
-     * NOTE: The current implementation is not optimized for performance...
+     * Determines whether or not the {@code target} is a descendant of the {@code source} block in this structure. A
+     * block is considered a descendant of itself.
      */
     public boolean isDescendantOf(Block target, Block source) {
-        return substructure(source).allBlocks().contains(target);
+        int sourceOrdinal = ordinalOrThrow(source);
+        int targetOrdinal = ordinalOf(target);
+        return targetOrdinal >= sourceOrdinal && targetOrdinal < index.subtreeEndOf(sourceOrdinal);
     }
 
-    private void addChildren(Block child, Block parent, ImmutableMissionRepresentation.Builder builder) {
-        if (parent != null) {
-            builder.parentToChild(parent, child);
+    public Optional<Block> parentOf(Block block) {
+        int ordinal = ordinalOf(block);
+        if (ordinal == TreeIndex.NONE || ordinal == rootOrdinal) {
+            return Optional.empty();
         }
+        return Optional.of(index.blockAt(index.parentOf(ordinal)));
+    }
 
-        if (!isLeaf(child)) {
-            for (Block grandChild : childrenOf(child)) {
-                addChildren(grandChild, child, builder);
-            }
+    private Optional<Block> blockAt(int ordinal) {
+        if (ordinal < rootOrdinal || ordinal >= endOrdinal) {
+            return Optional.empty();
         }
+        return Optional.of(index.blockAt(ordinal));
     }
 
-    private boolean isLastSibling(Block actualBlock, List<Block> siblings) {
-        return siblings.indexOf(actualBlock) >= siblings.size() - 1;
+    /**
+     * Returns the ordinal of the given block or {@link TreeIndex#NONE} if the block is not part of this structure
+     */
+    private int ordinalOf(Block block) {
+        int ordinal = index.ordinalOf(block);
+        if (ordinal < rootOrdinal || ordinal >= endOrdinal) {
+            return TreeIndex.NONE;
+        }
+        return ordinal;
     }
 
-    private Optional<Block> nextSiblingOf(Block block, List<Block> siblings) {
-        if (isLastSibling(block, siblings)) {
-            return Optional.empty();
+    private int ordinalOrThrow(Block block) {
+        int ordinal = ordinalOf(block);
+        if (ordinal == TreeIndex.NONE) {
+            throw new IllegalArgumentException("Block " + block + " is not part of this structure");
         }
-        return Optional.of(siblings.get(siblings.indexOf(block) + 1));
+        return ordinal;
     }
 
-    public Optional<Block> parentOf(Block block) {
-        return representation.parentOf(block);
+    private Set<Block> parallelBlocksInStructure() {
+        if (rootOrdinal == 0) {
+            return parallelBlocks;
+        }
+        return parallelBlocks.stream().filter(this::contains).collect(Collectors.toSet());
     }
 
     @Override
@@ -137,12 +248,51 @@ public class TreeStructure {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         TreeStructure that = (TreeStructure) o;
-        return Objects.equals(representation, that.representation) &&
-                Objects.equals(parallelBlocks, that.parallelBlocks);
+        if (index == that.index && rootOrdinal == that.rootOrdinal) {
+            return true;
+        }
+        return Objects.equals(missionRepresentation(), that.missionRepresentation()) &&
+                Objects.equals(parallelBlocksInStructure(), that.parallelBlocksInStructure());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(representation, parallelBlocks);
+        return Objects.hash(missionRepresentation(), parallelBlocksInStructure());
+    }
+
+    /**
+     * The blocks of a substructure: the pre-order interval of its root in the shared index
+     */
+    private class SubtreeBlocks extends AbstractSet<Block> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Block && TreeStructure.this.contains((Block) o);
+        }
+
+        @Override
+        public Iterator<Block> iterator() {
+            return new Iterator<Block>() {
+                private int next = rootOrdinal;
+
+                @Override
+                public boolean hasNext() {
+                    return next < endOrdinal;
+                }
+
+                @Override
+                public Block next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return index.blockAt(next++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return endOrdinal - rootOrdinal;
+        }
     }
 }
@@ -16,10 +16,11 @@ public class BlockCombiner<T> implements BlockTracker<T> {
 
     private BlockCombiner(List<Flux<T>> inputs, T defaultValue, Function<Iterable<T>, T> summarizer) {
         this.result = new AtomicReference<>(defaultValue);
+        /* shared between all the subscribers, so that parents and observers do not each combine the children again */
         summary = Flux.combineLatest(inputs, objects -> {
             List<T> childResults = stream(objects).map(o -> (T) o).collect(toList());
             return summarizer.apply(childResults);
-        });
+        }).cache(1);
         summary.subscribe(this.result::set);
     }
 
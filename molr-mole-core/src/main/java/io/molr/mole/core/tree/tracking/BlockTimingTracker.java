@@ -0,0 +1,147 @@
+package io.molr.mole.core.tree.tracking;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.BlockTiming;
+import io.molr.commons.domain.MissionRepresentation;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static io.molr.commons.util.Exceptions.illegalArgumentException;
+import static io.molr.commons.util.Exceptions.illegalStateException;
+
+/**
+ * Tracks the {@link BlockTiming}s of a mission instance. The leaves are timed by the leaf executor, the inner blocks are
+ * rolled up from the leaves below them: each inner block keeps the earliest start, the latest end, the summed CPU time
+ * and the number of running leaves below it, which are updated for the ancestors of a leaf on each push. A push
+ * therefore costs O(depth).
+ * <p>
+ * The timings are offsets from the creation of the tracker. Blocks which were not executed yet have no timing:
+ * {@link #resultFor(Block)} returns null for them.
+ * <p>
+ * This class is thread safe
+ */
+public class BlockTimingTracker implements TimingBucket, Tracker<BlockTiming> {
+
+    private final Object lock = new Object();
+    private final long originNanos = System.nanoTime();
+    private final MissionRepresentation representation;
+
+    /* guarded by lock */
+    private final Map<Block, Timing> timings = new LinkedHashMap<>();
+    /* guarded by lock, the published values */
+    private final Map<Block, BlockTiming> blockTimings = new LinkedHashMap<>();
+
+    private final DirectProcessor<Block> updatedBlocks = DirectProcessor.create();
+    private final FluxSink<Block> updatedBlocksSink = updatedBlocks.sink();
+
+    private BlockTimingTracker(MissionRepresentation representation) {
+        this.representation = Objects.requireNonNull(representation, "representation must not be null");
+    }
+
+    public static BlockTimingTracker create(MissionRepresentation representation) {
+        return new BlockTimingTracker(representation);
+    }
+
+    @Override
+    public void started(Block leaf, long nanoTime) {
+        checkLeaf(leaf);
+        synchronized (lock) {
+            Timing previous = timings.get(leaf);
+            if (previous != null && previous.running > 0) {
+                throw illegalStateException("Leaf {} is already running", leaf);
+            }
+            /* a leaf executed again (e.g. after a failure) only shows its last execution, its ancestors accumulate the CPU
+            time of all of them */
+            Timing timing = new Timing();
+            timing.start = nanoTime - originNanos;
+            timing.running = 1;
+            timings.put(leaf, timing);
+            for (Optional<Block> parent = representation.parentOf(leaf); parent.isPresent(); parent = representation.parentOf(parent.get())) {
+                Timing parentTiming = timings.computeIfAbsent(parent.get(), block -> new Timing());
+                parentTiming.start = Math.min(parentTiming.start, timing.start);
+                parentTiming.running++;
+            }
+            publish(leaf);
+        }
+    }
+
+    @Override
+    public void finished(Block leaf, long nanoTime, long cpuNanos) {
+        checkLeaf(leaf);
+        synchronized (lock) {
+            Timing timing = timings.get(leaf);
+            if (timing == null || timing.running == 0) {
+                throw illegalStateException("Leaf {} is not running", leaf);
+            }
+            timing.end = nanoTime - originNanos;
+            timing.cpuNanos = cpuNanos;
+            timing.running = 0;
+            for (Optional<Block> parent = representation.parentOf(leaf); parent.isPresent(); parent = representation.parentOf(parent.get())) {
+                Timing parentTiming = timings.get(parent.get());
+                parentTiming.end = Math.max(parentTiming.end, timing.end);
+                parentTiming.cpuNanos += cpuNanos;
+                parentTiming.running--;
+            }
+            publish(leaf);
+        }
+    }
+
+    private void checkLeaf(Block block) {
+        if (!representation.isLeaf(block)) {
+            throw illegalArgumentException("Only leaves can be timed, but {} is not a leaf", block);
+        }
+    }
+
+    private void publish(Block leaf) {
+        for (Optional<Block> block = Optional.of(leaf); block.isPresent(); block = representation.parentOf(block.get())) {
+            blockTimings.put(block.get(), timings.get(block.get()).toBlockTiming());
+            updatedBlocksSink.next(block.get());
+        }
+    }
+
+    @Override
+    public BlockTiming resultFor(Block block) {
+        synchronized (lock) {
+            return blockTimings.get(block);
+        }
+    }
+
+    @Override
+    public Map<Block, BlockTiming> blockResults() {
+        synchronized (lock) {
+            return new LinkedHashMap<>(blockTimings);
+        }
+    }
+
+    @Override
+    public Flux<Block> updatedBlocks() {
+        return updatedBlocks;
+    }
+
+    /**
+     * The mutable timing of one block, all in nanoseconds since the origin of the tracker
+     */
+    private static final class Timing {
+        private long start = Long.MAX_VALUE;
+        private long end = Long.MIN_VALUE;
+        private long cpuNanos;
+        /* the number of running leaves at or below the block */
+        private int running;
+
+        private BlockTiming toBlockTiming() {
+            Duration startDuration = Duration.ofNanos(start);
+            Duration cpuTime = Duration.ofNanos(cpuNanos);
+            if (running > 0 || end == Long.MIN_VALUE) {
+                return BlockTiming.running(startDuration, cpuTime);
+            }
+            return BlockTiming.finished(startDuration, Duration.ofNanos(end), cpuTime);
+        }
+    }
+}
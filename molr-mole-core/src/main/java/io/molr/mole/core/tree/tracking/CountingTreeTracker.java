@@ -0,0 +1,243 @@
+package io.molr.mole.core.tree.tracking;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.MissionRepresentation;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+/**
+ * A {@link Tracker} for enum values (e.g. results or run states), which summarizes the values of the leaves without
+ * any reactive operators. Each inner block keeps a counter per possible value of its children. When a leaf is pushed,
+ * only the counters of its ancestors are updated, stopping as soon as the summary of an ancestor does not change. A
+ * push therefore costs at most O(depth) and does not allocate anything (apart from the optional change streams).
+ * <p>
+ * The summarizer is only called once per combination of values present among the children. It must therefore only
+ * depend on which values are present, not on their order nor how often they occur - which is the case for e.g.
+ * {@link io.molr.commons.domain.Result#summaryOf(Iterable)} and
+ * {@link io.molr.commons.domain.RunState#summaryOf(Iterable)}.
+ * <p>
+ * This class is thread safe
+ *
+ * @param <T> the type of the tracked values
+ */
+public class CountingTreeTracker<T extends Enum<T>> implements Bucket<T>, Tracker<T> {
+
+    private static final int NONE = -1;
+
+    private final Object lock = new Object();
+
+    private final T defaultValue;
+    private final T[] constants;
+    private final Block[] blocks;
+    private final Map<Block, Integer> ordinals;
+    private final int[] parent;
+    private final boolean[] leaf;
+
+    /* the ordinal of the value of each block. Written under the lock, read without */
+    private final AtomicIntegerArray values;
+    /* guarded by lock: counts[block * constants.length + value] = number of children of block having this value */
+    private final int[] counts;
+    /* guarded by lock: bit i is set if at least one child has the value with ordinal i */
+    private final int[] presentValues;
+    /* the summary for each combination of present values, computed on first use */
+    private final int[] summaries;
+    private final Function<Iterable<T>, T> summarizer;
+
+    private final DirectProcessor<Block> updatedBlocks = DirectProcessor.create();
+    private final FluxSink<Block> updatedBlocksSink = updatedBlocks.sink();
+
+    private CountingTreeTracker(MissionRepresentation representation, T defaultValue, Function<Iterable<T>, T> summarizer, Tracker<T> oldTracker) {
+        Objects.requireNonNull(representation, "representation must not be null");
+        this.defaultValue = Objects.requireNonNull(defaultValue, "defaultValue must not be null");
+        this.summarizer = Objects.requireNonNull(summarizer, "summarizer must not be null");
+        this.constants = defaultValue.getDeclaringClass().getEnumConstants();
+        if (constants.length > 16) {
+            throw new IllegalArgumentException("Only enums with up to 16 constants can be tracked, but "
+                    + defaultValue.getDeclaringClass() + " has " + constants.length);
+        }
+
+        this.blocks = preOrderBlocksOf(representation);
+        int size = blocks.length;
+        ImmutableMap.Builder<Block, Integer> ordinalsBuilder = ImmutableMap.builderWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            ordinalsBuilder.put(blocks[i], i);
+        }
+        this.ordinals = ordinalsBuilder.build();
+        this.parent = new int[size];
+        this.leaf = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = representation.parentOf(blocks[i]).map(ordinals::get).orElse(NONE);
+            leaf[i] = representation.isLeaf(blocks[i]);
+        }
+
+        this.values = new AtomicIntegerArray(size);
+        this.counts = new int[size * constants.length];
+        this.presentValues = new int[size];
+        this.summaries = new int[1 << constants.length];
+        Arrays.fill(summaries, NONE);
+
+        /* children come after their parents in pre-order, so the reverse order summarizes them bottom up */
+        for (int i = size - 1; i >= 0; i--) {
+            int value = leaf[i] ? initialValueOf(blocks[i], oldTracker).ordinal() : summaryOf(presentValues[i]);
+            values.set(i, value);
+            if (parent[i] != NONE) {
+                increment(parent[i], value);
+            }
+        }
+    }
+
+    public static <T extends Enum<T>> CountingTreeTracker<T> create(MissionRepresentation representation, T defaultValue, Function<Iterable<T>, T> summarizer) {
+        return new CountingTreeTracker<>(representation, defaultValue, summarizer, null);
+    }
+
+    /**
+     * Creates a tracker for the given representation, taking the values of the leaves from the given tracker (if it
+     * knows them)
+     */
+    public static <T extends Enum<T>> CountingTreeTracker<T> create(MissionRepresentation representation, CountingTreeTracker<T> oldTracker) {
+        return new CountingTreeTracker<>(representation, oldTracker.defaultValue, oldTracker.summarizer, oldTracker);
+    }
+
+    private static Block[] preOrderBlocksOf(MissionRepresentation representation) {
+        List<Block> preOrder = new ArrayList<>(representation.allBlocks().size());
+        Deque<Block> stack = new ArrayDeque<>();
+        stack.push(representation.rootBlock());
+        while (!stack.isEmpty()) {
+            Block block = stack.pop();
+            preOrder.add(block);
+            List<Block> children = representation.childrenOf(block);
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+        return preOrder.toArray(new Block[0]);
+    }
+
+    private T initialValueOf(Block block, Tracker<T> oldTracker) {
+        if (oldTracker != null) {
+            T oldValue = oldTracker.resultFor(block);
+            if (oldValue != null) {
+                return oldValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public void push(Block node, T result) {
+        Objects.requireNonNull(result, "result must not be null");
+        Integer ordinal = ordinals.get(node);
+        if (ordinal == null) {
+            throw new IllegalStateException("No block tracker found for block '" + node + "'.");
+        }
+        if (!leaf[ordinal]) {
+            throw new IllegalArgumentException("publishing results is only allowed for leaves.");
+        }
+
+        synchronized (lock) {
+            int block = ordinal;
+            int newValue = result.ordinal();
+            int oldValue = values.get(block);
+            while (newValue != oldValue) {
+                values.set(block, newValue);
+                updatedBlocksSink.next(blocks[block]);
+
+                int parentBlock = parent[block];
+                if (parentBlock == NONE) {
+                    return;
+                }
+                decrement(parentBlock, oldValue);
+                increment(parentBlock, newValue);
+
+                block = parentBlock;
+                oldValue = values.get(block);
+                newValue = summaryOf(presentValues[block]);
+            }
+        }
+    }
+
+    private void increment(int block, int value) {
+        if (counts[block * constants.length + value]++ == 0) {
+            presentValues[block] |= 1 << value;
+        }
+    }
+
+    private void decrement(int block, int value) {
+        if (--counts[block * constants.length + value] == 0) {
+            presentValues[block] &= ~(1 << value);
+        }
+    }
+
+    private int summaryOf(int present) {
+        int summary = summaries[present];
+        if (summary == NONE) {
+            ImmutableList.Builder<T> presentConstants = ImmutableList.builder();
+            for (int i = 0; i < constants.length; i++) {
+                if ((present & (1 << i)) != 0) {
+                    presentConstants.add(constants[i]);
+                }
+            }
+            summary = summarizer.apply(presentConstants.build()).ordinal();
+            summaries[present] = summary;
+        }
+        return summary;
+    }
+
+    @Override
+    public T resultFor(Block block) {
+        Integer ordinal = ordinals.get(block);
+        if (ordinal == null) {
+            return null;
+        }
+        return constants[values.get(ordinal)];
+    }
+
+    @Override
+    public Map<Block, T> blockResults() {
+        Map<Block, T> results = new LinkedHashMap<>();
+        for (int i = 0; i < blocks.length; i++) {
+            results.put(blocks[i], constants[values.get(i)]);
+        }
+        return results;
+    }
+
+    @Override
+    public Flux<Block> updatedBlocks() {
+        return this.updatedBlocks;
+    }
+
+    /**
+     * Emits the actual value of the given block on subscription, and then each time it changes
+     */
+    public Flux<T> resultUpdatesFor(Block block) {
+        Integer ordinal = ordinals.get(block);
+        if (ordinal == null) {
+            return Flux.error(new IllegalArgumentException("No block tracker found for block '" + block + "'."));
+        }
+        return Flux.create(sink -> {
+            /* the updates are emitted under the lock, so that no change is missed between the value and the updates */
+            synchronized (lock) {
+                sink.next(constants[values.get(ordinal)]);
+                Disposable subscription = updatedBlocks.filter(block::equals)
+                        .subscribe(changed -> sink.next(constants[values.get(ordinal)]));
+                sink.onDispose(subscription);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,14 @@
+package io.molr.mole.core.tree.tracking;
+
+import io.molr.commons.domain.Block;
+
+/**
+ * Receives the start and the end of the execution of leaves. The times are taken from {@link System#nanoTime()}.
+ */
+public interface TimingBucket {
+
+    void started(Block leaf, long nanoTime);
+
+    void finished(Block leaf, long nanoTime, long cpuNanos);
+
+}
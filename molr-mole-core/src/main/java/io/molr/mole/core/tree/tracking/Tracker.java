@@ -1,6 +1,7 @@
 package io.molr.mole.core.tree.tracking;
 
 import io.molr.commons.domain.Block;
+import reactor.core.publisher.Flux;
 
 import java.util.Map;
 
@@ -9,4 +10,10 @@ public interface Tracker<T> {
     T resultFor(Block block);
 
     Map<Block, T> blockResults();
+
+    /**
+     * Emits a block each time its value changed, after the new value is visible through {@link #resultFor(Block)}. This
+     * allows to follow the changes of the tracker without scanning all the blocks.
+     */
+    Flux<Block> updatedBlocks();
 }
@@ -2,7 +2,9 @@ package io.molr.mole.core.tree.tracking;
 
 import io.molr.commons.domain.Block;
 import io.molr.commons.domain.MissionRepresentation;
+import reactor.core.publisher.DirectProcessor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 
 import java.util.*;
 import java.util.function.Function;
@@ -19,11 +21,19 @@ public class TreeTracker<T> implements Bucket<T>, Tracker<T> {
     private final T defaultValue;
     private final Function<Iterable<T>, T> summarizer;
 
+    private final DirectProcessor<Block> updatedBlocks;
+    private final FluxSink<Block> updatedBlocksSink;
+
     private TreeTracker(Builder<T> builder) {
         this.representation = builder.representation;
         this.defaultValue = builder.defaultValue;
         this.summarizer = builder.summarizer;
         this.blockResultTrackers = builder.createBlockTrackers();
+
+        this.updatedBlocks = DirectProcessor.create();
+        /* the leaves are pushed from several threads, the sink serializes them */
+        this.updatedBlocksSink = updatedBlocks.sink();
+        blockResultTrackers.forEach((block, tracker) -> tracker.asStream().distinctUntilChanged().skip(1).subscribe(any -> updatedBlocksSink.next(block)));
     }
 
     public static <T> TreeTracker<T> create(MissionRepresentation representation, T defaultValue, Function<Iterable<T>, T> summarizer) {
@@ -65,6 +75,11 @@ public class TreeTracker<T> implements Bucket<T>, Tracker<T> {
         return this.blockResultTrackers.entrySet().stream().collect(toMap(e -> e.getKey(), e -> e.getValue().result()));
     }
 
+    @Override
+    public Flux<Block> updatedBlocks() {
+        return this.updatedBlocks;
+    }
+
     public static class Builder<T> {
 
         private final MissionRepresentation representation;
@@ -0,0 +1,82 @@
+package io.molr.mole.core.utils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.ReplayProcessor;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Publishes snapshots of a value which changes in bursts. The update signals are merged: one snapshot is taken per time
+ * window or after the given number of updates, whatever comes first. The stream returned by {@link #asStream()}
+ * respects the demand of each subscriber: a subscriber which is slower than the publisher skips the intermediate
+ * snapshots and only receives the latest one, so that nothing is buffered for it.
+ * <p>
+ * The publisher is hot: it subscribes to the updates on creation. New subscribers receive the latest snapshot (if any)
+ * followed by the new ones. When the updates complete, a last snapshot is taken for the pending ones and the stream
+ * completes; subscribers arriving later still receive the latest snapshot.
+ *
+ * @param <T> the type of the published snapshots
+ */
+public final class CoalescingPublisher<T> {
+
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final ReplayProcessor<T> snapshotSink = ReplayProcessor.cacheLast();
+    private final Flux<T> snapshotStream = snapshotSink.onBackpressureLatest();
+
+    /**
+     * @param updates    signals whenever the value changed
+     * @param snapshot   supplies the actual value, called (from the given scheduler) at most once per window
+     * @param window     the maximum time for which updates are merged
+     * @param maxUpdates the maximum number of updates which are merged into one snapshot
+     * @param scheduler  the scheduler on which the snapshots are taken and published
+     */
+    public CoalescingPublisher(Flux<?> updates, Supplier<T> snapshot, Duration window, int maxUpdates, Scheduler scheduler) {
+        requireNonNull(updates, "updates must not be null");
+        requireNonNull(snapshot, "snapshot must not be null");
+        requireNonNull(window, "window must not be null");
+        requireNonNull(scheduler, "scheduler must not be null");
+        if (maxUpdates < 1) {
+            throw new IllegalArgumentException("maxUpdates must be positive, but was " + maxUpdates);
+        }
+
+        updates.doOnNext(update -> updateCount.incrementAndGet())
+                .bufferTimeout(maxUpdates, window, scheduler)
+                /* windows closing while the previous snapshot is still being published are merged as well */
+                .onBackpressureLatest()
+                .publishOn(scheduler, 1)
+                .map(batch -> snapshot.get())
+                .doOnNext(value -> publishedCount.incrementAndGet())
+                .subscribe(snapshotSink);
+    }
+
+    public Flux<T> asStream() {
+        return snapshotStream;
+    }
+
+    /**
+     * The number of updates received so far
+     */
+    public long updateCount() {
+        return updateCount.get();
+    }
+
+    /**
+     * The number of snapshots published so far
+     */
+    public long publishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * The number of updates which did not result in a snapshot of their own, because they were merged with others
+     */
+    public long coalescedCount() {
+        return Math.max(0, updateCount() - publishedCount());
+    }
+}
@@ -0,0 +1,46 @@
+package io.molr.mole.core.utils;
+
+import io.molr.commons.domain.MissionOutput;
+import io.molr.commons.domain.MissionOutputEvent;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conversions between streams of complete {@link MissionOutput}s and streams of {@link MissionOutputEvent}s
+ */
+public final class MissionOutputEvents {
+
+    private MissionOutputEvents() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Converts a stream of outputs into a stream of output events. For each subscriber, the first output results in one
+     * event per contained value, each following output in one event per value which was added or changed.
+     */
+    public static Flux<MissionOutputEvent> eventsOf(Flux<MissionOutput> outputs) {
+        return Flux.defer(() -> {
+            AtomicReference<MissionOutput> last = new AtomicReference<>(MissionOutput.empty());
+            return outputs.concatMapIterable(output -> between(last.getAndSet(output), output));
+        });
+    }
+
+    private static List<MissionOutputEvent> between(MissionOutput before, MissionOutput after) {
+        List<MissionOutputEvent> events = new ArrayList<>();
+        after.content().forEach((blockId, values) -> {
+            Map<String, Object> previousValues = before.content().getOrDefault(blockId, Collections.emptyMap());
+            values.forEach((name, value) -> {
+                if (!Objects.equals(previousValues.get(name), value)) {
+                    events.add(MissionOutputEvent.of(blockId, name, value));
+                }
+            });
+        });
+        return events;
+    }
+}
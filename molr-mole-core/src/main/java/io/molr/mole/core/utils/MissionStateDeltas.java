@@ -0,0 +1,46 @@
+package io.molr.mole.core.utils;
+
+import io.molr.commons.domain.MissionState;
+import io.molr.commons.domain.MissionStateDelta;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conversions between streams of complete {@link MissionState}s and streams of {@link MissionStateDelta}s
+ */
+public final class MissionStateDeltas {
+
+    private MissionStateDeltas() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Converts a stream of states into a stream of deltas. The first delta (for each subscriber) is a snapshot of the
+     * first state, the following ones contain the differences between consecutive states.
+     */
+    public static Flux<MissionStateDelta> deltasOf(Flux<MissionState> states) {
+        return Flux.defer(() -> {
+            AtomicReference<MissionState> last = new AtomicReference<>();
+            return states.map(state -> {
+                MissionState before = last.getAndSet(state);
+                if (before == null) {
+                    return MissionStateDelta.snapshotOf(state);
+                }
+                return MissionStateDelta.between(before, state);
+            });
+        });
+    }
+
+    /**
+     * Rebuilds the complete states from a stream of deltas, which has to start with a snapshot. Deltas arriving before
+     * the first snapshot are dropped.
+     */
+    public static Flux<MissionState> statesOf(Flux<MissionStateDelta> deltas) {
+        return Flux.defer(() -> {
+            AtomicReference<MissionState> last = new AtomicReference<>();
+            return deltas.filter(delta -> delta.isSnapshot() || last.get() != null)
+                    .map(delta -> last.updateAndGet(delta::applyTo));
+        });
+    }
+}
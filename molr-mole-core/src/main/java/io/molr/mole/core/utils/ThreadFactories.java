@@ -2,7 +2,11 @@ package io.molr.mole.core.utils;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ThreadFactories {
 
@@ -13,6 +17,26 @@ public final class ThreadFactories {
         return new ThreadFactoryBuilder().setNameFormat(nameFormat).build();
     }
 
+    /**
+     * Returns a {@link ThreadFactory} with the specified name format, creating daemon threads
+     */
+    public static ThreadFactory namedDaemonThreadFactory(String nameFormat) {
+        return new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+    }
+
+    /**
+     * Returns a {@link ForkJoinWorkerThreadFactory} with the specified name format, creating daemon threads
+     */
+    public static ForkJoinWorkerThreadFactory namedDaemonForkJoinWorkerThreadFactory(String nameFormat) {
+        AtomicLong count = new AtomicLong();
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(String.format(nameFormat, count.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     private ThreadFactories() {
         throw new UnsupportedOperationException();
     }
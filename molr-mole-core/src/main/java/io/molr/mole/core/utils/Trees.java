@@ -7,7 +7,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
@@ -32,18 +31,9 @@ public class Trees {
      * applied to each node and the second parameter represents the current depth of the node in the tree.
      */
     public static void visitParentBeforeChild(TreeStructure structure, BiConsumer<Block, Integer> c) {
-        visitParentBeforeChild(structure.rootBlock(), 0, c, structure);
-    }
-
-    private static void visitParentBeforeChild(Block block, int depth, BiConsumer<Block, Integer> c, TreeStructure structure) {
-        c.accept(block, depth);
-        depth++;
-
-        if (structure.isLeaf(block))
-            return;
-
-        for (Block child : structure.childrenOf(block)) {
-            visitParentBeforeChild(child, depth, c, structure);
+        /* allBlocks() iterates in pre-order */
+        for (Block block : structure.allBlocks()) {
+            c.accept(block, structure.depthOf(block));
         }
     }
 
@@ -52,14 +42,7 @@ public class Trees {
      * parallel
      */
     public static boolean doesBlockHaveAParallelParent(Block block, TreeStructure structure) {
-        Optional<Block> parent = structure.parentOf(block);
-        if (parent.isPresent()) {
-            if (structure.isParallel(parent.get())) {
-                return true;
-            }
-            return doesBlockHaveAParallelParent(parent.get(), structure);
-        }
-        return false;
+        return structure.contains(block) && structure.hasParallelAncestor(block);
     }
 
 }
@@ -23,4 +23,10 @@ public class MoleWebApiTest {
         Assertions.assertThat(MoleWebApi.instructInstance("myMissionHandle","myStrand","RUN")).isEqualTo("/instance/myMissionHandle/myStrand/instruct/RUN");
     }
 
+    @Test
+    public void disposeInstance() {
+        Assertions.assertThat(MoleWebApi.INSTANCE_DISPOSE_PATH).isEqualTo("/instance/{missionHandle}/dispose");
+        Assertions.assertThat(MoleWebApi.disposeInstance("myMissionHandle")).isEqualTo("/instance/myMissionHandle/dispose");
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package io.molr.mole.core.local;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.CommandResponse;
+import io.molr.commons.domain.Mission;
+import io.molr.commons.domain.MissionHandle;
+import io.molr.commons.domain.MissionState;
+import io.molr.commons.domain.Result;
+import io.molr.commons.domain.RunState;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.RunnableLeafsMole;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocalSuperMoleTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private LocalSuperMole superMole;
+
+    @Before
+    public void setUp() {
+        superMole = new LocalSuperMole(ImmutableList.of(moleFor(mission("first")), moleFor(mission("second"))));
+        superMole.states()
+                .filter(state -> state.executableMissions().size() == 2)
+                .blockFirst(TIMEOUT);
+    }
+
+    @Test
+    public void missionsAreInstantiatedAndFollowedOnTheirMole() {
+        MissionHandle handle = superMole.instantiate(new Mission("second"), Collections.emptyMap()).block(TIMEOUT);
+
+        superMole.instructRoot(handle, StrandCommand.RESUME);
+
+        MissionState state = superMole.statesFor(handle)
+                .filter(s -> s.result() == Result.SUCCESS)
+                .blockFirst(TIMEOUT);
+        assertThat(state.runState()).isEqualTo(RunState.FINISHED);
+    }
+
+    @Test
+    public void commandsAreAcknowledgedByTheStrand() {
+        MissionHandle handle = superMole.instantiate(new Mission("first"), Collections.emptyMap()).block(TIMEOUT);
+
+        CommandResponse resume = superMole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+        superMole.statesFor(handle).filter(s -> s.runState() == RunState.FINISHED).blockFirst(TIMEOUT);
+        CommandResponse lateResume = superMole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+
+        assertThat(resume.isAccepted()).isTrue();
+        assertThat(lateResume.isAccepted()).isFalse();
+        assertThat(lateResume.reason()).isPresent();
+    }
+
+    @Test
+    public void unknownHandlesAreRejected() {
+        MissionHandle unknown = MissionHandle.ofId("unknown");
+
+        assertThatThrownBy(() -> superMole.statesFor(unknown).blockFirst(TIMEOUT))
+                .isInstanceOf(IllegalStateException.class);
+        Mono<CommandResponse> response = superMole.instructRoot(unknown, StrandCommand.RESUME);
+        assertThatThrownBy(() -> response.block(TIMEOUT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void instancesOfAMissionOfferedByTwoMolesAreSpreadOverBoth() {
+        RunnableLeafsMission shared = mission("shared");
+        RunnableLeafsMole firstMole = moleFor(shared);
+        RunnableLeafsMole secondMole = moleFor(shared);
+        LocalSuperMole spreadingMole = new LocalSuperMole(ImmutableList.of(firstMole, secondMole));
+        spreadingMole.states().filter(state -> !state.executableMissions().isEmpty()).blockFirst(TIMEOUT);
+
+        for (int i = 0; i < 4; i++) {
+            spreadingMole.instantiate(new Mission("shared"), Collections.emptyMap()).block(TIMEOUT);
+        }
+
+        assertThat(activeInstancesOf(firstMole)).isEqualTo(2);
+        assertThat(activeInstancesOf(secondMole)).isEqualTo(2);
+    }
+
+    private static int activeInstancesOf(RunnableLeafsMole mole) {
+        return mole.states().blockFirst(TIMEOUT).activeMissions().size();
+    }
+
+    private static RunnableLeafsMole moleFor(RunnableLeafsMission mission) {
+        return new RunnableLeafsMole(ImmutableSet.of(mission));
+    }
+
+    private static RunnableLeafsMission mission(String name) {
+        return new RunnableLeafsMissionSupport() {
+            {
+                sequential(name, root -> {
+                    root.run("leaf", () -> {
+                    });
+                });
+            }
+        }.build();
+    }
+}
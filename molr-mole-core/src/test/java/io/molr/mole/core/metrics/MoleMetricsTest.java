@@ -0,0 +1,113 @@
+package io.molr.mole.core.metrics;
+
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.Mission;
+import io.molr.commons.domain.MissionHandle;
+import io.molr.commons.domain.RunState;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.RunnableLeafsMole;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.tree.RetentionPolicy;
+import io.molr.mole.core.tree.StrandSchedulers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoleMetricsTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Mission MISSION = new Mission("metrics");
+    private static final Mission OTHER_MISSION = new Mission("other metrics");
+
+    private MetricsRegistry registry;
+    private RunnableLeafsMole mole;
+
+    @Before
+    public void setUp() {
+        registry = MetricsRegistries.inMemory();
+        mole = new RunnableLeafsMole(ImmutableSet.of(missionNamed(MISSION), missionNamed(OTHER_MISSION)), StrandSchedulers.shared(), RetentionPolicy.DEFAULT, registry);
+    }
+
+    /* all the missions have the same blocks, so the same block ids */
+    private static RunnableLeafsMission missionNamed(Mission mission) {
+        return new RunnableLeafsMissionSupport() {
+            {
+                sequential(mission.name(), root -> {
+                    root.run("first", () -> {
+                    });
+                    root.run("second", () -> {
+                    });
+                });
+            }
+        }.build();
+    }
+
+    @Test
+    public void executionIsRecordedInTheRegistry() throws InterruptedException {
+        MissionHandle handle = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        mole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+        mole.statesFor(handle).filter(state -> state.runState() == RunState.FINISHED).blockFirst(TIMEOUT);
+
+        assertThat(measurement(MoleMetrics.LEAF_EXECUTION_TIME, "text", "first", "count")).contains(1.0);
+        assertThat(measurement(MoleMetrics.LEAF_EXECUTION_TIME, "text", "second", "count")).contains(1.0);
+        assertThat(measurement(MoleMetrics.COMMAND_WAIT_TIME, "command", "RESUME", "count")).contains(1.0);
+        assertThat(measurement(MoleMetrics.STREAM_EMISSIONS, "stream", "states", "count")).isPresent();
+
+        /* the executor terminates right after publishing the finished state */
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        while (measurement(MoleMetrics.STRANDS, "state", "FINISHED", "value").orElse(0.0) != 0.0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(measurement(MoleMetrics.STRANDS, "state", "FINISHED", "value")).contains(0.0);
+        assertThat(measurement(MoleMetrics.STRANDS, "state", "RUNNING", "value")).contains(0.0);
+    }
+
+    @Test
+    public void leavesOfDifferentMissionsAreRecordedSeparately() {
+        run(MISSION);
+        run(MISSION);
+        run(OTHER_MISSION);
+
+        assertThat(leafMeasurement(MISSION, "first")).contains(2.0);
+        assertThat(leafMeasurement(OTHER_MISSION, "first")).contains(1.0);
+        assertThat(leafMeasurement(OTHER_MISSION, "second")).contains(1.0);
+    }
+
+    @Test
+    public void rejectedCommandsAreCountedAsDropped() {
+        MissionHandle handle = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        mole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+        mole.statesFor(handle).filter(state -> state.runState() == RunState.FINISHED).blockFirst(TIMEOUT);
+        mole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+
+        assertThat(measurement(MoleMetrics.COMMANDS_DROPPED, "command", "RESUME", "count")).contains(1.0);
+    }
+
+    private void run(Mission mission) {
+        MissionHandle handle = mole.instantiate(mission, Collections.emptyMap()).block(TIMEOUT);
+        mole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+        mole.statesFor(handle).filter(state -> state.runState() == RunState.FINISHED).blockFirst(TIMEOUT);
+    }
+
+    private Optional<Double> leafMeasurement(Mission mission, String leafText) {
+        return registry.snapshot().stream()
+                .filter(meter -> meter.name().equals(MoleMetrics.LEAF_EXECUTION_TIME))
+                .filter(meter -> mission.name().equals(meter.tags().get("mission")) && leafText.equals(meter.tags().get("text")))
+                .map(meter -> meter.measurements().get("count"))
+                .findFirst();
+    }
+
+    private Optional<Double> measurement(String name, String tag, String tagValue, String statistic) {
+        return registry.snapshot().stream()
+                .filter(meter -> meter.name().equals(name) && tagValue.equals(meter.tags().get(tag)))
+                .map(meter -> meter.measurements().get(statistic))
+                .findFirst();
+    }
+}
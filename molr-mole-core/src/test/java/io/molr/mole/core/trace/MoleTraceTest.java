@@ -0,0 +1,68 @@
+package io.molr.mole.core.trace;
+
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.Mission;
+import io.molr.commons.domain.MissionHandle;
+import io.molr.commons.domain.RunState;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.metrics.MetricsRegistries;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.RunnableLeafsMole;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.tree.RetentionPolicy;
+import io.molr.mole.core.tree.StrandSchedulers;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoleTraceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Mission MISSION = new Mission("traced");
+
+    private final RunnableLeafsMission mission = new RunnableLeafsMissionSupport() {
+        {
+            sequential(MISSION.name(), root -> {
+                root.run("first", () -> {
+                });
+                root.run("second", () -> {
+                });
+            });
+        }
+    }.build();
+
+    @Test
+    public void eachInstanceIsRecordedInItsOwnRecorder() {
+        RunnableLeafsMole mole = new RunnableLeafsMole(ImmutableSet.of(mission), StrandSchedulers.shared(),
+                RetentionPolicy.DEFAULT, MetricsRegistries.inMemory(), () -> TraceRecorder.withCapacity(1000));
+
+        MissionHandle first = runToCompletion(mole);
+        MissionHandle second = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+
+        List<TraceEvent> events = mole.traceFor(first).block(TIMEOUT);
+        assertThat(events).filteredOn(e -> e.kind() == TraceEvent.Kind.LEAF_FINISHED)
+                .extracting(e -> e.block().get().text()).containsExactly("first", "second");
+        assertThat(mole.traceFor(second).block(TIMEOUT)).noneMatch(e -> e.kind() == TraceEvent.Kind.LEAF_FINISHED);
+        assertThat(ChromeTraceWriter.toJson(events)).contains("second");
+    }
+
+    @Test
+    public void nothingIsRecordedByDefault() {
+        RunnableLeafsMole mole = new RunnableLeafsMole(ImmutableSet.of(mission));
+
+        MissionHandle handle = runToCompletion(mole);
+
+        assertThat(mole.traceFor(handle).block(TIMEOUT)).isEmpty();
+    }
+
+    private static MissionHandle runToCompletion(RunnableLeafsMole mole) {
+        MissionHandle handle = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        mole.instructRoot(handle, StrandCommand.RESUME).block(TIMEOUT);
+        mole.statesFor(handle).filter(state -> state.runState() == RunState.FINISHED).blockFirst(TIMEOUT);
+        return handle;
+    }
+}
@@ -0,0 +1,57 @@
+package io.molr.mole.core.trace;
+
+import io.molr.commons.domain.Result;
+import io.molr.commons.domain.StrandCommand;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.testing.strand.AbstractSingleMissionStrandExecutorTest;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+public class StrandExecutionTraceTest extends AbstractSingleMissionStrandExecutorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StrandExecutionTraceTest.class);
+
+    private final TraceRecorder recorder = TraceRecorder.withCapacity(1000);
+
+    @Override
+    protected RunnableLeafsMission mission() {
+        return new RunnableLeafsMissionSupport() {
+            {
+                parallel("root", root -> {
+                    root.run("A", () -> {
+                    });
+                    root.run("B", () -> {
+                    });
+                });
+            }
+        }.build();
+    }
+
+    @Override
+    protected TraceRecorder traceRecorder() {
+        return recorder;
+    }
+
+    @Test
+    public void executionOfAMissionIsRecorded() {
+        instructRootStrandAsync(StrandCommand.RESUME);
+        waitUntilRootStrandIsFinished();
+
+        List<TraceEvent> events = recorder.events();
+        Assertions.assertThat(events).filteredOn(e -> e.kind() == TraceEvent.Kind.STRAND_CREATED).hasSize(3);
+        Assertions.assertThat(events).filteredOn(e -> e.kind() == TraceEvent.Kind.LEAF_FINISHED).hasSize(2)
+                .extracting(e -> e.detail().get()).containsOnly(Result.SUCCESS.name());
+        Assertions.assertThat(events).filteredOn(e -> e.kind() == TraceEvent.Kind.COMMAND)
+                .extracting(e -> e.detail().get()).contains(StrandCommand.RESUME.name());
+    }
+
+    @Override
+    public Logger logger() {
+        return LOGGER;
+    }
+}
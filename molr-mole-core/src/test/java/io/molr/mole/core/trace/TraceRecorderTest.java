@@ -0,0 +1,119 @@
+package io.molr.mole.core.trace;
+
+import io.molr.commons.domain.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceRecorderTest {
+
+    private static final Strand STRAND = Strand.ofId("0");
+    private static final Block LEAF = Block.idAndText("leaf", "a \"quoted\" leaf");
+
+    @Test
+    public void onlyTheLatestEventsAreKept() {
+        TraceRecorder recorder = TraceRecorder.withCapacity(3);
+        recorder.commandReceived(STRAND, StrandCommand.RESUME);
+        recorder.leafStarted(STRAND, LEAF);
+        recorder.leafFinished(STRAND, LEAF, Result.SUCCESS);
+        recorder.cursorMoved(STRAND, null);
+
+        assertThat(recorder.recordedCount()).isEqualTo(4);
+        assertThat(recorder.events()).extracting(TraceEvent::kind)
+                .containsExactly(TraceEvent.Kind.LEAF_STARTED, TraceEvent.Kind.LEAF_FINISHED, TraceEvent.Kind.CURSOR_MOVED);
+    }
+
+    @Test
+    public void disabledRecorderRecordsNothing() {
+        TraceRecorder recorder = TraceRecorder.disabled();
+        recorder.leafStarted(STRAND, LEAF);
+
+        assertThat(recorder.isEnabled()).isFalse();
+        assertThat(recorder.events()).isEmpty();
+    }
+
+    @Test
+    public void leavesAreWrittenAsDurationEventsOfTheirStrand() {
+        TraceRecorder recorder = TraceRecorder.withCapacity(10);
+        recorder.leafStarted(STRAND, LEAF);
+        recorder.leafFinished(STRAND, LEAF, Result.SUCCESS);
+
+        String json = ChromeTraceWriter.toJson(recorder.events());
+
+        assertThat(json).startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[").endsWith("]}");
+        assertThat(json).contains("\"args\":{\"name\":\"strand 0\"}");
+        assertThat(json).contains("{\"name\":\"a \\\"quoted\\\" leaf\",\"cat\":\"leaf_started\",\"ph\":\"B\"");
+        assertThat(json).contains("\"ph\":\"E\"").contains("\"result\":\"SUCCESS\"");
+    }
+
+    @Test
+    public void concurrentlyRecordedEventsAreNeverTorn() throws InterruptedException {
+        /* one slot, so that all the writers compete for it */
+        TraceRecorder recorder = TraceRecorder.withCapacity(1);
+        int writerCount = 8;
+        int eventsPerWriter = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            int writer = w;
+            writers.add(new Thread(() -> {
+                awaitUninterruptibly(start);
+                for (int i = 0; i < eventsPerWriter; i++) {
+                    /* the strand, the block and the detail of one event all carry the same id */
+                    String id = writer + "-" + i;
+                    if (i % 2 == 0) {
+                        recorder.strandCreated(Strand.ofId(id), Strand.ofId(id), Block.idAndText(id, id));
+                    } else {
+                        recorder.cursorMoved(Strand.ofId(id), Block.idAndText(id, id));
+                    }
+                }
+            }, "writer-" + w));
+        }
+        writers.forEach(Thread::start);
+        start.countDown();
+
+        long readEvents = 0;
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            readEvents += assertConsistent(recorder.events());
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        readEvents += assertConsistent(recorder.events());
+
+        assertThat(readEvents).isPositive();
+        assertThat(recorder.recordedCount()).isEqualTo((long) writerCount * eventsPerWriter);
+    }
+
+    /**
+     * Asserts that all the fields of each event come from the same recording call
+     */
+    private static int assertConsistent(List<TraceEvent> events) {
+        for (TraceEvent event : events) {
+            String id = event.strand().id();
+            assertThat(event.block().map(Block::id)).contains(id);
+            assertThat(event.threadName()).isEqualTo("writer-" + id.substring(0, id.indexOf('-')));
+            int index = Integer.parseInt(id.substring(id.indexOf('-') + 1));
+            if (index % 2 == 0) {
+                assertThat(event.kind()).isEqualTo(TraceEvent.Kind.STRAND_CREATED);
+                assertThat(event.detail()).contains(id);
+            } else {
+                assertThat(event.kind()).isEqualTo(TraceEvent.Kind.CURSOR_MOVED);
+                assertThat(event.detail()).isEmpty();
+            }
+        }
+        return events.size();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
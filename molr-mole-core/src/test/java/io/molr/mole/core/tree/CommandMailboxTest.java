@@ -0,0 +1,79 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.CommandResponse;
+import io.molr.commons.domain.Strand;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static io.molr.commons.domain.StrandCommand.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommandMailboxTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Strand STRAND = Strand.ofId("0");
+
+    private final CommandMailbox mailbox = new CommandMailbox(STRAND);
+
+    @Test
+    public void commandsArePolledInOrderAndAnsweredOnce() {
+        Mono<CommandResponse> stepInto = mailbox.post(STEP_INTO);
+        Mono<CommandResponse> skip = mailbox.post(SKIP);
+        assertThat(mailbox.hasPending()).isTrue();
+
+        CommandMailbox.PendingCommand first = mailbox.poll();
+        assertThat(first.command()).isEqualTo(STEP_INTO);
+        first.accept();
+        CommandMailbox.PendingCommand second = mailbox.poll();
+        assertThat(second.command()).isEqualTo(SKIP);
+        second.reject("not allowed");
+
+        assertThat(mailbox.poll()).isNull();
+        assertThat(mailbox.hasPending()).isFalse();
+        assertThat(stepInto.block(TIMEOUT)).isEqualTo(CommandResponse.accepted(STRAND, STEP_INTO));
+        assertThat(skip.block(TIMEOUT)).isEqualTo(CommandResponse.rejected(STRAND, SKIP, "not allowed"));
+    }
+
+    @Test
+    public void pauseCancelsWaitingResume() {
+        Mono<CommandResponse> resume = mailbox.post(RESUME);
+        Mono<CommandResponse> pause = mailbox.post(PAUSE);
+
+        CommandMailbox.PendingCommand next = mailbox.poll();
+        assertThat(next.command()).isEqualTo(PAUSE);
+        assertThat(mailbox.poll()).isNull();
+        assertThat(resume.block(TIMEOUT).isAccepted()).isFalse();
+
+        next.accept();
+        assertThat(pause.block(TIMEOUT).isAccepted()).isTrue();
+        assertThat(mailbox.hasPending()).isFalse();
+    }
+
+    @Test
+    public void repeatedResumesAreMergedAndReceiveTheSameResponse() {
+        Mono<CommandResponse> first = mailbox.post(RESUME);
+        Mono<CommandResponse> second = mailbox.post(RESUME);
+
+        CommandMailbox.PendingCommand next = mailbox.poll();
+        assertThat(mailbox.poll()).isNull();
+        assertThat(mailbox.hasPending()).isTrue();
+
+        next.accept();
+        assertThat(first.block(TIMEOUT)).isEqualTo(second.block(TIMEOUT));
+        assertThat(mailbox.hasPending()).isFalse();
+    }
+
+    @Test
+    public void closedMailboxRejectsWaitingAndNewCommands() {
+        Mono<CommandResponse> waiting = mailbox.post(RESUME);
+        mailbox.close("finished");
+        Mono<CommandResponse> late = mailbox.post(PAUSE);
+
+        assertThat(waiting.block(TIMEOUT).reason()).contains("finished");
+        assertThat(late.block(TIMEOUT).reason()).contains("finished");
+        assertThat(mailbox.poll()).isNull();
+        assertThat(mailbox.hasPending()).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.MissionOutput;
+import io.molr.commons.domain.MissionOutputEvent;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.molr.commons.domain.Placeholder.aString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentMissionOutputCollectorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Block BLOCK = Block.idAndText("block", "block");
+
+    private final ConcurrentMissionOutputCollector collector = new ConcurrentMissionOutputCollector();
+
+    @Test
+    public void newSubscribersReceiveTheActualValuesFollowedByNewOnes() {
+        collector.put(BLOCK, "count", 1);
+        collector.put(BLOCK, "count", 2);
+        collector.put(BLOCK, "text", "hello");
+
+        List<MissionOutputEvent> events = new ArrayList<>();
+        collector.events().subscribe(events::add);
+        collector.put(BLOCK, "count", 3);
+
+        assertThat(events).containsExactly(
+                MissionOutputEvent.of(BLOCK, "count", 2),
+                MissionOutputEvent.of(BLOCK, "text", "hello"),
+                MissionOutputEvent.of(BLOCK, "count", 3));
+    }
+
+    @Test
+    public void snapshotIsOnlyRebuiltAfterChanges() {
+        collector.put(BLOCK, "text", "hello");
+        MissionOutput first = collector.snapshot();
+        assertThat(collector.snapshot()).isSameAs(first);
+        assertThat(first.get(BLOCK, aString("text"))).isEqualTo("hello");
+
+        collector.put(BLOCK, "text", "world");
+        assertThat(collector.snapshot().get(BLOCK, aString("text"))).isEqualTo("world");
+    }
+
+    @Test
+    public void streamEndsWithLatestSnapshot() {
+        for (int i = 0; i < 1000; i++) {
+            collector.put(BLOCK, "count", i);
+        }
+        MissionOutput last = collector.asStream()
+                .filter(output -> Integer.valueOf(999).equals(output.content().get(BLOCK.id()).get("count")))
+                .blockFirst(TIMEOUT);
+        assertThat(last).isEqualTo(collector.snapshot());
+    }
+
+    @Test
+    public void burstsArePublishedPerNumberOfUpdates() {
+        ConcurrentMissionOutputCollector coalescingCollector = new ConcurrentMissionOutputCollector(Duration.ofHours(1), 100);
+        for (int i = 0; i < 1000; i++) {
+            coalescingCollector.put(BLOCK, "count", i);
+        }
+        MissionOutput last = coalescingCollector.asStream()
+                .filter(output -> Integer.valueOf(999).equals(output.content().get(BLOCK.id()).get("count")))
+                .blockFirst(TIMEOUT);
+        assertThat(last).isNotNull();
+        assertThat(coalescingCollector.coalescedCount()).isGreaterThanOrEqualTo(990);
+    }
+}
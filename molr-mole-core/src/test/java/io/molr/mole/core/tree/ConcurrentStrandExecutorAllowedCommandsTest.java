@@ -1,15 +1,20 @@
 package io.molr.mole.core.tree;
 
 import io.molr.commons.domain.Block;
+import io.molr.commons.domain.CommandResponse;
+import io.molr.commons.domain.Result;
 import io.molr.mole.core.runnable.RunnableLeafsMission;
 import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
 import io.molr.mole.core.testing.strand.AbstractSingleMissionStrandExecutorTest;
+import org.assertj.core.api.Assertions;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static io.molr.commons.domain.RunState.PAUSED;
 import static io.molr.commons.domain.RunState.RUNNING;
@@ -146,6 +151,53 @@ public class ConcurrentStrandExecutorAllowedCommandsTest extends AbstractSingleM
         assertThatStrandRootAllowedCommands().containsExactlyInAnyOrder(RESUME);
     }
 
+    @Test
+    public void testStepIntoALeafIsRejected() {
+        moveRootStrandTo(leafBlock);
+
+        CommandResponse response = rootStrandExecutor().instruct(STEP_INTO).block(TIMEOUT);
+
+        Assertions.assertThat(response.isAccepted()).isFalse();
+        Assertions.assertThat(response.reason()).hasValueSatisfying(reason -> Assertions.assertThat(reason).contains("STEP_INTO"));
+        assertThatRootStrandBlock().isEqualTo(leafBlock);
+        assertThatRootStrandState().isEqualTo(PAUSED);
+    }
+
+    @Test
+    public void testSkipWhileRunningIsRejected() {
+        moveRootStrandTo(leafBlock);
+        instructRootStrandAsync(RESUME);
+        await(latchLeafStart);
+        waitUntilRootStrandStateIs(RUNNING);
+
+        /* the command is processed as soon as the leaf completes, the strand is still resuming then */
+        Mono<CommandResponse> skip = rootStrandExecutor().instruct(SKIP);
+        unlatch(latchLeafEnd, latchA1End, latchB1End, latchB2End);
+        CommandResponse response = skip.block(TIMEOUT);
+
+        Assertions.assertThat(response.isAccepted()).isFalse();
+        Assertions.assertThat(response.reason()).hasValueSatisfying(reason -> Assertions.assertThat(reason).contains("SKIP"));
+        waitUntilRootStrandIsFinished();
+        assertThatResultOf(sequentialBlock).isEqualTo(Result.SUCCESS);
+    }
+
+    @Test
+    public void testStepOverWithChildrenIsRejectedWithoutResumingThem() throws InterruptedException {
+        moveRootStrandTo(parallelBlock);
+        instructRootStrandSync(STEP_OVER);
+        await(latchA1Start, latchB1Start);
+        instructRootStrandSync(PAUSE);
+        unlatch(latchA1End, latchB1End);
+        waitUntilRootStrandStateIs(PAUSED);
+
+        CommandResponse response = rootStrandExecutor().instruct(STEP_OVER).block(TIMEOUT);
+
+        Assertions.assertThat(response.isAccepted()).isFalse();
+        Assertions.assertThat(latchB2Start.await(500, TimeUnit.MILLISECONDS)).as("B.2 started").isFalse();
+        assertThatRootStrandState().isEqualTo(PAUSED);
+        rootStrandChildren().forEach(child -> assertThatStateOf(child).isEqualTo(PAUSED));
+    }
+
     @Override
     public Logger logger() {
         return LOGGER;
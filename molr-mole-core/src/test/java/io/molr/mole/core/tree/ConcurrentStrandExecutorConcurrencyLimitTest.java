@@ -0,0 +1,111 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.Result;
+import io.molr.commons.domain.RunState;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.testing.strand.AbstractSingleMissionStrandExecutorTest;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.molr.commons.domain.StrandCommand.PAUSE;
+import static io.molr.commons.domain.StrandCommand.RESUME;
+
+public class ConcurrentStrandExecutorConcurrencyLimitTest extends AbstractSingleMissionStrandExecutorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentStrandExecutorConcurrencyLimitTest.class);
+
+    private static final int CHILDREN = 6;
+    private static final int MAX_CONCURRENCY = 2;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private CountDownLatch firstLeavesStarted;
+    private CountDownLatch leavesMayFinish;
+
+    private Block scan;
+
+    @Override
+    protected RunnableLeafsMission mission() {
+        return new RunnableLeafsMissionSupport() {
+            {
+                sequential("root", root -> {
+                    scan = root.parallel("scan", MAX_CONCURRENCY, p -> {
+                        for (int i = 0; i < CHILDREN; i++) {
+                            p.run("device " + i, () -> {
+                                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                                unlatch(firstLeavesStarted);
+                                await(leavesMayFinish);
+                                running.decrementAndGet();
+                            });
+                        }
+                    });
+                });
+            }
+        }.build();
+    }
+
+    @Before
+    public void setUp() {
+        firstLeavesStarted = new CountDownLatch(MAX_CONCURRENCY);
+        leavesMayFinish = new CountDownLatch(1);
+    }
+
+    private void waitUntilChildrenAreQueued() {
+        Flux.interval(Duration.ofMillis(10))
+                .filter(any -> childrenStrandExecutorsOf(rootStrandExecutor()).stream().filter(child -> child.getActualState() == RunState.QUEUED).count() == CHILDREN - MAX_CONCURRENCY)
+                .blockFirst(TIMEOUT);
+    }
+
+    @Test
+    public void childrenBeyondTheLimitAreQueuedUntilSlotsFreeUp() {
+        instructRootStrandAsync(RESUME);
+        await(firstLeavesStarted);
+
+        waitUntilChildrenAreQueued();
+        Assertions.assertThat(childrenStrandExecutorsOf(rootStrandExecutor())).hasSize(CHILDREN)
+                .filteredOn(child -> child.getActualState() == RunState.QUEUED).hasSize(CHILDREN - MAX_CONCURRENCY);
+
+        unlatch(leavesMayFinish);
+        waitUntilRootStrandIsFinished();
+
+        Assertions.assertThat(maxRunning.get()).isEqualTo(MAX_CONCURRENCY);
+        assertThatResultOf(scan).isEqualTo(Result.SUCCESS);
+    }
+
+    @Test
+    public void pausedQueuedChildrenLeaveTheLine() {
+        instructRootStrandAsync(RESUME);
+        await(firstLeavesStarted);
+        waitUntilChildrenAreQueued();
+
+        StrandExecutor queued = childrenStrandExecutorsOf(rootStrandExecutor()).stream()
+                .filter(child -> child.getActualState() == RunState.QUEUED).findFirst().get();
+        assertThatAllowedCommandsOf(queued).containsExactly(PAUSE);
+        instructSync(queued, PAUSE);
+        assertThatStateOf(queued).isEqualTo(RunState.PAUSED);
+
+        unlatch(leavesMayFinish);
+        waitUntilStrandIsFinished(strandExecutorFactory().allStrandExecutors().stream()
+                .filter(child -> !child.equals(queued) && !child.equals(rootStrandExecutor())).findFirst().get());
+        assertThatStateOf(queued).isEqualTo(RunState.PAUSED);
+
+        instructSync(queued, RESUME);
+        waitUntilRootStrandIsFinished();
+        assertThatResultOf(scan).isEqualTo(Result.SUCCESS);
+    }
+
+    @Override
+    public Logger logger() {
+        return LOGGER;
+    }
+}
@@ -0,0 +1,60 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.Result;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.testing.strand.AbstractSingleMissionStrandExecutorTest;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.molr.commons.domain.StrandCommand.RESUME;
+
+public class ConcurrentStrandExecutorForkJoinSchedulerTest extends AbstractSingleMissionStrandExecutorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentStrandExecutorForkJoinSchedulerTest.class);
+
+    private final Set<String> leafThreads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected RunnableLeafsMission mission() {
+        return new RunnableLeafsMissionSupport() {
+            {
+                parallel("outer", root -> {
+                    for (int i = 0; i < 4; i++) {
+                        root.parallel("inner " + i, inner -> {
+                            for (int j = 0; j < 4; j++) {
+                                inner.run("leaf " + j, () -> leafThreads.add(Thread.currentThread().getName()));
+                            }
+                        });
+                    }
+                });
+            }
+        }.build();
+    }
+
+    @Override
+    protected StrandScheduler strandScheduler() {
+        return StrandSchedulers.forkJoin(2);
+    }
+
+    @Test
+    public void nestedParallelBlocksRunOnTheForkJoinWorkers() {
+        instructRootStrandAsync(RESUME);
+        waitUntilRootStrandIsFinished();
+
+        Assertions.assertThat(strandExecutorFactory().allStrandExecutors()).hasSize(1 + 4 + 16);
+        Assertions.assertThat(leafThreads).isNotEmpty().allMatch(name -> name.startsWith("strand-fj-leaf-"));
+        Assertions.assertThat(leafThreads.size()).isLessThanOrEqualTo(2);
+        waitUntilResultOfBlockIs(treeStructure().rootBlock(), Result.SUCCESS);
+    }
+
+    @Override
+    public Logger logger() {
+        return LOGGER;
+    }
+}
@@ -0,0 +1,77 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.Result;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.testing.strand.AbstractSingleMissionStrandExecutorTest;
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static io.molr.commons.domain.StrandCommand.RESUME;
+
+public class ConcurrentStrandExecutorSchedulerTest extends AbstractSingleMissionStrandExecutorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentStrandExecutorSchedulerTest.class);
+    private static final int PARALLEL_LEAVES = 50;
+
+    private final ExecutorService cycleExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService leafExecutor = Executors.newCachedThreadPool();
+    private final Set<String> cycleThreads = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch allLeavesStarted = new CountDownLatch(PARALLEL_LEAVES);
+
+    @Override
+    protected RunnableLeafsMission mission() {
+        return new RunnableLeafsMissionSupport() {
+            {
+                parallel("wide", root -> {
+                    for (int i = 0; i < PARALLEL_LEAVES; i++) {
+                        root.run("leaf " + i, () -> {
+                            /* all the leaves have to be running at the same time for this to pass */
+                            unlatch(allLeavesStarted);
+                            await(allLeavesStarted);
+                        });
+                    }
+                });
+            }
+        }.build();
+    }
+
+    @Override
+    protected StrandScheduler strandScheduler() {
+        return StrandSchedulers.of(command -> cycleExecutor.execute(() -> {
+            cycleThreads.add(Thread.currentThread().getName());
+            command.run();
+        }), leafExecutor, Schedulers.parallel());
+    }
+
+    @After
+    public void tearDown() {
+        cycleExecutor.shutdownNow();
+        leafExecutor.shutdownNow();
+    }
+
+    @Test
+    public void wideParallelMissionRunsOnOneCycleThread() {
+        instructRootStrandAsync(RESUME);
+        waitUntilRootStrandIsFinished();
+
+        Assertions.assertThat(strandExecutorFactory().allStrandExecutors()).hasSize(PARALLEL_LEAVES + 1);
+        Assertions.assertThat(cycleThreads).hasSize(1);
+        waitUntilResultOfBlockIs(treeStructure().rootBlock(), Result.SUCCESS);
+    }
+
+    @Override
+    public Logger logger() {
+        return LOGGER;
+    }
+}
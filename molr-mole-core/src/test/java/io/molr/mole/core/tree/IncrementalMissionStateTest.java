@@ -0,0 +1,95 @@
+package io.molr.mole.core.tree;
+
+import io.molr.commons.domain.*;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.exec.RunnableBlockExecutor;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import io.molr.mole.core.tree.tracking.BlockTimingTracker;
+import io.molr.mole.core.tree.tracking.TreeTracker;
+import io.molr.mole.core.utils.MissionStateDeltas;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncrementalMissionStateTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private Block firstLeaf;
+    private TreeStructure structure;
+    private TreeMissionExecutor executor;
+
+    @Before
+    public void setUp() {
+        RunnableLeafsMission mission = new RunnableLeafsMissionSupport() {
+            {
+                sequential("root", root -> {
+                    firstLeaf = root.run("first", () -> {
+                    });
+                    root.parallel("parallel", p -> {
+                        p.run("parallel A", () -> {
+                        });
+                        p.run("parallel B", () -> {
+                        });
+                    });
+                });
+            }
+        }.build();
+
+        structure = mission.treeStructure();
+        TreeTracker<Result> resultTracker = TreeTracker.create(structure.missionRepresentation(), Result.UNDEFINED, Result::summaryOf);
+        TreeTracker<RunState> runStateTracker = TreeTracker.create(structure.missionRepresentation(), RunState.UNDEFINED, RunState::summaryOf);
+        MissionOutputCollector outputCollector = new ConcurrentMissionOutputCollector();
+        BlockTimingTracker timingTracker = BlockTimingTracker.create(structure.missionRepresentation());
+        LeafExecutor leafExecutor = new RunnableBlockExecutor(resultTracker, mission.runnables(), MissionInput.empty(), outputCollector, runStateTracker, timingTracker);
+        executor = new TreeMissionExecutor(structure, leafExecutor, resultTracker, outputCollector, runStateTracker, ExecutionOptions.builder().timingTracker(timingTracker).build());
+    }
+
+    @Test
+    public void firstDeltaIsASnapshot() {
+        MissionStateDelta first = executor.stateDeltas().blockFirst(TIMEOUT);
+
+        assertThat(first.isSnapshot()).isTrue();
+        assertThat(first.strandUpdates()).extracting(MissionStateDelta.StrandUpdate::strand).contains(Strand.ofId("0"));
+        assertThat(first.blockIdsToResult()).hasSize(structure.allBlocks().size());
+    }
+
+    @Test
+    public void deltasRebuildTheFinalState() {
+        executor.states().filter(s -> s.cursorBlockIdIn(s.rootStrand()).filter(firstLeaf.id()::equals).isPresent()).blockFirst(TIMEOUT);
+        executor.instructRoot(StrandCommand.RESUME);
+
+        List<MissionStateDelta> deltas = new CopyOnWriteArrayList<>();
+        MissionState finished = MissionStateDeltas.statesOf(executor.stateDeltas().doOnNext(deltas::add))
+                .filter(s -> s.runState() == RunState.FINISHED && s.result() == Result.SUCCESS)
+                .blockFirst(TIMEOUT);
+
+        assertThat(deltas.get(0).isSnapshot()).isTrue();
+        assertThat(deltas.subList(1, deltas.size())).noneMatch(MissionStateDelta::isSnapshot);
+        structure.allBlocks().stream().filter(structure::isLeaf)
+                .forEach(leaf -> assertThat(finished.resultOf(leaf)).isEqualTo(Result.SUCCESS));
+    }
+
+    @Test
+    public void finishedBlocksAreTimed() {
+        executor.instructRoot(StrandCommand.RESUME);
+
+        MissionState finished = MissionStateDeltas.statesOf(executor.stateDeltas())
+                .filter(s -> s.runState() == RunState.FINISHED)
+                .blockFirst(TIMEOUT);
+
+        BlockTiming root = finished.timingOf(structure.rootBlock()).get();
+        assertThat(root.end()).isPresent();
+        structure.allBlocks().stream().filter(structure::isLeaf).forEach(leaf -> {
+            BlockTiming timing = finished.timingOf(leaf).get();
+            assertThat(timing.start()).isGreaterThanOrEqualTo(root.start());
+            assertThat(timing.end().get()).isLessThanOrEqualTo(root.end().get());
+        });
+    }
+
+}
@@ -0,0 +1,94 @@
+package io.molr.mole.core.tree;
+
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.*;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.RunnableLeafsMole;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetentionPolicyTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Mission MISSION = new Mission("retention");
+
+    @Test
+    public void finishedInstancesBeyondTheLimitAreArchived() {
+        RunnableLeafsMole mole = moleWith(RetentionPolicy.builder().maxFinishedInstances(1).build());
+
+        MissionHandle first = runToEnd(mole);
+        MissionHandle second = runToEnd(mole);
+
+        mole.states().filter(state -> state.activeMissions().size() == 1).blockFirst(TIMEOUT);
+        assertThat(mole.states().blockFirst(TIMEOUT).activeMissions()).containsOnly(new MissionInstance(second, MISSION));
+
+        List<MissionState> archivedStates = mole.statesFor(first).collectList().block(TIMEOUT);
+        assertThat(archivedStates).hasSize(1);
+        assertThat(archivedStates.get(0).runState()).isEqualTo(RunState.FINISHED);
+        assertThat(archivedStates.get(0).result()).isEqualTo(Result.SUCCESS);
+    }
+
+    @Test
+    public void archivedInstancesBeyondTheArchiveLimitAreForgotten() {
+        RunnableLeafsMole mole = moleWith(RetentionPolicy.builder().maxFinishedInstances(0).maxArchivedInstances(0).build());
+
+        MissionHandle handle = runToEnd(mole);
+
+        mole.states().filter(state -> state.activeMissions().isEmpty()).blockFirst(TIMEOUT);
+        assertThat(mole.statesFor(handle).materialize().blockFirst(TIMEOUT).hasError()).isTrue();
+    }
+
+    @Test
+    public void finishedInstancesAreKeptUntilTheirTimeToLiveIsOver() {
+        RunnableLeafsMole mole = moleWith(RetentionPolicy.builder().finishedTimeToLive(Duration.ofMillis(500)).build());
+
+        MissionHandle handle = runToEnd(mole);
+        assertThat(mole.states().blockFirst(TIMEOUT).activeMissions()).containsOnly(new MissionInstance(handle, MISSION));
+
+        mole.states().filter(state -> state.activeMissions().isEmpty()).blockFirst(TIMEOUT);
+        assertThat(mole.statesFor(handle).blockLast(TIMEOUT).runState()).isEqualTo(RunState.FINISHED);
+    }
+
+    @Test
+    public void maxAgeDoesNotEvictInstancesWhichDidNotFinish() throws InterruptedException {
+        RunnableLeafsMole mole = moleWith(RetentionPolicy.builder().maxAge(Duration.ofMillis(100)).build());
+
+        MissionHandle paused = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        MissionHandle finished = runToEnd(mole);
+
+        mole.states().filter(state -> state.activeMissions().size() == 1).blockFirst(TIMEOUT);
+        TimeUnit.MILLISECONDS.sleep(1500);
+        assertThat(mole.states().blockFirst(TIMEOUT).activeMissions()).containsOnly(new MissionInstance(paused, MISSION));
+        assertThat(mole.statesFor(finished).blockLast(TIMEOUT).runState()).isEqualTo(RunState.FINISHED);
+    }
+
+    private static MissionHandle runToEnd(RunnableLeafsMole mole) {
+        MissionHandle handle = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        /* subscribed before resuming, as the instance might be evicted as soon as it finishes */
+        Mono<MissionState> finished = mole.statesFor(handle).filter(state -> state.runState() == RunState.FINISHED).next().cache();
+        finished.subscribe();
+        mole.instructRoot(handle, StrandCommand.RESUME);
+        finished.block(TIMEOUT);
+        return handle;
+    }
+
+    private static RunnableLeafsMole moleWith(RetentionPolicy retentionPolicy) {
+        RunnableLeafsMission mission = new RunnableLeafsMissionSupport() {
+            {
+                sequential(MISSION.name(), root -> {
+                    root.run("leaf", () -> {
+                    });
+                });
+            }
+        }.build();
+        return new RunnableLeafsMole(ImmutableSet.of(mission), StrandSchedulers.shared(), retentionPolicy);
+    }
+}
@@ -0,0 +1,68 @@
+package io.molr.mole.core.tree;
+
+import com.google.common.collect.ImmutableSet;
+import io.molr.commons.domain.*;
+import io.molr.mole.core.runnable.RunnableLeafsMission;
+import io.molr.mole.core.runnable.RunnableLeafsMole;
+import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TreeMissionExecutorLifecycleTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Mission MISSION = new Mission("lifecycle");
+
+    private RunnableLeafsMole mole;
+
+    @Before
+    public void setUp() {
+        RunnableLeafsMission mission = new RunnableLeafsMissionSupport() {
+            {
+                sequential(MISSION.name(), root -> {
+                    root.run("first", () -> {
+                    });
+                    root.parallel("parallel", parallel -> {
+                        parallel.run("second", () -> {
+                        });
+                        parallel.run("third", () -> {
+                        });
+                    });
+                });
+            }
+        }.build();
+        mole = new RunnableLeafsMole(ImmutableSet.of(mission), StrandSchedulers.shared(), RetentionPolicy.keepAll());
+    }
+
+    @Test
+    public void finishedMissionCompletesItsStreams() {
+        MissionHandle handle = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        mole.instructRoot(handle, StrandCommand.RESUME);
+
+        MissionState lastState = mole.statesFor(handle).blockLast(TIMEOUT);
+        assertThat(lastState.runState()).isEqualTo(RunState.FINISHED);
+        assertThat(lastState.result()).isEqualTo(Result.SUCCESS);
+        assertThat(mole.stateDeltasFor(handle).then().block(TIMEOUT)).isNull();
+        assertThat(mole.outputsFor(handle).then().block(TIMEOUT)).isNull();
+        assertThat(mole.outputEventsFor(handle).then().block(TIMEOUT)).isNull();
+    }
+
+    @Test
+    public void disposedInstanceCompletesItsStreamsAndIsForgotten() {
+        MissionHandle handle = mole.instantiate(MISSION, Collections.emptyMap()).block(TIMEOUT);
+        Mono<Void> statesCompleted = mole.statesFor(handle).then().cache();
+        statesCompleted.subscribe();
+
+        mole.dispose(handle);
+
+        statesCompleted.block(TIMEOUT);
+        mole.states().filter(state -> state.activeMissions().isEmpty()).blockFirst(TIMEOUT);
+        assertThat(mole.statesFor(handle).materialize().blockFirst(TIMEOUT).hasError()).isTrue();
+    }
+}
@@ -1,5 +1,6 @@
 package io.molr.mole.core.tree;
 
+import com.google.common.collect.ImmutableSet;
 import io.molr.commons.domain.Block;
 import io.molr.mole.core.runnable.RunnableLeafsMission;
 import io.molr.mole.core.runnable.lang.RunnableLeafsMissionSupport;
@@ -120,6 +121,68 @@ public class TreeStructureTest {
         assertThat(STRUCTURE.nextBlock(PARALLEL_B)).contains(FOURTH);
     }
 
+    @Test
+    public void testParentOf() {
+        assertThat(STRUCTURE.parentOf(STRUCTURE.rootBlock())).isEmpty();
+        assertThat(STRUCTURE.parentOf(FIRST)).contains(STRUCTURE.rootBlock());
+        assertThat(STRUCTURE.parentOf(SECOND_B)).contains(SECOND);
+        assertThat(STRUCTURE.parentOf(PARALLEL_A)).contains(PARALLEL);
+        assertThat(STRUCTURE.parentOf(Block.idAndText("unknown", "unknown"))).isEmpty();
+    }
+
+    @Test
+    public void testDepthOf() {
+        assertThat(STRUCTURE.depthOf(STRUCTURE.rootBlock())).isEqualTo(0);
+        assertThat(STRUCTURE.depthOf(THIRD)).isEqualTo(1);
+        assertThat(STRUCTURE.depthOf(FOURTH_A)).isEqualTo(2);
+    }
+
+    @Test
+    public void testAllBlocksIteratesParentBeforeChildren() {
+        assertThat(STRUCTURE.allBlocks()).containsExactly(STRUCTURE.rootBlock(), FIRST, FIRST_A, FIRST_B, SECOND,
+                SECOND_A, SECOND_B, THIRD, PARALLEL, PARALLEL_A, PARALLEL_B, FOURTH, FOURTH_A);
+    }
+
+    @Test
+    public void testNavigationStaysInsideSubstructure() {
+        TreeStructure secondSubtree = STRUCTURE.substructure(SECOND);
+
+        assertThat(secondSubtree.nextBlock(SECOND_A)).contains(SECOND_B);
+        assertThat(secondSubtree.nextBlock(SECOND_B)).isEmpty();
+        assertThat(secondSubtree.nextBlock(SECOND)).isEmpty();
+        assertThat(secondSubtree.parentOf(SECOND)).isEmpty();
+        assertThat(secondSubtree.depthOf(SECOND_A)).isEqualTo(1);
+        assertThat(secondSubtree.contains(FIRST)).isFalse();
+        assertThat(secondSubtree.childrenOf(STRUCTURE.rootBlock())).isEmpty();
+    }
+
+    @Test
+    public void testSubstructureOfParallelBlockHasNoParallelAncestors() {
+        TreeStructure parallelSubtree = STRUCTURE.substructure(PARALLEL);
+        TreeStructure branchSubtree = STRUCTURE.substructure(PARALLEL_A);
+
+        assertThat(parallelSubtree.hasParallelAncestor(PARALLEL_A)).isTrue();
+        assertThat(branchSubtree.hasParallelAncestor(PARALLEL_A)).isFalse();
+        assertThat(branchSubtree.isParallel(PARALLEL)).isFalse();
+    }
+
+    @Test
+    public void testIsDescendantOf() {
+        assertThat(STRUCTURE.isDescendantOf(FIRST_A, FIRST)).isTrue();
+        assertThat(STRUCTURE.isDescendantOf(FIRST, FIRST)).isTrue();
+        assertThat(STRUCTURE.isDescendantOf(PARALLEL_B, STRUCTURE.rootBlock())).isTrue();
+        assertThat(STRUCTURE.isDescendantOf(SECOND_A, FIRST)).isFalse();
+        assertThat(STRUCTURE.isDescendantOf(FIRST, FIRST_A)).isFalse();
+    }
+
+    @Test
+    public void testSubstructureRepresentationEqualsCopiedOne() {
+        TreeStructure firstSubtree = STRUCTURE.substructure(FIRST);
+
+        assertThat(firstSubtree.missionRepresentation().parentsToChildren().get(FIRST)).containsExactly(FIRST_A, FIRST_B);
+        assertThat(firstSubtree).isEqualTo(new TreeStructure(firstSubtree.missionRepresentation(), ImmutableSet.of()));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSubstructureOfUnknownBlockThrows() {
         STRUCTURE.substructure(Block.idAndText("unknown", "unknown"));
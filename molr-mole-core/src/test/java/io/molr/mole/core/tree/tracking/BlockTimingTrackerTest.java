@@ -0,0 +1,60 @@
+package io.molr.mole.core.tree.tracking;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.BlockTiming;
+import io.molr.commons.domain.ImmutableMissionRepresentation;
+import io.molr.commons.domain.MissionRepresentation;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BlockTimingTrackerTest {
+
+    private static final Block ROOT = Block.idAndText("root", "root");
+    private static final Block FIRST = Block.idAndText("first", "first");
+    private static final Block FIRST_A = Block.idAndText("firstA", "first A");
+    private static final Block FIRST_B = Block.idAndText("firstB", "first B");
+    private static final Block SECOND = Block.idAndText("second", "second");
+
+    private static final MissionRepresentation REPRESENTATION = ImmutableMissionRepresentation.builder(ROOT)
+            .parentToChild(ROOT, FIRST)
+            .parentToChild(FIRST, FIRST_A)
+            .parentToChild(FIRST, FIRST_B)
+            .parentToChild(ROOT, SECOND)
+            .build();
+
+    @Test
+    public void innerBlocksSpanTheirLeavesAndSumTheirCpuTime() {
+        BlockTimingTracker tracker = BlockTimingTracker.create(REPRESENTATION);
+        long origin = System.nanoTime();
+
+        tracker.started(FIRST_A, origin + 100);
+        tracker.started(FIRST_B, origin + 200);
+        tracker.finished(FIRST_A, origin + 400, 50);
+        assertThat(tracker.resultFor(FIRST_A).wallTime()).isPresent();
+        assertThat(tracker.resultFor(FIRST).end()).isEmpty();
+
+        tracker.finished(FIRST_B, origin + 1000, 70);
+        BlockTiming first = tracker.resultFor(FIRST);
+        assertThat(first.wallTime()).isEqualTo(tracker.resultFor(FIRST_B).end().map(end -> end.minus(tracker.resultFor(FIRST_A).start())));
+        assertThat(first.cpuTime()).isEqualTo(Duration.ofNanos(120));
+        assertThat(tracker.resultFor(ROOT).end()).isPresent();
+        assertThat(tracker.resultFor(SECOND)).isNull();
+    }
+
+    @Test
+    public void onlyTimedBlocksAreEmitted() {
+        BlockTimingTracker tracker = BlockTimingTracker.create(REPRESENTATION);
+
+        tracker.started(SECOND, System.nanoTime());
+
+        assertThat(tracker.blockResults()).containsOnlyKeys(SECOND, ROOT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timingAnInnerBlockFails() {
+        BlockTimingTracker.create(REPRESENTATION).started(FIRST, System.nanoTime());
+    }
+}
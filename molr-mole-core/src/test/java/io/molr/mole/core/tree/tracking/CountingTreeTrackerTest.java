@@ -0,0 +1,89 @@
+package io.molr.mole.core.tree.tracking;
+
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.ImmutableMissionRepresentation;
+import io.molr.commons.domain.MissionRepresentation;
+import io.molr.commons.domain.Result;
+import io.molr.commons.domain.RunState;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountingTreeTrackerTest {
+
+    private static final Block ROOT = Block.idAndText("root", "root");
+    private static final Block FIRST = Block.idAndText("first", "first");
+    private static final Block FIRST_A = Block.idAndText("firstA", "first A");
+    private static final Block FIRST_B = Block.idAndText("firstB", "first B");
+    private static final Block SECOND = Block.idAndText("second", "second");
+
+    private static final MissionRepresentation REPRESENTATION = ImmutableMissionRepresentation.builder(ROOT)
+            .parentToChild(ROOT, FIRST)
+            .parentToChild(FIRST, FIRST_A)
+            .parentToChild(FIRST, FIRST_B)
+            .parentToChild(ROOT, SECOND)
+            .build();
+
+    @Test
+    public void pushedResultsAreSummarizedUpToTheRoot() {
+        CountingTreeTracker<Result> tracker = CountingTreeTracker.create(REPRESENTATION, Result.UNDEFINED, Result::summaryOf);
+        assertThat(tracker.resultFor(ROOT)).isEqualTo(Result.UNDEFINED);
+
+        tracker.push(FIRST_A, Result.SUCCESS);
+        tracker.push(FIRST_B, Result.SUCCESS);
+        assertThat(tracker.resultFor(FIRST)).isEqualTo(Result.SUCCESS);
+        assertThat(tracker.resultFor(ROOT)).isEqualTo(Result.UNDEFINED);
+
+        tracker.push(SECOND, Result.FAILED);
+        assertThat(tracker.resultFor(ROOT)).isEqualTo(Result.FAILED);
+
+        tracker.push(SECOND, Result.SUCCESS);
+        assertThat(tracker.resultFor(ROOT)).isEqualTo(Result.SUCCESS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pushingToAnInnerBlockFails() {
+        CountingTreeTracker.create(REPRESENTATION, Result.UNDEFINED, Result::summaryOf).push(FIRST, Result.SUCCESS);
+    }
+
+    @Test
+    public void onlyChangedBlocksAreEmitted() {
+        CountingTreeTracker<RunState> tracker = CountingTreeTracker.create(REPRESENTATION, RunState.UNDEFINED, RunState::summaryOf);
+        List<Block> updated = new ArrayList<>();
+        tracker.updatedBlocks().subscribe(updated::add);
+
+        tracker.push(FIRST_A, RunState.RUNNING);
+        tracker.push(FIRST_A, RunState.RUNNING);
+        tracker.push(FIRST_B, RunState.PAUSED);
+
+        assertThat(updated).containsExactly(FIRST_A, FIRST, ROOT, FIRST_B);
+    }
+
+    @Test
+    public void resultUpdatesStartWithTheActualValue() {
+        CountingTreeTracker<Result> tracker = CountingTreeTracker.create(REPRESENTATION, Result.UNDEFINED, Result::summaryOf);
+        tracker.push(SECOND, Result.FAILED);
+        assertThat(tracker.resultUpdatesFor(ROOT).blockFirst(Duration.ofSeconds(1))).isEqualTo(Result.FAILED);
+    }
+
+    @Test
+    public void summariesAreTheSameAsTheOnesOfTheTreeTracker() {
+        CountingTreeTracker<RunState> counting = CountingTreeTracker.create(REPRESENTATION, RunState.UNDEFINED, RunState::summaryOf);
+        TreeTracker<RunState> reactive = TreeTracker.create(REPRESENTATION, RunState.UNDEFINED, RunState::summaryOf);
+        Block[] leaves = {FIRST_A, FIRST_B, SECOND};
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            Block leaf = leaves[random.nextInt(leaves.length)];
+            RunState runState = RunState.values()[random.nextInt(RunState.values().length)];
+            counting.push(leaf, runState);
+            reactive.push(leaf, runState);
+            assertThat(counting.blockResults()).isEqualTo(reactive.blockResults());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.molr.mole.remote.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.molr.commons.domain.dto.ChannelMessageDto;
+import io.molr.commons.exception.MolrRemoteException;
+import io.molr.mole.core.api.MoleWebApi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.UnicastProcessor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.molr.commons.util.Exceptions.exception;
+import static io.molr.commons.util.Exceptions.illegalArgumentException;
+
+/**
+ * One websocket to a mole server which carries all the streams and commands of a {@link RestRemoteMole} (see
+ * {@code MolrMoleChannelHandler} on the server side). Each subscription to a stream opens a separate stream on the
+ * server, which only sends the items requested by the subscriber. The websocket is opened on creation and is not
+ * reopened if it closes: the open streams and all the streams subscribed afterwards then emit an error.
+ */
+final class MoleChannel implements MoleTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoleChannel.class);
+
+    private final URI uri;
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final UnicastProcessor<String> outbound = UnicastProcessor.create();
+    private final FluxSink<String> outboundSink = outbound.sink();
+    private final Map<Long, Stream<?>> streams = new ConcurrentHashMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+    private volatile Throwable closed;
+
+    private MoleChannel(URI uri) {
+        this.uri = uri;
+    }
+
+    static MoleChannel connectTo(String baseUrl) {
+        MoleChannel channel = new MoleChannel(channelUri(baseUrl));
+        channel.connect();
+        return channel;
+    }
+
+    /**
+     * @return the websocket uri of the channel on the server with the given http url
+     */
+    static URI channelUri(String baseUrl) {
+        String url = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        if (url.startsWith("https:")) {
+            return URI.create("wss:" + url.substring("https:".length()) + MoleWebApi.CHANNEL_PATH);
+        }
+        if (url.startsWith("http:")) {
+            return URI.create("ws:" + url.substring("http:".length()) + MoleWebApi.CHANNEL_PATH);
+        }
+        throw illegalArgumentException("Base url '{}' is neither http nor https", baseUrl);
+    }
+
+    private void connect() {
+        new ReactorNettyWebSocketClient().execute(uri, session -> session.send(outbound.map(session::textMessage))
+                .and(session.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .doOnNext(this::onMessage)
+                        .doFinally(signal -> outboundSink.complete())
+                        .then()))
+                .subscribe(nothing -> { /* the session never emits */ },
+                        e -> close(exception(MolrRemoteException.class, "Channel {} failed: {}", uri, e.getMessage())),
+                        () -> close(exception(MolrRemoteException.class, "Channel {} was closed", uri)));
+    }
+
+    @Override
+    public <T> Flux<T> flux(String path, Class<T> type) {
+        return Flux.create(sink -> {
+            long id = lastId.incrementAndGet();
+            streams.put(id, new Stream<>(path, type, sink));
+            Throwable closedCause = closed;
+            if (closedCause != null) {
+                streams.remove(id);
+                sink.error(closedCause);
+                return;
+            }
+            send(ChannelMessageDto.subscribe(id, path));
+            sink.onCancel(() -> {
+                if (streams.remove(id) != null) {
+                    send(ChannelMessageDto.cancel(id));
+                }
+            });
+            sink.onRequest(demand -> send(ChannelMessageDto.request(id, demand)));
+        });
+    }
+
+    @Override
+    public <T> Mono<T> command(String path, Class<T> type) {
+        MonoProcessor<T> response = MonoProcessor.create();
+        Flux.<T>create(sink -> {
+            long id = lastId.incrementAndGet();
+            streams.put(id, new Stream<>(path, type, sink));
+            Throwable closedCause = closed;
+            if (closedCause != null) {
+                streams.remove(id);
+                sink.error(closedCause);
+                return;
+            }
+            send(ChannelMessageDto.command(id, path));
+        }).next().subscribe(response);
+        return response;
+    }
+
+    private void send(ChannelMessageDto message) {
+        try {
+            outboundSink.next(mapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Could not serialize {} for channel {}", message, uri, e);
+        }
+    }
+
+    private void onMessage(String text) {
+        ChannelMessageDto message;
+        try {
+            message = mapper.readValue(text, ChannelMessageDto.class);
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable message from channel {}: {}", uri, text, e);
+            return;
+        }
+
+        /* messages can still arrive for streams which were cancelled in the meantime */
+        switch (message.type) {
+            case NEXT:
+                Stream<?> stream = streams.get(message.id);
+                if (stream != null) {
+                    stream.next(message.payload);
+                }
+                return;
+            case COMPLETE:
+                Stream<?> completed = streams.remove(message.id);
+                if (completed != null) {
+                    completed.sink.complete();
+                }
+                return;
+            case ERROR:
+                Stream<?> failed = streams.remove(message.id);
+                if (failed != null) {
+                    failed.sink.error(exception(MolrRemoteException.class, "Stream '{}' failed on the server: {}", failed.path, message.error));
+                }
+                return;
+            default:
+                LOGGER.warn("Ignoring message of unexpected type from channel {}: {}", uri, message);
+        }
+    }
+
+    private void close(Throwable cause) {
+        LOGGER.warn("Channel {} closed, failing {} open streams", uri, streams.size());
+        closed = cause;
+        outboundSink.complete();
+        streams.keySet().forEach(id -> {
+            Stream<?> stream = streams.remove(id);
+            if (stream != null) {
+                stream.sink.error(cause);
+            }
+        });
+    }
+
+    private final class Stream<T> {
+
+        private final String path;
+        private final Class<T> type;
+        private final FluxSink<T> sink;
+
+        private Stream(String path, Class<T> type, FluxSink<T> sink) {
+            this.path = path;
+            this.type = type;
+            this.sink = sink;
+        }
+
+        private void next(Object payload) {
+            sink.next(mapper.convertValue(payload, type));
+        }
+    }
+}
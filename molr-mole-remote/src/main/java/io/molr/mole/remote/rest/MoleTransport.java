@@ -0,0 +1,26 @@
+package io.molr.mole.remote.rest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * How a {@link RestRemoteMole} follows the streams of a mole server and sends commands to it: one http request each
+ * ({@link MoleWebClient}) or all over one connection ({@link MoleChannel})
+ */
+interface MoleTransport {
+
+    /**
+     * @param uri the rest path of the stream, see {@link io.molr.mole.core.api.MoleWebApi}
+     * @param type the DTO type of the items
+     */
+    <T> Flux<T> flux(String uri, Class<T> type);
+
+    /**
+     * Sends the command immediately, independent of a subscription to the returned mono
+     *
+     * @param uri the rest path of the command, see {@link io.molr.mole.core.api.MoleWebApi}
+     * @param type the DTO type of the response
+     * @return the response of the server to the command
+     */
+    <T> Mono<T> command(String uri, Class<T> type);
+}
@@ -1,49 +1,116 @@
 package io.molr.mole.remote.rest;
 
 import io.molr.commons.exception.MolrRemoteException;
+import io.molr.mole.core.api.MoleWebApi;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static io.molr.commons.util.Exceptions.exception;
 import static java.util.Objects.requireNonNull;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
-import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 
-public class MoleWebClient {
+public class MoleWebClient implements MoleTransport {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(MoleWebClient.class);
 
+    /* a stream is given up after this number of reconnection attempts without receiving any item */
+    private static final int MAX_RECONNECT_ATTEMPTS = 5;
+    private static final Duration FIRST_RECONNECT_DELAY = Duration.ofMillis(100);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(5);
+
     private final WebClient client;
+    private final StreamEncoding streamEncoding;
 
-    private MoleWebClient(String baseUrl) {
+    private MoleWebClient(String baseUrl, StreamEncoding streamEncoding) {
         requireNonNull(baseUrl, "baseUrl must not be null");
+        this.streamEncoding = requireNonNull(streamEncoding, "streamEncoding must not be null");
         client = WebClient.create(baseUrl);
     }
 
     public static MoleWebClient withBaseUrl(String baseUrl) {
-        return new MoleWebClient(baseUrl);
+        return withBaseUrl(baseUrl, StreamEncoding.JSON);
+    }
+
+    /**
+     * @param streamEncoding the encoding in which the streams are requested from the server
+     */
+    public static MoleWebClient withBaseUrl(String baseUrl, StreamEncoding streamEncoding) {
+        return new MoleWebClient(baseUrl, streamEncoding);
     }
 
+    /**
+     * Retrieves the stream at the given uri, with one request per subscription. Sharing a request among several
+     * subscribers is up to the caller (see {@link SharedStreams}), as only the caller knows whether the items can be
+     * replayed to late subscribers.
+     * <p>
+     * If the connection fails, it is reopened with an increasing delay. Streams of server sent events are resumed after
+     * the last event received, if the server numbers them, the other ones start over. Errors answered by the server
+     * (e.g. for an unknown mission instance) are not retried.
+     */
+    @Override
     public <T> Flux<T> flux(String uri, Class<T> type) {
-        return clientResponseForGet(uri, TEXT_EVENT_STREAM)
-                .flatMapMany(response -> response.bodyToFlux(type))
-                .cache();
+        return Flux.defer(() -> {
+            AtomicReference<String> lastEventId = new AtomicReference<>();
+            AtomicInteger failedAttempts = new AtomicInteger();
+            return Flux.defer(() -> items(uri, type, lastEventId))
+                    .doOnNext(item -> failedAttempts.set(0))
+                    .retryWhen(errors -> errors.concatMap(error -> {
+                        int attempt = failedAttempts.incrementAndGet();
+                        if (error instanceof MolrRemoteException || attempt > MAX_RECONNECT_ATTEMPTS) {
+                            return Mono.error(error);
+                        }
+                        Duration delay = reconnectDelay(attempt);
+                        LOGGER.warn("Stream {} failed, reconnecting in {} ms (attempt {}): {}", uri, delay.toMillis(), attempt, error.toString());
+                        return Mono.delay(delay);
+                    }));
+        });
+    }
+
+    private <T> Flux<T> items(String uri, Class<T> type, AtomicReference<String> lastEventId) {
+        if (streamEncoding != StreamEncoding.JSON) {
+            return clientResponseForGet(uri, streamEncoding.mediaType(), null).flatMapMany(response -> response.bodyToFlux(type));
+        }
+        ParameterizedTypeReference<ServerSentEvent<T>> eventType = ParameterizedTypeReference.forType(ResolvableType.forClassWithGenerics(ServerSentEvent.class, type).getType());
+        return clientResponseForGet(uri, streamEncoding.mediaType(), lastEventId.get())
+                .flatMapMany(response -> response.body(BodyExtractors.toFlux(eventType)))
+                .doOnNext(event -> {
+                    if (event.id() != null) {
+                        lastEventId.set(event.id());
+                    }
+                })
+                .filter(event -> event.data() != null)
+                .map(ServerSentEvent::data);
+    }
+
+    private static Duration reconnectDelay(int attempt) {
+        Duration delay = FIRST_RECONNECT_DELAY.multipliedBy(1L << Math.min(attempt - 1, 16));
+        return delay.compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : delay;
     }
 
     public <T> Mono<T> mono(String uri, Class<T> type) {
         return clientResponseForGet(uri, APPLICATION_JSON).flatMap(response -> response.bodyToMono(type));
     }
 
-    public void post(String uri, MediaType mediaType, BodyInserter<?, ? super ClientHttpRequest> body) {
-        clientResponseForPost(uri, mediaType, body);
+    @Override
+    public <T> Mono<T> command(String uri, Class<T> type) {
+        return postMono(uri, APPLICATION_JSON, BodyInserters.empty(), type);
     }
 
     public <T> Mono<T> postMono(String uri, MediaType mediaType, BodyInserter<?, ? super ClientHttpRequest> body, Class<T> type) {
@@ -56,8 +123,15 @@ public class MoleWebClient {
     }
 
     private Mono<ClientResponse> clientResponseForGet(String uri, MediaType mediaType) {
-        Mono<ClientResponse> preparedRequest = client.get().uri(uri).accept(mediaType).exchange();
-        return triggerRequest(uri, preparedRequest);
+        return clientResponseForGet(uri, mediaType, null);
+    }
+
+    private Mono<ClientResponse> clientResponseForGet(String uri, MediaType mediaType, String lastEventId) {
+        WebClient.RequestHeadersSpec<?> request = client.get().uri(uri).accept(mediaType);
+        if (lastEventId != null) {
+            request = request.header(MoleWebApi.LAST_EVENT_ID_HEADER, lastEventId);
+        }
+        return triggerRequest(uri, request.exchange());
     }
 
     private static Mono<ClientResponse> triggerRequest(String uri, Mono<ClientResponse> preparedRequest) {
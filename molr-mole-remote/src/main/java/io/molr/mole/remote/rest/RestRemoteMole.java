@@ -4,10 +4,9 @@ import io.molr.commons.domain.*;
 import io.molr.commons.domain.dto.*;
 import io.molr.mole.core.api.Mole;
 import io.molr.mole.core.api.MoleWebApi;
+import io.molr.mole.core.utils.MissionStateDeltas;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
-import org.springframework.web.reactive.function.BodyInserters;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -22,10 +21,40 @@ public class RestRemoteMole implements Mole {
     private final static Logger LOGGER = LoggerFactory.getLogger(RestRemoteMole.class);
 
     private final MoleWebClient clientUtils;
+    /* the streams and commands go either over the web client as well or over a multiplexed channel */
+    private final MoleTransport transport;
+    private final SharedStreams sharedStreams = new SharedStreams();
 
     public RestRemoteMole(String baseUrl) {
+        this(baseUrl, StreamEncoding.JSON);
+    }
+
+    /**
+     * @param streamEncoding the encoding in which the streams are transferred, {@link StreamEncoding#SMILE} saves
+     * bandwidth and parsing time for clients following many or large streams
+     */
+    public RestRemoteMole(String baseUrl, StreamEncoding streamEncoding) {
+        requireNonNull(baseUrl, "baseUrl must not be null");
+        this.clientUtils = MoleWebClient.withBaseUrl(baseUrl, streamEncoding);
+        this.transport = clientUtils;
+    }
+
+    private RestRemoteMole(MoleWebClient clientUtils, MoleTransport transport) {
+        this.clientUtils = clientUtils;
+        this.transport = transport;
+    }
+
+    /**
+     * Creates a remote mole which follows all the streams and sends all the commands over one websocket (see
+     * {@link MoleWebApi#CHANNEL_PATH}), instead of one http connection per stream. Each stream is still subscribed
+     * separately and only receives the items requested by its subscribers. This is the preferred option for clients
+     * following many mission instances at once. The other requests (e.g. instantiating a mission) still use http.
+     *
+     * @param baseUrl the http url of the mole server, the channel is opened on the same host and port
+     */
+    public static RestRemoteMole multiplexed(String baseUrl) {
         requireNonNull(baseUrl, "baseUrl must not be null");
-        this.clientUtils = MoleWebClient.withBaseUrl(baseUrl);
+        return new RestRemoteMole(MoleWebClient.withBaseUrl(baseUrl), MoleChannel.connectTo(baseUrl));
     }
 
 
@@ -33,8 +62,8 @@ public class RestRemoteMole implements Mole {
 
     @Override
     public Flux<AgencyState> states() {
-        return clientUtils.flux("/states", AgencyStateDto.class)
-                .map(AgencyStateDto::toAgencyState);
+        return sharedStreams.shared(MoleWebApi.STATES_PATH, () -> transport.flux(MoleWebApi.STATES_PATH, AgencyStateDto.class)
+                .map(AgencyStateDto::toAgencyState));
 
     }
 
@@ -50,23 +79,48 @@ public class RestRemoteMole implements Mole {
                 .map(MissionParameterDescriptionDto::toMissionParameterDescription);
     }
 
+    /**
+     * The states are rebuilt from the delta stream, so that only the changes are transferred over the network. All the
+     * subscribers of the same instance share one delta stream, late subscribers start with the latest rebuilt state.
+     */
     @Override
     public Flux<MissionState> statesFor(MissionHandle handle) {
-        return clientUtils.flux(MoleWebApi.instanceStatesUrl(handle.id()), MissionStateDto.class)
-                .map(MissionStateDto::toMissionState);
+        String uri = MoleWebApi.instanceStateDeltasUrl(handle.id());
+        return sharedStreams.shared(uri, () -> MissionStateDeltas.statesOf(transport.flux(uri, MissionStateDeltaDto.class)
+                .map(MissionStateDeltaDto::toMissionStateDelta)));
+    }
+
+    /**
+     * The deltas are derived from the shared {@link #statesFor(MissionHandle)}, so that each subscriber starts with a
+     * snapshot, no matter when it joins
+     */
+    @Override
+    public Flux<MissionStateDelta> stateDeltasFor(MissionHandle handle) {
+        return MissionStateDeltas.deltasOf(statesFor(handle));
     }
 
     @Override
     public Flux<MissionOutput> outputsFor(MissionHandle handle) {
-        return clientUtils.flux(MoleWebApi.instanceOutputsUrl(handle.id()), MissionOutputDto.class)
-                .map(MissionOutputDto::toMissionOutput);
+        String uri = MoleWebApi.instanceOutputsUrl(handle.id());
+        return sharedStreams.shared(uri, () -> transport.flux(uri, MissionOutputDto.class)
+                .map(MissionOutputDto::toMissionOutput));
     }
 
+    /**
+     * The events are not shared among the subscribers, each one gets its own stream, which starts with the actual
+     * output values
+     */
+    @Override
+    public Flux<MissionOutputEvent> outputEventsFor(MissionHandle handle) {
+        return transport.flux(MoleWebApi.instanceOutputEventsUrl(handle.id()), MissionOutputEventDto.class)
+                .map(MissionOutputEventDto::toMissionOutputEvent);
+    }
 
     @Override
     public Flux<MissionRepresentation> representationsFor(MissionHandle handle) {
-        return clientUtils.flux(MoleWebApi.instanceRepresentationsUrl(handle.id()), MissionRepresentationDto.class)
-                .map(MissionRepresentationDto::toMissionRepresentation);
+        String uri = MoleWebApi.instanceRepresentationsUrl(handle.id());
+        return sharedStreams.shared(uri, () -> transport.flux(uri, MissionRepresentationDto.class)
+                .map(MissionRepresentationDto::toMissionRepresentation));
     }
 
     /* Post requests */
@@ -80,13 +134,20 @@ public class RestRemoteMole implements Mole {
     }
 
     @Override
-    public void instruct(MissionHandle handle, Strand strand, StrandCommand command) {
-        clientUtils.post(MoleWebApi.instructInstance(handle.id(),strand.id(),command.name()), MediaType.APPLICATION_JSON, BodyInserters.empty());
+    public Mono<CommandResponse> instruct(MissionHandle handle, Strand strand, StrandCommand command) {
+        return transport.command(MoleWebApi.instructInstance(handle.id(), strand.id(), command.name()), CommandResponseDto.class)
+                .map(CommandResponseDto::toCommandResponse);
+    }
+
+    @Override
+    public Mono<CommandResponse> instructRoot(MissionHandle handle, StrandCommand command) {
+        return transport.command(MoleWebApi.instructRootInstance(handle.id(), command.name()), CommandResponseDto.class)
+                .map(CommandResponseDto::toCommandResponse);
     }
 
     @Override
-    public void instructRoot(MissionHandle handle, StrandCommand command) {
-        clientUtils.post(MoleWebApi.instructRootInstance(handle.id(),command.name()), MediaType.APPLICATION_JSON, BodyInserters.empty());
+    public void dispose(MissionHandle handle) {
+        transport.command(MoleWebApi.disposeInstance(handle.id()), Void.class);
     }
 
 }
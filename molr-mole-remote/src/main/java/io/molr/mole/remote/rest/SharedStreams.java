@@ -0,0 +1,33 @@
+package io.molr.mole.remote.rest;
+
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The streams of a {@link RestRemoteMole} with at least one subscriber, by key. All the subscribers of the same key
+ * share one subscription to the source, which is made with the first subscriber and cancelled when the last one
+ * leaves. Subscribers joining later receive the latest item first, so only streams of which each item is complete on its
+ * own (e.g. states rebuilt from deltas, but not the deltas themselves) may be shared.
+ */
+final class SharedStreams {
+
+    private final Map<String, Flux<?>> streams = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T> Flux<T> shared(String key, Supplier<Flux<T>> source) {
+        return (Flux<T>) streams.computeIfAbsent(key, k -> sharedFlux(k, source.get()));
+    }
+
+    private <T> Flux<T> sharedFlux(String key, Flux<T> source) {
+        AtomicReference<Flux<T>> shared = new AtomicReference<>();
+        shared.set(source
+                .doFinally(signal -> streams.remove(key, shared.get()))
+                .replay(1)
+                .refCount());
+        return shared.get();
+    }
+}
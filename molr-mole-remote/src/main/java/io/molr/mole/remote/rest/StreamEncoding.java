@@ -0,0 +1,31 @@
+package io.molr.mole.remote.rest;
+
+import io.molr.mole.core.api.MoleWebApi;
+import org.springframework.http.MediaType;
+
+/**
+ * The encodings in which a {@link MoleWebClient} can request the streams from a mole server
+ */
+public enum StreamEncoding {
+
+    /**
+     * Server sent events with JSON data, readable by any client (e.g. browsers)
+     */
+    JSON(MediaType.TEXT_EVENT_STREAM),
+
+    /**
+     * A stream of Smile (binary JSON) values. More compact and cheaper to parse than {@link #JSON}, for clients which
+     * receive many or large items.
+     */
+    SMILE(MediaType.parseMediaType(MoleWebApi.APPLICATION_STREAM_SMILE_VALUE));
+
+    private final MediaType mediaType;
+
+    StreamEncoding(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
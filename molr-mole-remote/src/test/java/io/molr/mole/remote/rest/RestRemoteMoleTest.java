@@ -4,6 +4,8 @@ import io.molr.commons.domain.*;
 import io.molr.mole.core.api.Mole;
 import io.molr.mole.core.tree.ConcurrentMissionOutputCollector;
 import io.molr.mole.core.tree.MissionOutputCollector;
+import io.molr.mole.core.utils.MissionStateDeltas;
+import io.molr.mole.server.conf.MolrMoleChannelConfiguration;
 import io.molr.mole.server.rest.MolrMoleRestService;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -15,11 +17,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.ReplayProcessor;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -32,7 +37,7 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = DEFINED_PORT)
-@ContextConfiguration(classes = MolrMoleRestService.class)
+@ContextConfiguration(classes = {MolrMoleRestService.class, MolrMoleChannelConfiguration.class})
 @EnableAutoConfiguration
 public class RestRemoteMoleTest {
 
@@ -62,6 +67,11 @@ public class RestRemoteMoleTest {
 
         when(mole.representationsFor(any(MissionHandle.class))).thenReturn(Flux.just(AN_EMPTY_REPRESENTATION));
 
+        when(mole.instruct(any(), any(), any())).thenAnswer(invocation ->
+                Mono.just(CommandResponse.accepted(invocation.getArgument(1), invocation.getArgument(2))));
+        when(mole.instructRoot(any(), any())).thenAnswer(invocation ->
+                Mono.just(CommandResponse.rejected(STRAND1, invocation.getArgument(1), "not allowed")));
+
         MissionState.Builder builder = MissionState.builder(Result.SUCCESS);
         builder.add(STRAND1, RunState.PAUSED, BLOCK1, Collections.singleton(StrandCommand.RESUME));
         builder.add(STRAND2, RunState.FINISHED, BLOCK2, STRAND1, Collections.emptySet());
@@ -69,12 +79,14 @@ public class RestRemoteMoleTest {
         builder.blockRunState(BLOCK2, RunState.FINISHED);
         Flux<MissionState> statesFlux = Flux.fromIterable(Collections.singleton(builder.build()));
         when(mole.statesFor(any(MissionHandle.class))).thenReturn(statesFlux);
+        when(mole.stateDeltasFor(any(MissionHandle.class))).thenReturn(MissionStateDeltas.deltasOf(statesFlux));
 
         MissionOutputCollector outputCollector = new ConcurrentMissionOutputCollector();
         outputCollector.put(BLOCK1, "example", "this is an output example");
         outputCollector.put(BLOCK2, "another example", "this is another output example");
         Flux<MissionOutput> outputValue = outputCollector.asStream();
         when(mole.outputsFor(any(MissionHandle.class))).thenReturn(outputValue);
+        when(mole.outputEventsFor(any(MissionHandle.class))).thenReturn(outputCollector.events());
     }
 
 
@@ -169,6 +181,134 @@ public class RestRemoteMoleTest {
         assertThat(blockResult).isEqualTo(Result.SUCCESS);
     }
 
+    @Test
+    public void stateDeltasForStartsWithSnapshot() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+        MissionStateDelta delta = remoteMole.stateDeltasFor(MissionHandle.ofId("missionHandleId")).blockFirst(Duration.ofSeconds(5));
+
+        assertThat(delta.isSnapshot()).isTrue();
+        assertThat(delta.strandUpdates()).extracting(MissionStateDelta.StrandUpdate::strand).containsExactly(STRAND1, STRAND2);
+        assertThat(delta.strandUpdates().get(1).parent()).contains(STRAND1);
+        assertThat(delta.blockIdsToResult()).containsEntry(BLOCK2.id(), Result.SUCCESS);
+    }
+
+    @Test
+    public void statesForInSmile() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl, StreamEncoding.SMILE);
+        MissionState missionState = remoteMole.statesFor(MissionHandle.ofId("missionHandleId")).blockLast(Duration.ofSeconds(5));
+
+        assertThat(missionState.runStateOf(STRAND1)).isEqualTo(RunState.PAUSED);
+        assertThat(missionState.parentOf(STRAND2)).contains(STRAND1);
+        assertThat(missionState.resultOf(BLOCK2)).isEqualTo(Result.SUCCESS);
+    }
+
+    @Test
+    public void outputEventsForInSmile() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl, StreamEncoding.SMILE);
+        List<MissionOutputEvent> events = remoteMole.outputEventsFor(MissionHandle.ofId("missionHandleId"))
+                .take(2).collectList().block(Duration.ofSeconds(5));
+        assertThat(events).containsExactly(
+                MissionOutputEvent.of(BLOCK1, "example", "this is an output example"),
+                MissionOutputEvent.of(BLOCK2, "another example", "this is another output example"));
+    }
+
+    @Test
+    public void subscribersOfTheSameStreamShareOneRequest() {
+        MissionHandle handle = MissionHandle.ofId("shared");
+        MissionOutput output = MissionOutput.fromBlocks(Collections.singletonMap(BLOCK1, Collections.singletonMap("name", "value")));
+        when(mole.outputsFor(handle)).thenAnswer(invocation -> Flux.just(output).concatWith(Flux.never()));
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+
+        Disposable first = remoteMole.outputsFor(handle).subscribe();
+        assertThat(remoteMole.outputsFor(handle).blockFirst(Duration.ofSeconds(5))).isEqualTo(output);
+        Mockito.verify(mole, Mockito.times(1)).outputsFor(handle);
+
+        first.dispose();
+        assertThat(remoteMole.outputsFor(handle).blockFirst(Duration.ofSeconds(5))).isEqualTo(output);
+        Mockito.verify(mole, Mockito.times(2)).outputsFor(handle);
+    }
+
+    @Test
+    public void lateSubscribersOfStatesStartWithTheLatestState() {
+        MissionHandle handle = MissionHandle.ofId("lateStates");
+        MissionState running = stateWithStrand1In(RunState.RUNNING);
+        MissionState paused = stateWithStrand1In(RunState.PAUSED);
+        ReplayProcessor<MissionStateDelta> deltas = ReplayProcessor.create();
+        when(mole.stateDeltasFor(handle)).thenReturn(deltas);
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+
+        List<MissionState> firstStates = new CopyOnWriteArrayList<>();
+        Disposable first = remoteMole.statesFor(handle).subscribe(firstStates::add);
+        deltas.onNext(MissionStateDelta.snapshotOf(running));
+        remoteMole.statesFor(handle).blockFirst(Duration.ofSeconds(5));
+        deltas.onNext(MissionStateDelta.between(running, paused));
+        remoteMole.statesFor(handle).filter(state -> state.runStateOf(STRAND1) == RunState.PAUSED).blockFirst(Duration.ofSeconds(5));
+
+        MissionState lateState = remoteMole.statesFor(handle).blockFirst(Duration.ofSeconds(5));
+        MissionStateDelta lateDelta = remoteMole.stateDeltasFor(handle).blockFirst(Duration.ofSeconds(5));
+        first.dispose();
+
+        assertThat(firstStates).extracting(state -> state.runStateOf(STRAND1)).containsExactly(RunState.RUNNING, RunState.PAUSED);
+        assertThat(lateState.runStateOf(STRAND1)).isEqualTo(RunState.PAUSED);
+        assertThat(lateDelta.isSnapshot()).isTrue();
+        assertThat(lateDelta.applyTo(null).runStateOf(STRAND1)).isEqualTo(RunState.PAUSED);
+    }
+
+    @Test
+    public void lateSubscribersOfOutputEventsGetAllTheValues() {
+        MissionHandle handle = MissionHandle.ofId("lateEvents");
+        MissionOutputCollector collector = new ConcurrentMissionOutputCollector();
+        when(mole.outputEventsFor(handle)).thenAnswer(invocation -> collector.events());
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+
+        List<MissionOutputEvent> firstEvents = new ArrayList<>();
+        Disposable first = remoteMole.outputEventsFor(handle).subscribe(firstEvents::add);
+        collector.put(BLOCK1, "first", "value1");
+        collector.put(BLOCK1, "second", "value2");
+
+        List<MissionOutputEvent> lateEvents = remoteMole.outputEventsFor(handle).take(2).collectList().block(Duration.ofSeconds(5));
+        first.dispose();
+
+        assertThat(lateEvents).containsExactly(
+                MissionOutputEvent.of(BLOCK1, "first", "value1"),
+                MissionOutputEvent.of(BLOCK1, "second", "value2"));
+    }
+
+    private static MissionState stateWithStrand1In(RunState runState) {
+        MissionState.Builder builder = MissionState.builder(Result.UNDEFINED);
+        builder.add(STRAND1, runState, BLOCK1, Collections.emptySet());
+        return builder.build();
+    }
+
+    @Test
+    public void multiplexedStatesFor() {
+        RestRemoteMole remoteMole = RestRemoteMole.multiplexed(baseUrl);
+        MissionState missionState = remoteMole.statesFor(MissionHandle.ofId("missionHandleId")).blockLast(Duration.ofSeconds(5));
+
+        assertThat(missionState.runStateOf(STRAND1)).isEqualTo(RunState.PAUSED);
+        assertThat(missionState.parentOf(STRAND2)).contains(STRAND1);
+        assertThat(missionState.resultOf(BLOCK2)).isEqualTo(Result.SUCCESS);
+    }
+
+    @Test
+    public void multiplexedStreamsShareTheChannel() {
+        RestRemoteMole remoteMole = RestRemoteMole.multiplexed(baseUrl);
+        Set<Mission> missions = remoteMole.states().map(AgencyState::executableMissions).blockLast(Duration.ofSeconds(5));
+        MissionOutputEvent firstEvent = remoteMole.outputEventsFor(MissionHandle.ofId("missionHandleId")).blockFirst(Duration.ofSeconds(5));
+        List<MissionRepresentation> representations = remoteMole.representationsFor(MissionHandle.ofId("0")).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(missions).contains(new Mission("run a Marathon"), new Mission("swim 10km"));
+        assertThat(firstEvent).isEqualTo(MissionOutputEvent.of(BLOCK1, "example", "this is an output example"));
+        assertThat(representations).containsExactly(AN_EMPTY_REPRESENTATION);
+    }
+
+    @Test
+    public void multiplexedInstruct() {
+        RestRemoteMole remoteMole = RestRemoteMole.multiplexed(baseUrl);
+        remoteMole.instruct(MissionHandle.ofId("missionId"), Strand.ofId("strandId"), StrandCommand.PAUSE);
+        Mockito.verify(mole, Mockito.timeout(5000)).instruct(MissionHandle.ofId("missionId"), Strand.ofId("strandId"), StrandCommand.PAUSE);
+    }
+
     @Ignore
     @Test(expected = IllegalArgumentException.class)
     public void statesForReturnsError() {
@@ -186,6 +326,16 @@ public class RestRemoteMoleTest {
         assertThat(outputs.blockFirst(Duration.ofSeconds(1)).get(BLOCK1, aString("example"))).isEqualTo("this is an output example");
     }
 
+    @Test
+    public void outputEventsFor() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+        List<MissionOutputEvent> events = remoteMole.outputEventsFor(MissionHandle.ofId("missionHandleId"))
+                .take(2).collectList().block(Duration.ofSeconds(5));
+        assertThat(events).containsExactly(
+                MissionOutputEvent.of(BLOCK1, "example", "this is an output example"),
+                MissionOutputEvent.of(BLOCK2, "another example", "this is another output example"));
+    }
+
     @Ignore
     @Test(expected = IllegalArgumentException.class)
     public void outputsForReturnsError() {
@@ -201,6 +351,38 @@ public class RestRemoteMoleTest {
         Mockito.verify(mole, Mockito.timeout(1000).atLeastOnce()).instruct(any(), any(), any());
     }
 
+    @Test
+    public void instructIsAcknowledged() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+        CommandResponse response = remoteMole.instruct(MissionHandle.ofId("missionId"), STRAND1, StrandCommand.PAUSE)
+                .block(Duration.ofSeconds(5));
+        assertThat(response).isEqualTo(CommandResponse.accepted(STRAND1, StrandCommand.PAUSE));
+    }
+
+    @Test
+    public void instructRootReportsRejections() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+        CommandResponse response = remoteMole.instructRoot(MissionHandle.ofId("missionId"), StrandCommand.STEP_OVER)
+                .block(Duration.ofSeconds(5));
+        assertThat(response.isAccepted()).isFalse();
+        assertThat(response.reason()).contains("not allowed");
+    }
+
+    @Test
+    public void multiplexedInstructIsAcknowledged() {
+        RestRemoteMole remoteMole = RestRemoteMole.multiplexed(baseUrl);
+        CommandResponse response = remoteMole.instruct(MissionHandle.ofId("missionId"), STRAND1, StrandCommand.SKIP)
+                .block(Duration.ofSeconds(5));
+        assertThat(response).isEqualTo(CommandResponse.accepted(STRAND1, StrandCommand.SKIP));
+    }
+
+    @Test
+    public void dispose() {
+        RestRemoteMole remoteMole = new RestRemoteMole(baseUrl);
+        remoteMole.dispose(MissionHandle.ofId("missionId"));
+        Mockito.verify(mole, Mockito.timeout(1000)).dispose(MissionHandle.ofId("missionId"));
+    }
+
     @Ignore
     @Test(expected = IllegalArgumentException.class)
     public void instructReturnsError() {
@@ -0,0 +1,39 @@
+package io.molr.mole.server.conf;
+
+import io.molr.mole.core.api.MoleWebApi;
+import io.molr.mole.server.rest.MolrMoleChannelHandler;
+import io.molr.mole.server.rest.MolrMoleRestService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+
+import java.util.Collections;
+
+/**
+ * Configuration that serves the streams and commands of the {@link MolrMoleRestService} in the context over one
+ * multiplexed websocket per client as well, at {@link MoleWebApi#CHANNEL_PATH}
+ */
+@Configuration
+public class MolrMoleChannelConfiguration {
+
+    @Bean
+    public MolrMoleChannelHandler molrMoleChannelHandler(MolrMoleRestService restService) {
+        return new MolrMoleChannelHandler(restService);
+    }
+
+    @Bean
+    public HandlerMapping molrMoleChannelHandlerMapping(MolrMoleChannelHandler channelHandler) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping();
+        mapping.setUrlMap(Collections.singletonMap(MoleWebApi.CHANNEL_PATH, channelHandler));
+        mapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return mapping;
+    }
+
+    @Bean
+    public WebSocketHandlerAdapter webSocketHandlerAdapter() {
+        return new WebSocketHandlerAdapter();
+    }
+}
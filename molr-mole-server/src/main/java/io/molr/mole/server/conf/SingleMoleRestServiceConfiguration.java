@@ -1,18 +1,27 @@
 package io.molr.mole.server.conf;
 
 import io.molr.mole.core.api.Mole;
+import io.molr.mole.core.metrics.MetricsRegistries;
+import io.molr.mole.core.metrics.MetricsRegistry;
 import io.molr.mole.server.rest.MolrMoleRestService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 /**
- * Configuration that creates a REST service with the ONLY {@link Mole} in the context
+ * Configuration that creates a REST service with the ONLY {@link Mole} in the context, together with its multiplexed
+ * channel
  */
 @Configuration
+@Import(MolrMoleChannelConfiguration.class)
 public class SingleMoleRestServiceConfiguration {
 
+    /**
+     * The service publishes the {@link MetricsRegistry} of the context, if there is one, the shared registry otherwise
+     */
     @Bean
-    public MolrMoleRestService agencyResService(Mole mole) {
-        return new MolrMoleRestService(mole);
+    public MolrMoleRestService agencyResService(Mole mole, ObjectProvider<MetricsRegistry> metricsRegistry) {
+        return new MolrMoleRestService(mole, metricsRegistry.getIfAvailable(MetricsRegistries::shared));
     }
 }
@@ -0,0 +1,194 @@
+package io.molr.mole.server.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import io.molr.commons.domain.dto.ChannelMessageDto;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.UnicastProcessor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static io.molr.mole.core.api.MoleWebApi.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves the streams and commands of a {@link MolrMoleRestService} over one websocket per client (see
+ * {@link io.molr.mole.core.api.MoleWebApi#CHANNEL_PATH}). The client subscribes to a stream by its rest path and
+ * receives its items (the same DTOs as over http) only as far as it requested them, so that each stream has its own flow
+ * control. Commands are answered the same way, as a stream carrying the response of the command. The messages are
+ * {@link ChannelMessageDto}s encoded in JSON.
+ */
+public class MolrMoleChannelHandler implements WebSocketHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MolrMoleChannelHandler.class);
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<String, Function<Map<String, String>, Publisher<?>>> streams;
+    private final Map<String, Function<Map<String, String>, Publisher<?>>> commands;
+
+    public MolrMoleChannelHandler(MolrMoleRestService service) {
+        requireNonNull(service, "service must not be null");
+        this.streams = ImmutableMap.<String, Function<Map<String, String>, Publisher<?>>>builder()
+                .put(STATES_PATH, vars -> service.states())
+                .put(INSTANCE_STATES_PATH, vars -> service.statesFor(vars.get(MISSION_HANDLE)))
+                .put(INSTANCE_STATE_DELTAS_PATH, vars -> service.stateDeltasFor(vars.get(MISSION_HANDLE)))
+                .put(INSTANCE_OUTPUTS_PATH, vars -> service.outputsFor(vars.get(MISSION_HANDLE)))
+                .put(INSTANCE_OUTPUT_EVENTS_PATH, vars -> service.outputEventsFor(vars.get(MISSION_HANDLE)))
+                .put(INSTANCE_REPRESENTATIONS_PATH, vars -> service.representationsFor(vars.get(MISSION_HANDLE)))
+                .build();
+        this.commands = ImmutableMap.<String, Function<Map<String, String>, Publisher<?>>>builder()
+                .put(INSTANCE_INSTRUCT_PATH, vars -> service.instruct(vars.get(MISSION_HANDLE), vars.get(STRAND_ID), vars.get(COMMAND_NAME)))
+                .put(INSTANCE_INSTRUCT_ROOT_PATH, vars -> service.instructRoot(vars.get(MISSION_HANDLE), vars.get(COMMAND_NAME)))
+                .put(INSTANCE_DISPOSE_PATH, vars -> Mono.fromRunnable(() -> service.dispose(vars.get(MISSION_HANDLE))))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Channel channel = new Channel(session);
+        Mono<Void> input = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .doOnNext(channel::onMessage)
+                .doFinally(signal -> channel.close())
+                .then();
+        return Mono.when(input, session.send(channel.outbound));
+    }
+
+    private Optional<String> patternFor(Map<String, ?> routes, String path) {
+        return routes.keySet().stream().filter(pattern -> pathMatcher.match(pattern, path)).findFirst();
+    }
+
+    /**
+     * The subscriptions of one client
+     */
+    private final class Channel {
+
+        private final WebSocketSession session;
+        private final UnicastProcessor<WebSocketMessage> outbound = UnicastProcessor.create();
+        private final FluxSink<WebSocketMessage> outboundSink = outbound.sink();
+        private final Map<Long, StreamSubscriber> subscribers = new ConcurrentHashMap<>();
+
+        private Channel(WebSocketSession session) {
+            this.session = session;
+        }
+
+        private void onMessage(String text) {
+            ChannelMessageDto message;
+            try {
+                message = mapper.readValue(text, ChannelMessageDto.class);
+            } catch (IOException e) {
+                LOGGER.warn("Ignoring unreadable message on channel {}: {}", session.getId(), text, e);
+                return;
+            }
+
+            switch (message.type) {
+                case SUBSCRIBE:
+                    subscribe(message.id, message.path);
+                    return;
+                case REQUEST:
+                    Optional.ofNullable(subscribers.get(message.id)).ifPresent(s -> s.request(message.demand));
+                    return;
+                case CANCEL:
+                    Optional.ofNullable(subscribers.remove(message.id)).ifPresent(StreamSubscriber::dispose);
+                    return;
+                case COMMAND:
+                    execute(message.id, message.path);
+                    return;
+                default:
+                    LOGGER.warn("Ignoring message of unexpected type on channel {}: {}", session.getId(), message);
+            }
+        }
+
+        private void subscribe(long id, String path) {
+            open(id, path, streams);
+        }
+
+        private void execute(long id, String path) {
+            /* the response of a command is sent as soon as it is available */
+            open(id, path, commands).ifPresent(subscriber -> subscriber.request(Long.MAX_VALUE));
+        }
+
+        private Optional<StreamSubscriber> open(long id, String path, Map<String, Function<Map<String, String>, Publisher<?>>> routes) {
+            Optional<String> pattern = patternFor(routes, path);
+            if (!pattern.isPresent()) {
+                send(ChannelMessageDto.error(id, "Nothing served at path '" + path + "'"));
+                return Optional.empty();
+            }
+            StreamSubscriber subscriber = new StreamSubscriber(id);
+            if (subscribers.putIfAbsent(id, subscriber) != null) {
+                send(ChannelMessageDto.error(id, "Stream id " + id + " is already in use"));
+                return Optional.empty();
+            }
+            Map<String, String> variables = pathMatcher.extractUriTemplateVariables(pattern.get(), path);
+            Flux.defer(() -> routes.get(pattern.get()).apply(variables)).subscribe(subscriber);
+            return Optional.of(subscriber);
+        }
+
+        private void send(ChannelMessageDto message) {
+            try {
+                outboundSink.next(session.textMessage(mapper.writeValueAsString(message)));
+            } catch (JsonProcessingException e) {
+                LOGGER.error("Could not serialize {} on channel {}", message, session.getId(), e);
+            }
+        }
+
+        private void close() {
+            subscribers.values().forEach(StreamSubscriber::dispose);
+            subscribers.clear();
+            outboundSink.complete();
+        }
+
+        /**
+         * Forwards one stream to the client, requesting items only on its demand
+         */
+        private final class StreamSubscriber extends BaseSubscriber<Object> {
+
+            private final long id;
+
+            private StreamSubscriber(long id) {
+                this.id = id;
+            }
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                /* the client requests the items */
+            }
+
+            @Override
+            protected void hookOnNext(Object value) {
+                send(ChannelMessageDto.next(id, value));
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                subscribers.remove(id);
+                send(ChannelMessageDto.complete(id));
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                subscribers.remove(id);
+                send(ChannelMessageDto.error(id, String.valueOf(throwable.getMessage())));
+            }
+        }
+    }
+}
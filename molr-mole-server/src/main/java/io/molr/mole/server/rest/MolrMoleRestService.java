@@ -1,45 +1,74 @@
 package io.molr.mole.server.rest;
 
-import io.molr.commons.domain.Mission;
-import io.molr.commons.domain.MissionHandle;
-import io.molr.commons.domain.Strand;
-import io.molr.commons.domain.StrandCommand;
+import io.molr.commons.domain.*;
 import io.molr.commons.domain.dto.*;
 import io.molr.mole.core.api.Mole;
+import io.molr.mole.core.metrics.MetricsRegistries;
+import io.molr.mole.core.metrics.MetricsRegistry;
+import io.molr.mole.core.trace.ChromeTraceWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static io.molr.mole.core.api.MoleWebApi.*;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 
 @RestController
 public class MolrMoleRestService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MolrMoleRestService.class);
 
+    /* the number of items kept per journal for the clients resuming a stream */
+    private static final int JOURNAL_CAPACITY = 1000;
+
     private final Mole mole;
+    private final MetricsRegistry metricsRegistry;
+    private final Map<MissionHandle, StreamJournal<MissionStateDelta>> stateDeltaJournals = new ConcurrentHashMap<>();
+    private final Map<MissionHandle, StreamJournal<MissionOutputEvent>> outputEventJournals = new ConcurrentHashMap<>();
 
+    @Autowired
     public MolrMoleRestService(Mole mole) {
+        this(mole, MetricsRegistries.shared());
+    }
+
+    /**
+     * Creates a service which publishes the given registry at {@link io.molr.mole.core.api.MoleWebApi#METRICS_PATH},
+     * which shall be the registry the mole reports to
+     */
+    public MolrMoleRestService(Mole mole, MetricsRegistry metricsRegistry) {
         this.mole = mole;
+        this.metricsRegistry = requireNonNull(metricsRegistry, "metricsRegistry must not be null");
     }
 
     /*
         GET mappings
      */
 
-    @GetMapping(path = "/states", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @GetMapping(path = STATES_PATH, produces = {MediaType.TEXT_EVENT_STREAM_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<AgencyStateDto> states() {
         return mole.states().map(AgencyStateDto::from);
     }
 
+    @GetMapping(path = METRICS_PATH)
+    public List<MetricDto> metrics() {
+        return metricsRegistry.snapshot().stream()
+                .map(meter -> new MetricDto(meter.name(), meter.tags(), meter.measurements()))
+                .collect(toList());
+    }
+
     @GetMapping(path = MISSION_REPRESENTATION_PATH)
     public Mono<MissionRepresentationDto> representationOf(@PathVariable(MISSION_NAME) String missionName) {
         return mole.representationOf(new Mission(missionName)).map(MissionRepresentationDto::from);
@@ -50,22 +79,63 @@ public class MolrMoleRestService {
         return mole.parameterDescriptionOf(new Mission(missionName)).map(MissionParameterDescriptionDto::from);
     }
 
-    @GetMapping(path = INSTANCE_STATES_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @GetMapping(path = INSTANCE_STATES_PATH, produces = {MediaType.TEXT_EVENT_STREAM_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<MissionStateDto> statesFor(@PathVariable(MISSION_HANDLE) String missionHandle) {
         return mole.statesFor(MissionHandle.ofId(missionHandle)).map(MissionStateDto::from);
     }
 
-    @GetMapping(path = INSTANCE_OUTPUTS_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    /**
+     * The state deltas as server sent events, numbered so that a reconnecting client resumes after the last one it
+     * received (see {@link StreamJournal})
+     */
+    @GetMapping(path = INSTANCE_STATE_DELTAS_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MissionStateDeltaDto>> resumableStateDeltasFor(@PathVariable(MISSION_HANDLE) String missionHandle,
+                                                                         @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        MissionHandle handle = MissionHandle.ofId(missionHandle);
+        return journalFor(stateDeltaJournals, handle, () -> mole.stateDeltasFor(handle), StateDeltaAccumulator::new)
+                .eventsAfter(lastEventId)
+                .map(event -> withData(event, MissionStateDeltaDto.from(event.data())));
+    }
+
+    @GetMapping(path = INSTANCE_STATE_DELTAS_PATH, produces = APPLICATION_STREAM_SMILE_VALUE)
+    public Flux<MissionStateDeltaDto> stateDeltasFor(@PathVariable(MISSION_HANDLE) String missionHandle) {
+        return mole.stateDeltasFor(MissionHandle.ofId(missionHandle)).map(MissionStateDeltaDto::from);
+    }
+
+    @GetMapping(path = INSTANCE_OUTPUTS_PATH, produces = {MediaType.TEXT_EVENT_STREAM_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<MissionOutputDto> outputsFor(@PathVariable(MISSION_HANDLE) String missionHandle) {
         return mole.outputsFor(MissionHandle.ofId(missionHandle)).map(MissionOutputDto::from);
     }
 
-    @GetMapping(path = INSTANCE_REPRESENTATIONS_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    /**
+     * The output events as server sent events, numbered so that a reconnecting client resumes after the last one it
+     * received (see {@link StreamJournal})
+     */
+    @GetMapping(path = INSTANCE_OUTPUT_EVENTS_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MissionOutputEventDto>> resumableOutputEventsFor(@PathVariable(MISSION_HANDLE) String missionHandle,
+                                                                           @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        MissionHandle handle = MissionHandle.ofId(missionHandle);
+        return journalFor(outputEventJournals, handle, () -> mole.outputEventsFor(handle), OutputEventAccumulator::new)
+                .eventsAfter(lastEventId)
+                .map(event -> withData(event, MissionOutputEventDto.from(event.data())));
+    }
+
+    @GetMapping(path = INSTANCE_OUTPUT_EVENTS_PATH, produces = APPLICATION_STREAM_SMILE_VALUE)
+    public Flux<MissionOutputEventDto> outputEventsFor(@PathVariable(MISSION_HANDLE) String missionHandle) {
+        return mole.outputEventsFor(MissionHandle.ofId(missionHandle)).map(MissionOutputEventDto::from);
+    }
+
+    @GetMapping(path = INSTANCE_REPRESENTATIONS_PATH, produces = {MediaType.TEXT_EVENT_STREAM_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<MissionRepresentationDto> representationsFor(@PathVariable(MISSION_HANDLE) String missionHandle) {
         return mole.representationsFor(MissionHandle.ofId(missionHandle)).map(MissionRepresentationDto::from);
     }
 
-    @GetMapping(path = "/test-stream/{count}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @GetMapping(path = INSTANCE_TRACE_PATH, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<String> traceFor(@PathVariable(MISSION_HANDLE) String missionHandle) {
+        return mole.traceFor(MissionHandle.ofId(missionHandle)).map(ChromeTraceWriter::toJson);
+    }
+
+    @GetMapping(path = "/test-stream/{count}", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, APPLICATION_STREAM_SMILE_VALUE})
     public Flux<TestValueDto> testResponse(@PathVariable("count") int count) {
         return Flux.interval(Duration.of(1, ChronoUnit.SECONDS))
                 .take(count)
@@ -82,14 +152,74 @@ public class MolrMoleRestService {
     }
 
     @PostMapping(path = INSTANCE_INSTRUCT_PATH)
-    public void instruct(@PathVariable(MISSION_HANDLE) String missionHandle, @PathVariable(STRAND_ID) String strandId, @PathVariable(COMMAND_NAME) String commandName) {
-        mole.instruct(MissionHandle.ofId(missionHandle), Strand.ofId(strandId), StrandCommand.valueOf(commandName));
+    public Mono<CommandResponseDto> instruct(@PathVariable(MISSION_HANDLE) String missionHandle, @PathVariable(STRAND_ID) String strandId, @PathVariable(COMMAND_NAME) String commandName) {
+        return mole.instruct(MissionHandle.ofId(missionHandle), Strand.ofId(strandId), StrandCommand.valueOf(commandName))
+                .map(CommandResponseDto::from);
     }
 
 
     @PostMapping(path = INSTANCE_INSTRUCT_ROOT_PATH)
-    public void instructRoot(@PathVariable(MISSION_HANDLE) String missionHandle, @PathVariable(COMMAND_NAME) String commandName) {
-        mole.instructRoot(MissionHandle.ofId(missionHandle), StrandCommand.valueOf(commandName));
+    public Mono<CommandResponseDto> instructRoot(@PathVariable(MISSION_HANDLE) String missionHandle, @PathVariable(COMMAND_NAME) String commandName) {
+        return mole.instructRoot(MissionHandle.ofId(missionHandle), StrandCommand.valueOf(commandName))
+                .map(CommandResponseDto::from);
+    }
+
+    @PostMapping(path = INSTANCE_DISPOSE_PATH)
+    public void dispose(@PathVariable(MISSION_HANDLE) String missionHandle) {
+        mole.dispose(MissionHandle.ofId(missionHandle));
+    }
+
+    private static <T> StreamJournal<T> journalFor(Map<MissionHandle, StreamJournal<T>> journals, MissionHandle handle,
+                                                   Supplier<Flux<T>> source, Supplier<StreamJournal.Accumulator<T>> accumulator) {
+        /* the journal stays until the stream of the instance terminates */
+        StreamJournal<T> journal = journals.computeIfAbsent(handle, h -> new StreamJournal<>(Flux.defer(source),
+                accumulator.get(), JOURNAL_CAPACITY, terminated -> journals.remove(h, terminated)));
+        journal.connect();
+        return journal;
+    }
+
+    private static <T> ServerSentEvent<T> withData(ServerSentEvent<?> event, T data) {
+        return ServerSentEvent.builder(data).id(event.id()).build();
+    }
+
+    /**
+     * A new client of the state deltas starts with a snapshot of the latest state
+     */
+    private static final class StateDeltaAccumulator implements StreamJournal.Accumulator<MissionStateDelta> {
+
+        private MissionState state;
+
+        @Override
+        public void add(MissionStateDelta delta) {
+            if (delta.isSnapshot() || state != null) {
+                state = delta.applyTo(state);
+            }
+        }
+
+        @Override
+        public List<MissionStateDelta> snapshot() {
+            return state == null ? Collections.emptyList() : Collections.singletonList(MissionStateDelta.snapshotOf(state));
+        }
+    }
+
+    /**
+     * A new client of the output events starts with the latest value of each output
+     */
+    private static final class OutputEventAccumulator implements StreamJournal.Accumulator<MissionOutputEvent> {
+
+        private final Map<String, Map<String, MissionOutputEvent>> latestEvents = new LinkedHashMap<>();
+
+        @Override
+        public void add(MissionOutputEvent event) {
+            latestEvents.computeIfAbsent(event.blockId(), id -> new LinkedHashMap<>()).put(event.name(), event);
+        }
+
+        @Override
+        public List<MissionOutputEvent> snapshot() {
+            List<MissionOutputEvent> events = new ArrayList<>();
+            latestEvents.values().forEach(blockEvents -> events.addAll(blockEvents.values()));
+            return events;
+        }
     }
 
     @ExceptionHandler({Exception.class})
@@ -0,0 +1,188 @@
+package io.molr.mole.server.rest;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Numbers the items of an incremental stream (state deltas, output events) and keeps the latest ones, so that a client
+ * which lost its connection can resume after the last item it received (sent back in the {@code Last-Event-ID} header)
+ * instead of starting over. If the client missed more items than are kept, or the journal does not know its last item
+ * (e.g. the journal was recreated in the meantime), it receives a snapshot of the accumulated items instead.
+ * <p>
+ * The event ids consist of the epoch of the journal (random) and the sequence number of the item. Only the last item of a
+ * snapshot has an id, so that a client losing the connection in the middle of a snapshot does not resume after it.
+ *
+ * @param <T> the type of the items
+ */
+final class StreamJournal<T> {
+
+    /**
+     * Folds the items of the stream into the items which replace all of them for a new client
+     */
+    interface Accumulator<T> {
+
+        void add(T item);
+
+        List<T> snapshot();
+    }
+
+    private final Object lock = new Object();
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicBoolean connected = new AtomicBoolean();
+
+    private final Flux<T> source;
+    private final Accumulator<T> accumulator;
+    private final int capacity;
+    private final Consumer<StreamJournal<T>> onTerminate;
+
+    /* guarded by lock */
+    private final Deque<ServerSentEvent<T>> recentEvents = new ArrayDeque<>();
+    /* sinks might be disposed while an item is emitted to them */
+    private final List<FluxSink<ServerSentEvent<T>>> sinks = new CopyOnWriteArrayList<>();
+    private long lastSequence;
+    private boolean terminated;
+    private Throwable error;
+
+    /**
+     * @param source      the stream to journal, subscribed to on {@link #connect()}
+     * @param accumulator folds the items into a snapshot
+     * @param capacity    the number of items kept for resuming clients
+     * @param onTerminate called with this journal when the source terminated
+     */
+    StreamJournal(Flux<T> source, Accumulator<T> accumulator, int capacity, Consumer<StreamJournal<T>> onTerminate) {
+        this.source = requireNonNull(source, "source must not be null");
+        this.accumulator = requireNonNull(accumulator, "accumulator must not be null");
+        this.onTerminate = requireNonNull(onTerminate, "onTerminate must not be null");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, but was " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Subscribes to the source, if not done yet
+     */
+    void connect() {
+        if (connected.compareAndSet(false, true)) {
+            source.subscribe(this::onNext, this::onError, this::onComplete);
+        }
+    }
+
+    /**
+     * @param lastEventId the id of the last event received by the client, null for a new client
+     * @return the events following the given one (or a snapshot, if they are not known anymore) and then the new ones
+     */
+    Flux<ServerSentEvent<T>> eventsAfter(String lastEventId) {
+        return Flux.create(sink -> {
+            synchronized (lock) {
+                long resumedSequence = resumableSequence(lastEventId);
+                if (resumedSequence >= 0) {
+                    recentEvents.stream()
+                            .filter(event -> sequenceOf(event.id()) > resumedSequence)
+                            .forEach(sink::next);
+                } else {
+                    snapshot().forEach(sink::next);
+                }
+
+                if (terminated) {
+                    if (error != null) {
+                        sink.error(error);
+                    } else {
+                        sink.complete();
+                    }
+                    return;
+                }
+                sinks.add(sink);
+                sink.onDispose(() -> {
+                    synchronized (lock) {
+                        sinks.remove(sink);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @return the sequence after which the given client can resume, -1 if it needs a snapshot
+     */
+    private long resumableSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + ":")) {
+            return -1;
+        }
+        long sequence = sequenceOf(lastEventId);
+        long oldestKept = recentEvents.isEmpty() ? lastSequence + 1 : sequenceOf(recentEvents.getFirst().id());
+        if (sequence < oldestKept - 1 || sequence > lastSequence) {
+            return -1;
+        }
+        return sequence;
+    }
+
+    private List<ServerSentEvent<T>> snapshot() {
+        List<T> items = accumulator.snapshot();
+        List<ServerSentEvent<T>> events = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ServerSentEvent.Builder<T> builder = ServerSentEvent.builder(items.get(i));
+            if (i == items.size() - 1) {
+                builder.id(idOf(lastSequence));
+            }
+            events.add(builder.build());
+        }
+        return events;
+    }
+
+    private void onNext(T item) {
+        synchronized (lock) {
+            lastSequence++;
+            accumulator.add(item);
+            ServerSentEvent<T> event = ServerSentEvent.builder(item).id(idOf(lastSequence)).build();
+            recentEvents.addLast(event);
+            if (recentEvents.size() > capacity) {
+                recentEvents.removeFirst();
+            }
+            sinks.forEach(sink -> sink.next(event));
+        }
+    }
+
+    private void onError(Throwable throwable) {
+        synchronized (lock) {
+            terminated = true;
+            error = throwable;
+            sinks.forEach(sink -> sink.error(throwable));
+            sinks.clear();
+        }
+        onTerminate.accept(this);
+    }
+
+    private void onComplete() {
+        synchronized (lock) {
+            terminated = true;
+            sinks.forEach(FluxSink::complete);
+            sinks.clear();
+        }
+        onTerminate.accept(this);
+    }
+
+    private String idOf(long sequence) {
+        return epoch + ":" + sequence;
+    }
+
+    private static long sequenceOf(String id) {
+        try {
+            return Long.parseLong(id.substring(id.lastIndexOf(':') + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
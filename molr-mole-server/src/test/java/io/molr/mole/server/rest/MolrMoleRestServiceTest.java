@@ -1,11 +1,23 @@
 package io.molr.mole.server.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.molr.commons.domain.AgencyState;
+import io.molr.commons.domain.Block;
+import io.molr.commons.domain.ImmutableAgencyState;
 import io.molr.commons.domain.Mission;
 import io.molr.commons.domain.MissionParameter;
+import io.molr.commons.domain.MissionHandle;
 import io.molr.commons.domain.MissionParameterDescription;
+import io.molr.commons.domain.Strand;
+import io.molr.commons.domain.dto.ChannelMessageDto;
+import io.molr.commons.domain.dto.MetricDto;
 import io.molr.commons.domain.dto.MissionParameterDescriptionDto;
 import io.molr.commons.domain.dto.MissionRepresentationDto;
 import io.molr.mole.core.api.Mole;
+import io.molr.mole.core.metrics.MetricsRegistries;
+import io.molr.mole.core.trace.TraceRecorder;
+import io.molr.mole.server.conf.MolrMoleChannelConfiguration;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -18,14 +30,29 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.Duration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static io.molr.commons.domain.MissionParameter.required;
 import static io.molr.commons.domain.Placeholder.anInteger;
+import static io.molr.commons.domain.dto.ChannelMessageDto.Type.COMPLETE;
+import static io.molr.commons.domain.dto.ChannelMessageDto.Type.NEXT;
+import static io.molr.mole.core.api.MoleWebApi.CHANNEL_PATH;
+import static io.molr.mole.core.api.MoleWebApi.METRICS_PATH;
+import static io.molr.mole.core.api.MoleWebApi.STATES_PATH;
+import static io.molr.mole.core.api.MoleWebApi.instanceTraceUrl;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +61,7 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = DEFINED_PORT)
-@ContextConfiguration(classes = MolrMoleRestService.class)
+@ContextConfiguration(classes = {MolrMoleRestService.class, MolrMoleChannelConfiguration.class})
 @EnableAutoConfiguration
 public class MolrMoleRestServiceTest {
 
@@ -64,6 +91,40 @@ public class MolrMoleRestServiceTest {
         assertThat(description.parameters).as("it should have null default value").anyMatch(param -> param.defaultValue == null);
     }
 
+    @Test
+    public void metricsArePublished() {
+        MetricsRegistries.shared().counter("test.counter", "test", "metricsArePublished").increment();
+
+        List<MetricDto> metrics = WebClient.create(baseUrl).get()
+                .uri(METRICS_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(MetricDto.class)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(metrics).filteredOn(metric -> metric.name.equals("test.counter"))
+                .hasSize(1)
+                .allMatch(metric -> metric.tags.get("test").equals("metricsArePublished"))
+                .allMatch(metric -> metric.measurements.get("count") == 1.0);
+    }
+
+    @Test
+    public void traceIsPublishedInTheChromeFormat() {
+        TraceRecorder recorder = TraceRecorder.withCapacity(10);
+        recorder.cursorMoved(Strand.ofId("0"), Block.idAndText("0", "traced block"));
+        when(mole.traceFor(MissionHandle.ofId("1"))).thenReturn(Mono.just(recorder.events()));
+
+        String trace = WebClient.create(baseUrl).get()
+                .uri(instanceTraceUrl("1"))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(trace).startsWith("{\"displayTimeUnit\"").contains("traced block");
+    }
+
     @Test
     public void instantiateWithInvalidBody() {
         Set<String> params = new HashSet<>();
@@ -106,5 +167,58 @@ public class MolrMoleRestServiceTest {
         assertThat(response).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    public void channelOnlySendsTheRequestedItems() {
+        AgencyState state = ImmutableAgencyState.of(singleton(new Mission("aMission")), emptySet());
+        when(mole.states()).thenReturn(Flux.just(state, state));
+
+        List<ChannelMessageDto> messages = exchangeOverChannel(ChannelMessageDto.subscribe(1, STATES_PATH), ChannelMessageDto.request(1, 1));
+
+        assertThat(messages).extracting(message -> message.type).containsExactly(NEXT);
+        assertThat(messages.get(0).id).isEqualTo(1);
+    }
+
+    @Test
+    public void channelCompletesFinishedStreams() {
+        AgencyState state = ImmutableAgencyState.of(singleton(new Mission("aMission")), emptySet());
+        when(mole.states()).thenReturn(Flux.just(state, state));
+
+        List<ChannelMessageDto> messages = exchangeOverChannel(ChannelMessageDto.subscribe(7, STATES_PATH), ChannelMessageDto.request(7, 5));
+
+        assertThat(messages).extracting(message -> message.type).containsExactly(NEXT, NEXT, COMPLETE);
+        assertThat(messages).allMatch(message -> message.id == 7);
+    }
+
+    private static List<ChannelMessageDto> exchangeOverChannel(ChannelMessageDto... messages) {
+        ObjectMapper mapper = new ObjectMapper();
+        List<ChannelMessageDto> received = new CopyOnWriteArrayList<>();
+        new ReactorNettyWebSocketClient().execute(URI.create("ws://localhost:8800" + CHANNEL_PATH), session -> session
+                .send(Flux.just(messages).map(message -> session.textMessage(write(mapper, message))))
+                .thenMany(session.receive()
+                        .map(WebSocketMessage::getPayloadAsText)
+                        .map(text -> read(mapper, text))
+                        .doOnNext(received::add)
+                        .take(Duration.ofSeconds(1)))
+                .then())
+                .block(Duration.ofSeconds(5));
+        return received;
+    }
+
+    private static String write(ObjectMapper mapper, ChannelMessageDto message) {
+        try {
+            return mapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ChannelMessageDto read(ObjectMapper mapper, String text) {
+        try {
+            return mapper.readValue(text, ChannelMessageDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package io.molr.mole.server.rest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.ReplayProcessor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamJournalTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int CAPACITY = 3;
+
+    private ReplayProcessor<Integer> source;
+    private StreamJournal<Integer> journal;
+
+    @Before
+    public void setUp() {
+        source = ReplayProcessor.create();
+        journal = new StreamJournal<>(source, new SumAccumulator(), CAPACITY, terminated -> {
+        });
+        journal.connect();
+    }
+
+    @Test
+    public void newClientsStartWithTheSnapshot() {
+        source.onNext(1);
+        source.onNext(2);
+        source.onComplete();
+
+        List<ServerSentEvent<Integer>> events = journal.eventsAfter(null).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::data).containsExactly(3);
+        assertThat(events.get(0).id()).endsWith(":2");
+    }
+
+    @Test
+    public void reconnectingClientsResumeAfterTheirLastEvent() {
+        source.onNext(1);
+        String lastEventId = journal.eventsAfter(null).blockFirst(TIMEOUT).id();
+        source.onNext(2);
+        source.onNext(4);
+        source.onComplete();
+
+        List<ServerSentEvent<Integer>> events = journal.eventsAfter(lastEventId).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::data).containsExactly(2, 4);
+    }
+
+    @Test
+    public void clientsWhichMissedTooManyEventsGetTheSnapshot() {
+        source.onNext(1);
+        String lastEventId = journal.eventsAfter(null).blockFirst(TIMEOUT).id();
+        Flux.range(2, CAPACITY + 1).subscribe(source::onNext);
+        source.onComplete();
+
+        List<ServerSentEvent<Integer>> events = journal.eventsAfter(lastEventId).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::data).containsExactly(15);
+    }
+
+    @Test
+    public void eventsOfAnotherJournalAreNotResumed() {
+        source.onNext(1);
+        source.onComplete();
+
+        List<ServerSentEvent<Integer>> events = journal.eventsAfter("unknown-epoch:0").collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::data).containsExactly(1);
+    }
+
+    private static final class SumAccumulator implements StreamJournal.Accumulator<Integer> {
+
+        private final List<Integer> items = new ArrayList<>();
+
+        @Override
+        public void add(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public List<Integer> snapshot() {
+            return items.isEmpty() ? Collections.emptyList() : Collections.singletonList(items.stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+}